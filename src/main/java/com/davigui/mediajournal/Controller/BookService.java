@@ -2,14 +2,17 @@ package com.davigui.mediajournal.Controller;
 
 import com.davigui.mediajournal.Model.Enums.Genres;
 import com.davigui.mediajournal.Model.Enums.Months;
+import com.davigui.mediajournal.Model.Enums.SortOrder;
 import com.davigui.mediajournal.Model.Exceptions.MediaAlreadyExistsException;
 import com.davigui.mediajournal.Model.Repository.Library;
+import com.davigui.mediajournal.Model.Repository.TextIndex;
 import com.davigui.mediajournal.Model.Medias.Book;
+import com.davigui.mediajournal.Model.Medias.SearchKeys;
 import com.davigui.mediajournal.Model.Result.*;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * A classe BookService trata do gerenciamento de livros.
@@ -45,9 +48,7 @@ public class BookService extends CommonService<Book> {
         Book book = new Book(name, year, genre, isbn, author, publisher, owned);
 
         try {
-            journal.exists(book);
-            journal.add(book);
-            journal.addYear(year);
+            journal.addIfAbsent(book);
             return new Success("Livro", "Registrado com sucesso!");
         } catch (MediaAlreadyExistsException e) {
             return new Failure("Livro", e.getMessage());
@@ -56,30 +57,27 @@ public class BookService extends CommonService<Book> {
 
     /**
      * Busca livros pelo ISBN.
-     * Filtra os livros que contêm o ISBN, utilizando o metodo filter da biblioteca Stream.
+     * Filtra os livros que contêm o ISBN durante a ordenação por nota, sem lista intermediária.
+     * Compara com a chave de busca do ISBN guardada em cada livro.
      *
      * @param isbn O ISBN do livro a ser buscado.
      * @return Uma lista de livros que correspondem ao ISBN.
      */
     public List<Book> searchBookByIsbn(String isbn) {
-        String isbnLower = isbn.toLowerCase().trim();
-        List<Book> filteredBooks = journal.getBookList().stream().filter
-                (book -> book.getIsbn().toLowerCase().contains(isbnLower)).toList();
-
-        return sortAscending(filteredBooks);
+        String isbnKey = SearchKeys.normalize(isbn).trim();
+        return query().filter(book -> book.getIsbnKey().contains(isbnKey))
+                .sortByRate(SortOrder.ASCENDING).toList();
     }
 
     /**
      * Busca livros pelo nome do autor.
-     * Filtra os livros que contêm o nome do autor, utilizando o metodo filter da biblioteca Stream.
+     * Consulta o índice de trigramas de autores da biblioteca.
      *
      * @param author O nome do autor a ser buscado.
      * @return Uma lista de livros que possuem o autor especificado.
      */
     public List<Book> searchBookByAuthor(String author) {
-        String authorLower = author.toLowerCase().trim();
-        List<Book> filteredBooks = journal.getBookList().stream().filter
-                (book -> book.getAuthor().toLowerCase().contains(authorLower)).toList();
+        List<Book> filteredBooks = journal.getBookAuthorIndex().search(author);
 
         return sortAscending(filteredBooks);
     }
@@ -103,19 +101,65 @@ public class BookService extends CommonService<Book> {
             return new Failure("Livro", "Ano inválido!");
 
         String date = month.toString() + " de " + year;
-        book.setSeen();
-        book.setSeenDate(date);
+        journal.update(book, changed -> {
+            changed.setSeen();
+            changed.setSeenDate(date);
+        });
         return new Success("Livro", "Data de leitura registrada.");
     }
 
     /**
      * Obtém todos os livros registrados na biblioteca.
+     * A lista é uma cópia imutável, que continua válida enquanto a biblioteca é alterada.
+     *
+     * @return Uma lista imutável contendo todos os livros.
+     */
+    @Override
+    public List<Book> getAll() {
+        return journal.getBooks();
+    }
+
+    /**
+     * Obtém os livros de um ano, do índice por ano da biblioteca.
+     *
+     * @param year O ano.
+     * @return Os livros daquele ano, na ordem de cadastro.
+     */
+    @Override
+    protected List<Book> getByYear(int year) {
+        return journal.getBooksOfYear(year);
+    }
+
+    /**
+     * Obtém os livros de um gênero, do índice por gênero da biblioteca.
+     *
+     * @param genre O gênero.
+     * @return Os livros daquele gênero, na ordem de cadastro.
+     */
+    @Override
+    protected List<Book> getByGenre(Genres genre) {
+        return journal.getBooksOfGenre(genre);
+    }
+
+    /**
+     * Obtém o índice de trigramas de títulos dos livros da biblioteca.
+     *
+     * @return O índice de busca textual por título.
+     */
+    @Override
+    protected TextIndex<Book> getTitleIndex() {
+        return journal.getBookTitleIndex();
+    }
+
+    /**
+     * Aplica uma alteração de um livro através da biblioteca, anexando-a ao log de alterações.
      *
-     * @return Uma lista contendo todos os livros.
+     * @param book O livro a ser alterado.
+     * @param change A alteração.
      */
     @Override
-    public ArrayList<Book> getAll() {
-        return journal.getBookList();
+    protected void recordChange(Book book, Consumer<? super Book> change) {
+        journal.update(book, change);
     }
 
     /**
@@ -127,9 +171,7 @@ public class BookService extends CommonService<Book> {
      * @return Um resultado indicando sucesso ou falha na remoção.
      */
     public IResult deleteBook(Book book) {
-        if (journal.getBookList().contains(book)) {
-            journal.remove(book);
-            journal.removeYear(book.getYear());
+        if (journal.removeIfPresent(book)) {
             return new Success("Livro", "Removido com sucesso!");
         } else {
             return new Failure("Livro", "Esse livro não existe na biblioteca!");
@@ -1,16 +1,22 @@
 package com.davigui.mediajournal.Controller;
 
 import com.davigui.mediajournal.Model.Enums.Genres;
+import com.davigui.mediajournal.Model.Enums.SortOrder;
 import com.davigui.mediajournal.Model.Repository.Library;
+import com.davigui.mediajournal.Model.Repository.TextIndex;
 import com.davigui.mediajournal.Model.Medias.Media;
+import com.davigui.mediajournal.Model.Medias.Stars;
 import com.davigui.mediajournal.Model.Result.*;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * A classe abstrata CommonService fornece uma implementação base para serviços que manipulam
  * objetos do tipo Media. Ela define métodos comuns para avaliação,
  * escrita e leitura de reviews, busca e ordenação de mídias.
+ * As buscas e ordenações são consultas prontas (Query) sobre as mídias ou os índices da biblioteca.
  *
  * @param <T> O tipo de mídia que será manipulado, que deve estender a classe Media.
  */
@@ -42,7 +48,7 @@ public abstract class CommonService<T extends Media> {
         } else if (!media.isSeen()) {
             return new Failure(media.getMediaType(), "Marque como visto antes de avaliar");
         } else {
-            media.setRating(rating);
+            recordChange(media, changed -> changed.setRating(rating));
             return new Success(media.getMediaType(), "Avaliação salva com sucesso.");
         }
     }
@@ -57,7 +63,7 @@ public abstract class CommonService<T extends Media> {
      */
     public IResult writeReview(T media, String review) {
         if (media.isSeen()) {
-            media.setReview(review);
+            recordChange(media, changed -> changed.setReview(review));
             return new Success(media.getMediaType(), "Review salva com sucesso.");
         }
         return new Failure(media.getMediaType(), "Marque como visto antes de escrever uma review");
@@ -84,50 +90,91 @@ public abstract class CommonService<T extends Media> {
      */
     public String showRating(T media) {
         return "Nota: " + ((media.getRating() == 0) ?
-                "Você ainda não avaliou a obra" : "★".repeat(media.getRating()));
+                "Você ainda não avaliou a obra" : Stars.of(media.getRating()));
+    }
+
+    /**
+     * Cria uma consulta sobre todas as mídias do controlador.
+     *
+     * @return Uma consulta sem filtros, sem ordenação e sem limite.
+     */
+    public Query<T> query() {
+        return new Query<>(getAll());
+    }
+
+    /**
+     * Cria uma consulta sobre uma lista de mídias, como o resultado de uma busca.
+     *
+     * @param mediaList As mídias candidatas.
+     * @return Uma consulta sem filtros, sem ordenação e sem limite.
+     */
+    public Query<T> query(List<T> mediaList) {
+        return new Query<>(mediaList);
+    }
+
+    /**
+     * Cria uma consulta sobre as mídias cujo título contém o termo, obtidas do
+     * índice de trigramas de títulos da biblioteca, sem diferenciar maiúsculas de minúsculas.
+     *
+     * @param title O título a ser buscado.
+     * @return Uma consulta sobre as mídias que correspondem ao título.
+     */
+    public Query<T> queryByTitle(String title) {
+        return new Query<>(getTitleIndex().search(title));
+    }
+
+    /**
+     * Cria uma consulta sobre as mídias de um ano, obtidas do índice por ano da biblioteca.
+     *
+     * @param year O ano a ser buscado.
+     * @return Uma consulta sobre as mídias que correspondem ao ano.
+     */
+    public Query<T> queryByYear(int year) {
+        return new Query<>(getByYear(year));
+    }
+
+    /**
+     * Cria uma consulta sobre as mídias de um gênero, obtidas do índice por gênero da biblioteca.
+     *
+     * @param genre O gênero a ser buscado.
+     * @return Uma consulta sobre as mídias que correspondem ao gênero.
+     */
+    public Query<T> queryByGenre(Genres genre) {
+        return new Query<>(getByGenre(genre));
     }
 
     /**
      * Busca mídias por título.
-     * Filtra as obras que contêm o título, utilizando o metodo filter da biblioteca Stream.
+     * Consulta o índice de trigramas de títulos da biblioteca, que retorna as obras
+     * cujo título contém o termo, sem diferenciar maiúsculas de minúsculas.
      *
      * @param title     O título a ser buscado.
      * @return Uma lista de mídias que correspondem ao título, ordenadas de forma crescente.
      */
     public List<T> searchByTitle(String title) {
-        String titleLower = title.toLowerCase().trim();
-        List<T> filteredMedia = getAll().stream().filter
-                (media -> media.getTitle().toLowerCase().contains(titleLower)).toList();
-
-        return sortAscending(filteredMedia);
+        return queryByTitle(title).sortByRate(SortOrder.ASCENDING).toList();
     }
 
     /**
      * Busca mídias por ano.
-     * Filtra as obras que contêm o ano, utilizando o metodo filter da biblioteca Stream.
+     * Consulta o índice por ano da biblioteca, sem percorrer todas as obras.
      *
      * @param year      O ano a ser buscado.
      * @return Uma lista de mídias que correspondem ao ano, ordenadas de forma crescente.
      */
     public List<T> searchByYear(int year) {
-        List<T> filteredMedia = getAll().stream().filter
-                (media -> media.getYear() == year).toList();
-
-        return sortAscending(filteredMedia);
+        return queryByYear(year).sortByRate(SortOrder.ASCENDING).toList();
     }
 
     /**
      * Busca mídias por gênero.
-     * Filtra as obras que contêm o gênero, utilizando o metodo filter da biblioteca Stream.
+     * Consulta o índice por gênero da biblioteca, sem percorrer todas as obras.
      *
      * @param genre     O gênero a ser buscado.
      * @return Uma lista de mídias que correspondem ao gênero, ordenadas de forma crescente.
      */
     public List<T> searchByGenre(Genres genre) {
-        List<T> filteredMedia = getAll().stream().filter
-                (media -> media.getGenre() == genre).toList();
-
-        return sortAscending(filteredMedia);
+        return queryByGenre(genre).sortByRate(SortOrder.ASCENDING).toList();
     }
 
     /**
@@ -137,7 +184,7 @@ public abstract class CommonService<T extends Media> {
      * @return A lista ordenada de forma crescente.
      */
     public List<T> sortAscending(List<T> mediaList) {
-        return mediaList.stream().sorted(Comparator.comparing(Media::getRating)).toList();
+        return query(mediaList).sortByRate(SortOrder.ASCENDING).toList();
     }
 
     /**
@@ -147,7 +194,66 @@ public abstract class CommonService<T extends Media> {
      * @return A lista ordenada de forma decrescente.
      */
     public List<T> sortDescending(List<T> mediaList) {
-        return mediaList.stream().sorted(Comparator.comparing(Media::getRating)).toList().reversed();
+        return query(mediaList).sortByRate(SortOrder.DESCENDING).toList();
+    }
+
+    /**
+     * Agrupa todas as mídias por uma chave (ano ou gênero), ordenando os grupos
+     * e as notas dentro de cada grupo.
+     * <p>
+     * Faz uma única ordenação da coleção inteira, comparando primeiro a chave
+     * do grupo e depois a nota, e em seguida percorre o resultado uma vez,
+     * cortando-o em grupos. Os grupos são visões da lista ordenada, sem cópias.
+     * Mídias sem chave (por exemplo, sem gênero) ficam no fim da ordenação e não
+     * entram em nenhum grupo.
+     *
+     * @param groupKey   Função que extrai a chave do grupo de uma mídia.
+     * @param groupOrder A ordem dos grupos.
+     * @param rateOrder  A ordem das notas dentro de cada grupo.
+     * @param <K>        O tipo da chave do grupo.
+     * @return Um mapa com os grupos na ordem pedida, cada um com suas mídias ordenadas por nota.
+     */
+    public <K extends Comparable<? super K>> Map<K, List<T>> groupBy(Function<? super T, K> groupKey,
+                                                                    SortOrder groupOrder, SortOrder rateOrder) {
+        Comparator<K> keyOrder = (groupOrder == SortOrder.ASCENDING) ?
+                Comparator.naturalOrder() : Comparator.reverseOrder();
+        List<T> sorted = Query.sortByRate(getAll(),
+                Comparator.comparing(groupKey, Comparator.nullsLast(keyOrder)), rateOrder);
+
+        Map<K, List<T>> groups = new LinkedHashMap<>();
+        int start = 0;
+        while (start < sorted.size()) {
+            K key = groupKey.apply(sorted.get(start));
+            if (key == null)
+                break;
+            int end = start + 1;
+            while (end < sorted.size() && key.equals(groupKey.apply(sorted.get(end))))
+                ++end;
+
+            groups.put(key, Collections.unmodifiableList(sorted.subList(start, end)));
+            start = end;
+        }
+        return groups;
+    }
+
+    /**
+     * Agrupa as mídias por ano, percorrendo os anos registrados no histograma de anos
+     * da biblioteca na ordem pedida e ordenando por nota apenas as mídias de cada ano,
+     * obtidas do índice por ano. Não ordena a coleção inteira.
+     *
+     * @param yearOrder A ordem dos anos.
+     * @param rateOrder A ordem das notas dentro de cada ano.
+     * @return Um mapa com os anos na ordem pedida, cada um com suas mídias ordenadas por nota.
+     */
+    private Map<Integer, List<T>> groupByYear(SortOrder yearOrder, SortOrder rateOrder) {
+        Map<Integer, List<T>> groups = new LinkedHashMap<>();
+
+        journal.getYearsRegistered().forEach(yearOrder, year -> {
+            List<T> bucket = getByYear(year);
+            if (!bucket.isEmpty())
+                groups.put(year, Collections.unmodifiableList(Query.sortByRate(bucket, null, rateOrder)));
+        });
+        return groups;
     }
 
     /**
@@ -156,19 +262,8 @@ public abstract class CommonService<T extends Media> {
      *
      * @return Um mapa contendo as mídias agrupadas por ano em ordem crescente e ordenadas por nota crescente.
      */
-
     public Map<Integer, List<T>> mapByAscendingYearAscendingRate() {
-        Map<Integer, List<T>> mapYearMedia = new LinkedHashMap<>();
-        List<Integer> years = new ArrayList<>(journal.getYearsRegistered().keySet());
-
-        for (Integer year : years) {
-            List<T> filteredMedia;
-            filteredMedia = searchByYear(year);
-
-            if (!filteredMedia.isEmpty())
-                mapYearMedia.put(year, filteredMedia);
-        }
-        return mapYearMedia;
+        return groupByYear(SortOrder.ASCENDING, SortOrder.ASCENDING);
     }
 
     /**
@@ -178,17 +273,7 @@ public abstract class CommonService<T extends Media> {
      * @return Um mapa contendo as mídias agrupadas por ano em ordem decrescente e ordenadas por nota crescente.
      */
     public Map<Integer, List<T>> mapByDescendingYearAscendingRate(){
-        Map<Integer, List<T>> mapYearMedia = new LinkedHashMap<>();
-        List<Integer> years = new ArrayList<>(journal.getYearsRegistered().keySet());
-
-        Collections.reverse(years);
-
-        for (Integer year : years) {
-            List<T> filteredMedia = searchByYear(year);
-            if (!filteredMedia.isEmpty())
-                mapYearMedia.put(year, new ArrayList<>(filteredMedia));
-        }
-        return mapYearMedia;
+        return groupByYear(SortOrder.DESCENDING, SortOrder.ASCENDING);
     }
 
     /**
@@ -198,15 +283,7 @@ public abstract class CommonService<T extends Media> {
      * @return Um mapa contendo as mídias agrupadas por ano em ordem crescente e ordenadas por nota decrescente.
      */
     public Map<Integer, List<T>> mapByAscendingYearDescendingRate(){
-        Map<Integer, List<T>> mapYearMedia = new LinkedHashMap<>();
-        List<Integer> years = new ArrayList<>(journal.getYearsRegistered().keySet());
-
-        for (Integer year : years) {
-            List<T> filteredMedia = sortDescending(searchByYear(year));
-            if (!filteredMedia.isEmpty())
-                mapYearMedia.put(year, new ArrayList<>(filteredMedia));
-        }
-        return mapYearMedia;
+        return groupByYear(SortOrder.ASCENDING, SortOrder.DESCENDING);
     }
 
     /**
@@ -216,17 +293,7 @@ public abstract class CommonService<T extends Media> {
      * @return Um mapa contendo as mídias agrupadas por ano em ordem decrescente e ordenadas por nota decrescente.
      */
     public Map<Integer, List<T>> mapByDescendingYearDescendingRate(){
-        Map<Integer, List<T>> mapYearMedia = new LinkedHashMap<>();
-        List<Integer> years = new ArrayList<>(journal.getYearsRegistered().keySet());
-
-        Collections.reverse(years);
-
-        for (Integer year : years) {
-            List<T> filteredMedia = sortDescending(searchByYear(year));
-            if (!filteredMedia.isEmpty())
-                mapYearMedia.put(year, new ArrayList<>(filteredMedia));
-        }
-        return mapYearMedia;
+        return groupByYear(SortOrder.DESCENDING, SortOrder.DESCENDING);
     }
 
     /**
@@ -236,16 +303,7 @@ public abstract class CommonService<T extends Media> {
      * @return Um mapa contendo as mídias agrupadas por gênero.
      */
     public Map<Genres, List<T>> mapByGenreAscendingRate() {
-        Map<Genres, List<T>> mapGenreMedia = new EnumMap<>(Genres.class);
-
-        for (Genres genre : Genres.values()) {
-            List<T> filteredMedia;
-            filteredMedia = searchByGenre(genre);
-
-            if (!filteredMedia.isEmpty())
-                mapGenreMedia.put(genre, filteredMedia);
-        }
-        return mapGenreMedia;
+        return groupBy(Media::getGenre, SortOrder.ASCENDING, SortOrder.ASCENDING);
     }
 
     /**
@@ -255,16 +313,7 @@ public abstract class CommonService<T extends Media> {
      * @return Um mapa contendo as mídias agrupadas por gênero.
      */
     public Map<Genres, List<T>> mapByGenreDescendingRate() {
-        Map<Genres, List<T>> mapGenreMedia = new EnumMap<>(Genres.class);
-
-        for (Genres genre : Genres.values()) {
-            List<T> filteredMedia;
-            filteredMedia = sortDescending(searchByGenre(genre));
-
-            if (!filteredMedia.isEmpty())
-                mapGenreMedia.put(genre, filteredMedia);
-        }
-        return mapGenreMedia;
+        return groupBy(Media::getGenre, SortOrder.ASCENDING, SortOrder.DESCENDING);
     }
 
 
@@ -275,4 +324,38 @@ public abstract class CommonService<T extends Media> {
      */
     public abstract List<T> getAll();
 
+    /**
+     * Obtém as mídias de um ano do controlador correspondente por sobrecarga,
+     * consultando apenas o balde do ano no índice por ano da biblioteca.
+     *
+     * @param year O ano.
+     * @return As mídias daquele ano, na ordem de cadastro.
+     */
+    protected abstract List<T> getByYear(int year);
+
+    /**
+     * Obtém as mídias de um gênero do controlador correspondente por sobrecarga,
+     * consultando apenas o balde do gênero no índice por gênero da biblioteca.
+     *
+     * @param genre O gênero.
+     * @return As mídias daquele gênero, na ordem de cadastro.
+     */
+    protected abstract List<T> getByGenre(Genres genre);
+
+    /**
+     * Obtém o índice de trigramas de títulos das mídias do controlador correspondente por sobrecarga.
+     *
+     * @return O índice de busca textual por título.
+     */
+    protected abstract TextIndex<T> getTitleIndex();
+
+    /**
+     * Aplica uma alteração a uma mídia do controlador correspondente por sobrecarga,
+     * através da biblioteca, para que ela seja anexada ao log de alterações.
+     *
+     * @param media A mídia a ser alterada.
+     * @param change A alteração.
+     */
+    protected abstract void recordChange(T media, Consumer<? super T> change);
+
 }
\ No newline at end of file
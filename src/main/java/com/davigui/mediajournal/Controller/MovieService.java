@@ -4,6 +4,7 @@ import com.davigui.mediajournal.Model.Enums.Genres;
 import com.davigui.mediajournal.Model.Enums.Months;
 import com.davigui.mediajournal.Model.Exceptions.MediaAlreadyExistsException;
 import com.davigui.mediajournal.Model.Repository.Library;
+import com.davigui.mediajournal.Model.Repository.TextIndex;
 import com.davigui.mediajournal.Model.Medias.Movie;
 import com.davigui.mediajournal.Model.Result.*;
 
@@ -11,6 +12,7 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * A classe MovieService trata do gerenciamento de filmes.
@@ -54,9 +56,7 @@ public class MovieService extends CommonService<Movie> {
                 script, originalTitle, whereToWatch);
 
         try {
-            journal.exists(movie);
-            journal.add(movie);
-            journal.addYear(year);
+            journal.addIfAbsent(movie);
             return new Success("Filme","Registrado com sucesso!");
 
         }catch (MediaAlreadyExistsException e){
@@ -66,31 +66,26 @@ public class MovieService extends CommonService<Movie> {
 
     /**
      * Busca filmes pelo nome do diretor.
-     * Filtra os filmes que contêm o nome do diretor, utilizando o metodo filter da biblioteca Stream.
+     * Consulta o índice de trigramas de diretores da biblioteca.
      *
      * @param director O nome do diretor a ser buscado.
      * @return Uma lista de filmes que possuem o diretor especificado.
      */
     public List<Movie> searchByDirector(String director){
-        String directorLower = director.toLowerCase().trim();
-        List<Movie> filteredMovies = journal.getMovieList().stream().filter
-                (movie -> movie.getDirection().toLowerCase().contains(directorLower)).toList();
+        List<Movie> filteredMovies = journal.getMovieDirectorIndex().search(director);
 
         return sortAscending(filteredMovies);
     }
 
     /**
      * Busca filmes pelo nome de um ator.
-     * Filtra os filmes que contêm o nome do ator, utilizando o metodo filter da biblioteca Stream.
+     * Consulta o índice de trigramas de elenco da biblioteca.
      *
      * @param name O nome do ator a ser buscado.
      * @return Uma lista de filmes que possuem o ator no elenco.
      */
     public List<Movie> searchByActor(String name){
-        String actorLower = name.toLowerCase().trim();
-        List<Movie> filteredMovies = journal.getMovieList().stream().filter
-                (movie -> movie.getCast().stream().anyMatch(
-                        actor-> actor.toLowerCase().contains(actorLower))).toList();
+        List<Movie> filteredMovies = journal.getMovieCastIndex().search(name);
 
         return sortAscending(filteredMovies);
     }
@@ -114,19 +109,65 @@ public class MovieService extends CommonService<Movie> {
             return new Failure("Filme", "Ano inválido!");
 
         String date = month.toString() + " de " + year;
-        movie.setSeen();
-        movie.setSeenDate(date);
+        journal.update(movie, changed -> {
+            changed.setSeen();
+            changed.setSeenDate(date);
+        });
         return new Success("Filme", "Marcado como visto e data registrada.");
     }
 
     /**
      * Obtém todos os filmes registrados na biblioteca.
+     * A lista é uma cópia imutável, que continua válida enquanto a biblioteca é alterada.
      *
-     * @return Uma lista contendo todos os filmes.
+     * @return Uma lista imutável contendo todos os filmes.
      */
     @Override
-    public ArrayList<Movie> getAll(){
-        return journal.getMovieList();
+    public List<Movie> getAll(){
+        return journal.getMovies();
+    }
+
+    /**
+     * Obtém os filmes de um ano, do índice por ano da biblioteca.
+     *
+     * @param year O ano.
+     * @return Os filmes daquele ano, na ordem de cadastro.
+     */
+    @Override
+    protected List<Movie> getByYear(int year) {
+        return journal.getMoviesOfYear(year);
+    }
+
+    /**
+     * Obtém os filmes de um gênero, do índice por gênero da biblioteca.
+     *
+     * @param genre O gênero.
+     * @return Os filmes daquele gênero, na ordem de cadastro.
+     */
+    @Override
+    protected List<Movie> getByGenre(Genres genre) {
+        return journal.getMoviesOfGenre(genre);
+    }
+
+    /**
+     * Obtém o índice de trigramas de títulos dos filmes da biblioteca.
+     *
+     * @return O índice de busca textual por título.
+     */
+    @Override
+    protected TextIndex<Movie> getTitleIndex() {
+        return journal.getMovieTitleIndex();
+    }
+
+    /**
+     * Aplica uma alteração de um filme através da biblioteca, anexando-a ao log de alterações.
+     *
+     * @param movie O filme a ser alterado.
+     * @param change A alteração.
+     */
+    @Override
+    protected void recordChange(Movie movie, Consumer<? super Movie> change) {
+        journal.update(movie, change);
     }
 
     /**
@@ -138,9 +179,7 @@ public class MovieService extends CommonService<Movie> {
      * @return Um resultado indicando sucesso ou falha na remoção.
      */
     public IResult deleteMovie(Movie movie){
-        if(journal.getMovieList().contains(movie)){
-            journal.remove(movie);
-            journal.removeYear(movie.getYear());
+        if(journal.removeIfPresent(movie)){
             return new Success("Filme", "Removido com sucesso!");
         }else{
             return new Failure("Filme", "Esse filme não existe na biblioteca!");
@@ -0,0 +1,226 @@
+package com.davigui.mediajournal.Controller;
+
+import com.davigui.mediajournal.Model.Enums.SortOrder;
+import com.davigui.mediajournal.Model.Medias.Media;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A classe Query monta uma consulta sobre as mídias de um serviço: filtros,
+ * ordenação por nota, deslocamento e limite, executados apenas ao pedir o resultado.
+ * <p>
+ * As consultas são criadas pelos métodos query() de CommonService, a partir de todas
+ * as mídias ou do resultado de um índice (título, ano ou gênero), e os métodos de busca
+ * do serviço são consultas prontas.
+ * <p>
+ * Os filtros são aplicados durante a ordenação, sem lista intermediária. Com um limite,
+ * a ordenação guarda apenas as offset + limit primeiras mídias em um heap, em vez de
+ * ordenar a coleção inteira: a primeira página de uma listagem ordenada por nota custa
+ * uma passada pela coleção. Sem ordenação, o resultado é percorrido sob demanda.
+ * <p>
+ * A ordem é a mesma de uma ordenação estável: mídias com a mesma nota ficam na ordem
+ * da lista de origem (crescente) ou na ordem inversa (decrescente).
+ *
+ * @param <T> O tipo de mídia consultado.
+ */
+public class Query<T extends Media> {
+    // Mídias candidatas, na ordem de cadastro
+    private final List<T> source;
+    // Filtro das mídias (todos os filtros adicionados, combinados)
+    private Predicate<? super T> filter;
+    // Ordem das notas, ou null para manter a ordem da lista de origem
+    private SortOrder rateOrder;
+    // Quantidade de mídias puladas no início do resultado
+    private int offset;
+    // Quantidade máxima de mídias no resultado
+    private int limit;
+
+    /**
+     * Construtor da classe Query, sem filtros, sem ordenação e sem limite.
+     *
+     * @param source As mídias candidatas.
+     */
+    Query(List<T> source) {
+        this.source = source;
+        this.filter = null;
+        this.rateOrder = null;
+        this.offset = 0;
+        this.limit = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Adiciona um filtro à consulta. Apenas as mídias aceitas por todos os filtros
+     * fazem parte do resultado.
+     *
+     * @param condition O filtro.
+     * @return Esta consulta.
+     */
+    public Query<T> filter(Predicate<? super T> condition) {
+        if (filter == null) {
+            filter = condition;
+        } else {
+            Predicate<? super T> previous = filter;
+            filter = media -> previous.test(media) && condition.test(media);
+        }
+        return this;
+    }
+
+    /**
+     * Ordena o resultado por nota.
+     *
+     * @param order A ordem das notas.
+     * @return Esta consulta.
+     */
+    public Query<T> sortByRate(SortOrder order) {
+        this.rateOrder = order;
+        return this;
+    }
+
+    /**
+     * Pula as primeiras mídias do resultado, como ao pedir uma página que não é a primeira.
+     *
+     * @param offset A quantidade de mídias puladas.
+     * @return Esta consulta.
+     */
+    public Query<T> offset(int offset) {
+        if (offset < 0)
+            throw new IllegalArgumentException("Deslocamento negativo: " + offset);
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Limita a quantidade de mídias do resultado, como o tamanho de uma página.
+     *
+     * @param limit A quantidade máxima de mídias.
+     * @return Esta consulta.
+     */
+    public Query<T> limit(int limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("Limite negativo: " + limit);
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Executa a consulta e obtém o resultado como um Stream.
+     * Sem ordenação, as mídias são filtradas à medida que o Stream é percorrido.
+     *
+     * @return As mídias do resultado, na ordem pedida.
+     */
+    public Stream<T> stream() {
+        if (rateOrder == null) {
+            Stream<T> medias = source.stream();
+            if (filter != null)
+                medias = medias.filter(filter);
+            return medias.skip(offset).limit(limit);
+        }
+
+        List<T> sorted = (limit < source.size() - offset) ? topK(offset + limit) : sortAll();
+        return sorted.stream().skip(offset).limit(limit);
+    }
+
+    /**
+     * Executa a consulta e obtém o resultado como uma lista.
+     *
+     * @return Uma lista imutável com as mídias do resultado, na ordem pedida.
+     */
+    public List<T> toList() {
+        return stream().toList();
+    }
+
+    /**
+     * Ordena uma cópia da lista de mídias por grupo (opcional) e por nota.
+     * <p>
+     * A ordenação é estável. Na ordem decrescente, a cópia é feita de trás
+     * para frente, de forma que mídias com a mesma nota fiquem na ordem inversa
+     * à de cadastro, o mesmo resultado de ordenar de forma crescente e inverter.
+     *
+     * @param mediaList  A lista de mídias a ser ordenada.
+     * @param groupOrder Comparador dos grupos, ou null para ordenar apenas por nota.
+     * @param rateOrder  A ordem das notas.
+     * @param <T>        O tipo de mídia.
+     * @return Uma nova lista ordenada.
+     */
+    static <T extends Media> List<T> sortByRate(List<T> mediaList, Comparator<T> groupOrder, SortOrder rateOrder) {
+        List<T> sorted = new ArrayList<>(mediaList);
+        Comparator<T> rating = Comparator.comparingInt(Media::getRating);
+
+        if (rateOrder == SortOrder.DESCENDING) {
+            Collections.reverse(sorted);
+            rating = rating.reversed();
+        }
+
+        sorted.sort((groupOrder == null) ? rating : groupOrder.thenComparing(rating));
+        return sorted;
+    }
+
+    /**
+     * Filtra e ordena todas as mídias candidatas.
+     *
+     * @return Uma nova lista com as mídias aceitas, ordenadas por nota.
+     */
+    private List<T> sortAll() {
+        List<T> accepted = (filter == null) ? source : source.stream().filter(filter).toList();
+        return sortByRate(accepted, null, rateOrder);
+    }
+
+    /**
+     * Filtra as mídias candidatas e guarda apenas as k primeiras na ordem pedida,
+     * em um heap cujo topo é a pior delas. Cada mídia é comparada com o topo e
+     * só entra no heap se vier antes dele.
+     * <p>
+     * A posição na lista de origem desempata as notas iguais, o que dá a mesma
+     * ordem da ordenação estável de sortByRate().
+     *
+     * @param k A quantidade de mídias guardadas.
+     * @return Uma nova lista com as k primeiras mídias aceitas, ordenadas por nota.
+     */
+    private List<T> topK(int k) {
+        if (k == 0)
+            return List.of();
+
+        Comparator<Integer> order = this::compare;
+        PriorityQueue<Integer> best = new PriorityQueue<>(k + 1, order.reversed());
+        for (int position = 0; position < source.size(); ++position) {
+            if (filter != null && !filter.test(source.get(position)))
+                continue;
+
+            if (best.size() < k) {
+                best.add(position);
+            } else if (compare(position, best.peek()) < 0) {
+                best.poll();
+                best.add(position);
+            }
+        }
+
+        List<Integer> positions = new ArrayList<>(best);
+        positions.sort(order);
+
+        List<T> sorted = new ArrayList<>(positions.size());
+        for (int position : positions)
+            sorted.add(source.get(position));
+        return sorted;
+    }
+
+    /**
+     * Compara duas mídias da lista de origem, pelas suas posições, na ordem pedida:
+     * primeiro pela nota e, em caso de empate, pela posição.
+     *
+     * @param first  A posição da primeira mídia.
+     * @param second A posição da segunda mídia.
+     * @return Um valor negativo se a primeira vem antes, positivo se vem depois.
+     */
+    private int compare(int first, int second) {
+        int result = Integer.compare(source.get(first).getRating(), source.get(second).getRating());
+        if (result == 0)
+            result = Integer.compare(first, second);
+        return (rateOrder == SortOrder.DESCENDING) ? -result : result;
+    }
+}
@@ -5,6 +5,7 @@ import com.davigui.mediajournal.Model.Exceptions.MediaAlreadyExistsException;
 import com.davigui.mediajournal.Model.Exceptions.SeasonNotFoundException;
 import com.davigui.mediajournal.Model.Exceptions.UnsupportedOperationException;
 import com.davigui.mediajournal.Model.Repository.Library;
+import com.davigui.mediajournal.Model.Repository.TextIndex;
 import com.davigui.mediajournal.Model.Medias.Season;
 import com.davigui.mediajournal.Model.Medias.Series;
 import com.davigui.mediajournal.Model.Result.*;
@@ -12,6 +13,7 @@ import com.davigui.mediajournal.Model.Result.*;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * A classe SeriesService trata do gerenciamento de séries.
@@ -62,10 +64,8 @@ public class SeriesService extends CommonService<Series> {
                 originalTitle, whereToWatch);
 
         try {
-            journal.exists(series);
             series.addSeason(season);
-            journal.add(series);
-            journal.addYear(year);
+            journal.addIfAbsent(series);
             return new Success("Série","Registrada com sucesso.");
         }catch (MediaAlreadyExistsException e){
             return new Failure("Série",e.getMessage());
@@ -94,7 +94,7 @@ public class SeriesService extends CommonService<Series> {
             series.findSeason(seasonNumber);
             return new Failure("Temporada", "Já existe");
         } catch (SeasonNotFoundException e){
-            series.addSeason(season);
+            journal.update(series, changed -> changed.addSeason(season));
             return new Success("Temporada", "Registrada com sucesso.");
         }
     }
@@ -153,7 +153,7 @@ public class SeriesService extends CommonService<Series> {
             if(season.isSeen()) {
                 return new Failure("Temporada", "Já marcado como visto");
             }
-            season.setSeen();
+            journal.update(series, changed -> changed.findSeason(seasonNumber).setSeen());
             return new Success("Temporada", "Marcado como visto");
 
         }catch (SeasonNotFoundException e){
@@ -176,8 +176,10 @@ public class SeriesService extends CommonService<Series> {
 
             Season season = series.findSeason(seasonNumber);
             if(season.isSeen()) {
-                season.setRating(rating);
-                series.updateRate();
+                journal.update(series, changed -> {
+                    changed.findSeason(seasonNumber).setRating(rating);
+                    changed.updateRate();
+                });
                 return new Success("Temporada", "Avaliação salva com sucesso");
             }
             return new Failure("Temporada", "Marque como visto antes de avaliar");
@@ -200,7 +202,7 @@ public class SeriesService extends CommonService<Series> {
         try {
             Season season = series.findSeason(seasonNumber);
             if(season.isSeen()) {
-                season.setReview(review);
+                journal.update(series, changed -> changed.findSeason(seasonNumber).setReview(review));
                 return new Success("Temporada", "Review salva com sucesso");
             }
             return new Failure("Temporada", "Marque como visto antes de escrever uma review");
@@ -266,28 +268,69 @@ public class SeriesService extends CommonService<Series> {
 
     /**
      * Busca séries pelo nome de um ator.
-     * Filtra as séries que contêm o nome do ator, utilizando o metodo filter da biblioteca Stream.
+     * Consulta o índice de trigramas de elenco da biblioteca.
      *
      * @param name O nome do ator a ser buscado.
      * @return Uma lista de séries que possuem o ator no elenco.
      */
     public List<Series> searchByActor(String name){
-        String actorLower = name.toLowerCase().trim();
-        List<Series> filteredSeries = journal.getSeriesList().stream().filter
-                (series -> series.getCast().stream().anyMatch(
-                        actor-> actor.toLowerCase().contains(actorLower))).toList();
+        List<Series> filteredSeries = journal.getSeriesCastIndex().search(name);
 
         return sortAscending(filteredSeries);
     }
 
     /**
      * Obtém todas as séries registradas na biblioteca.
+     * A lista é uma cópia imutável, que continua válida enquanto a biblioteca é alterada.
+     *
+     * @return Uma lista imutável contendo todas as séries.
+     */
+    @Override
+    public List<Series> getAll(){
+        return journal.getSeries();
+    }
+
+    /**
+     * Obtém as séries de um ano, do índice por ano da biblioteca.
+     *
+     * @param year O ano.
+     * @return As séries daquele ano, na ordem de cadastro.
+     */
+    @Override
+    protected List<Series> getByYear(int year) {
+        return journal.getSeriesOfYear(year);
+    }
+
+    /**
+     * Obtém as séries de um gênero, do índice por gênero da biblioteca.
+     *
+     * @param genre O gênero.
+     * @return As séries daquele gênero, na ordem de cadastro.
+     */
+    @Override
+    protected List<Series> getByGenre(Genres genre) {
+        return journal.getSeriesOfGenre(genre);
+    }
+
+    /**
+     * Obtém o índice de trigramas de títulos das séries da biblioteca.
+     *
+     * @return O índice de busca textual por título.
+     */
+    @Override
+    protected TextIndex<Series> getTitleIndex() {
+        return journal.getSeriesTitleIndex();
+    }
+
+    /**
+     * Aplica uma alteração de uma série através da biblioteca, anexando-a ao log de alterações.
      *
-     * @return Uma lista contendo todas as séries.
+     * @param series A série a ser alterada.
+     * @param change A alteração.
      */
     @Override
-    public ArrayList<Series> getAll(){
-        return journal.getSeriesList();
+    protected void recordChange(Series series, Consumer<? super Series> change) {
+        journal.update(series, change);
     }
 
     /**
@@ -299,9 +342,7 @@ public class SeriesService extends CommonService<Series> {
      * @return Um resultado indicando sucesso ou falha na remoção.
      */
     public IResult deleteSeries(Series series) {
-        if(journal.getSeriesList().contains(series)) {
-            journal.remove(series);
-            journal.removeYear(series.getYear());
+        if(journal.removeIfPresent(series)) {
             return new Success("Série", "Removida com sucesso!");
         }else{
             return new Failure("Série", "Essa série não existe na biblioteca!");
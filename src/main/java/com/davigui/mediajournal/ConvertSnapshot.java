@@ -0,0 +1,25 @@
+package com.davigui.mediajournal;
+
+import com.davigui.mediajournal.Model.Enums.StorageFormat;
+import com.davigui.mediajournal.Model.Repository.DataOperations;
+import com.davigui.mediajournal.Model.Result.IResult;
+
+/**
+ * Converte a biblioteca salva entre os formatos JSON e binário.
+ * Uso: ConvertSnapshot JSON BINARY (ou BINARY JSON).
+ */
+public class ConvertSnapshot {
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Uso: ConvertSnapshot <JSON|BINARY> <JSON|BINARY>");
+            return;
+        }
+
+        //Formatos de origem e destino
+        StorageFormat from = StorageFormat.valueOf(args[0].toUpperCase());
+        StorageFormat to = StorageFormat.valueOf(args[1].toUpperCase());
+
+        IResult result = DataOperations.convert(from, to);
+        System.out.println(result.getMessage());
+    }
+}
@@ -3,6 +3,8 @@ package com.davigui.mediajournal;
 import com.davigui.mediajournal.Controller.BookService;
 import com.davigui.mediajournal.Controller.MovieService;
 import com.davigui.mediajournal.Controller.SeriesService;
+import com.davigui.mediajournal.Model.Repository.AutoSaver;
+import com.davigui.mediajournal.Model.Repository.ConcurrentLibrary;
 import com.davigui.mediajournal.Model.Repository.DataOperations;
 import com.davigui.mediajournal.Model.Repository.Library;
 import com.davigui.mediajournal.Model.Result.IResult;
@@ -13,12 +15,15 @@ import java.util.Scanner;
 public class Main {
     public static void main(String[] args) throws Exception {
         Scanner scanner = new Scanner(System.in);
-        //Model (listas de midias)
-        Library journal = new Library();
+        //Model (listas de midias); concorrente para ser salva em segundo plano
+        Library journal = new ConcurrentLibrary();
 
         //Carregar biblioteca
         DataOperations.load(journal);
 
+        //Salvamento automático enquanto o menu é usado
+        AutoSaver autoSaver = new AutoSaver(journal, AutoSaver.DEFAULT_INTERVAL, Runnable::run);
+
         //Controller (add, avaliar, etc)
         BookService bookService = new BookService(journal);
         MovieService movieService = new MovieService(journal);
@@ -28,8 +33,8 @@ public class Main {
         MainMenu menivis = new MainMenu(bookService, movieService, seriesService, scanner);
         menivis.showMenu();
 
-        //Salvar biblioteca
-        IResult saveResult = DataOperations.save(journal);
+        //Salvar biblioteca, aguardando algum salvamento automático em andamento
+        IResult saveResult = autoSaver.close();
         System.out.println(saveResult.getMessage());
 
     }
@@ -24,7 +24,9 @@ public class MainFX extends Application {
         stage.setTitle("Diário Cultural");
         stage.setScene(scene);
         stage.setOnCloseRequest(event -> {
-            mainScreenController.saveLibrary();
+            //A janela só fecha depois do último salvamento, feito em segundo plano
+            event.consume();
+            mainScreenController.saveLibrary(stage::close);
         });
         stage.show();
 
@@ -0,0 +1,10 @@
+package com.davigui.mediajournal.Model.Enums;
+
+/**
+ * O enum SortOrder representa a direção de uma ordenação, utilizado
+ * para ordenar os grupos (ano ou gênero) e as notas das mídias.
+ */
+public enum SortOrder {
+    ASCENDING,   // Ordem crescente
+    DESCENDING   // Ordem decrescente
+}
@@ -0,0 +1,10 @@
+package com.davigui.mediajournal.Model.Enums;
+
+/**
+ * O enum StorageFormat representa o formato em que a biblioteca é salva em disco,
+ * utilizado para escolher entre os arquivos JSON e o snapshot binário.
+ */
+public enum StorageFormat {
+    JSON,     // Quatro arquivos JSON (livros, filmes, séries e anos)
+    BINARY    // Um único snapshot binário compacto
+}
@@ -1,6 +1,8 @@
 package com.davigui.mediajournal.Model.Medias;
 import com.davigui.mediajournal.Model.Enums.Genres;
 
+import java.util.function.UnaryOperator;
+
 /**
  * A classe Book representa um livro como uma mídia, estendendo a classe base Media.
  * Ela contém informações específicas de livros, como ISBN, autor, editora,
@@ -17,6 +19,10 @@ public class Book extends Media {
     private boolean owned;
     // A data em que o livro foi visto (formato: MES de XXXX)
     private String seenDate;
+    // Chave de busca do ISBN, calculada sob demanda
+    private transient String isbnKey;
+    // Chave de busca do autor, calculada sob demanda
+    private transient String authorKey;
 
     /**
      * Construtor da classe Book.
@@ -67,6 +73,30 @@ public class Book extends Media {
         return author;
     }
 
+    /**
+     * Obtém a chave de busca do ISBN: o ISBN em minúsculas e sem acentos.
+     * É calculada na primeira chamada e reaproveitada nas seguintes.
+     *
+     * @return A chave de busca do ISBN.
+     */
+    public String getIsbnKey() {
+        if (isbnKey == null)
+            isbnKey = SearchKeys.normalize(isbn);
+        return isbnKey;
+    }
+
+    /**
+     * Obtém a chave de busca do autor: o nome em minúsculas e sem acentos.
+     * É calculada na primeira chamada e reaproveitada nas seguintes.
+     *
+     * @return A chave de busca do autor.
+     */
+    public String getAuthorKey() {
+        if (authorKey == null)
+            authorKey = SearchKeys.normalize(author);
+        return authorKey;
+    }
+
     /**
      * Obtém a editora do livro.
      *
@@ -101,6 +131,7 @@ public class Book extends Media {
      */
     public void setSeenDate(String readDate) {
         this.seenDate = readDate;
+        markModified();
     }
 
     /**
@@ -114,6 +145,41 @@ public class Book extends Media {
         return isbn.hashCode();
     }
 
+    /**
+     * Obtém o identificador do livro, que não depende do ano.
+     * Sobrescreve o método de Media.
+     *
+     * @param year O ano considerado.
+     * @return O identificador único do livro.
+     */
+    @Override
+    public int getIdForYear(int year) {
+        return getId();
+    }
+
+    /**
+     * Copia o livro para um salvamento em segundo plano.
+     * Sobrescreve o método de Media.
+     *
+     * @return A cópia do livro.
+     */
+    @Override
+    public Book copyForSave() {
+        return (Book) super.copyForSave();
+    }
+
+    /**
+     * Troca o autor e a editora pelas instâncias compartilhadas.
+     * Sobrescreve o método de Media.
+     *
+     * @param pool Função que devolve a instância compartilhada de um texto.
+     */
+    @Override
+    public void shareStrings(UnaryOperator<String> pool) {
+        this.author = pool.apply(author);
+        this.publisher = pool.apply(publisher);
+    }
+
     /**
      * Obtém o tipo de mídia, que neste caso é "Livro".
      *
@@ -125,29 +191,25 @@ public class Book extends Media {
     }
 
     /**
-     * Sobrecarrega o método  de Object.
-     * Retorna uma representação em string do livro, incluindo título, ano,
+     * Sobrescreve o método de Media.
+     * Monta a representação em string do livro, incluindo título, ano,
      * autor, editora, ISBN, se possui exemplar, data em que foi
      * visto (se disponível) e avaliação (se disponível).
      *
-     * @return Uma string representando o livro.
+     * @param string O StringBuilder onde o texto é escrito.
      */
     @Override
-    public String toString() {
-        StringBuilder string = new StringBuilder(
-                "\n" + title + " (" + this.year + ")" +
-                "\nAutor: " + author +
-                "\nEditora: " + publisher +
-                "\nISBN: " + isbn +
-                "\nPossui? " + (owned ? "Sim" : "Não")
-                );
+    protected void render(StringBuilder string) {
+        string.append("\n").append(title).append(" (").append(year).append(")")
+                .append("\nAutor: ").append(author)
+                .append("\nEditora: ").append(publisher)
+                .append("\nISBN: ").append(isbn)
+                .append("\nPossui? ").append(owned ? "Sim" : "Não");
 
         if (seenDate != null)
             string.append("\nVisto em: ").append(seenDate);
 
         if (rating != 0)
-            string.append("\nAvaliação: ").append("★".repeat(rating));
-
-        return string.toString();
+            string.append("\nAvaliação: ").append(Stars.of(rating));
     }
 }
\ No newline at end of file
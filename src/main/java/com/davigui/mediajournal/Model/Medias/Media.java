@@ -2,12 +2,15 @@ package com.davigui.mediajournal.Model.Medias;
 
 import com.davigui.mediajournal.Model.Enums.Genres;
 
+import java.util.List;
+import java.util.function.UnaryOperator;
+
 /**
  * A classe abstrata Media representa uma mídia genérica com propriedades comuns,
  * como título, ano, gênero, avaliação, status de visualização e review.
  * Esta classe serve como base para tipos específicos de mídia.
  */
-public abstract class Media {
+public abstract class Media implements Cloneable {
     // O título da mídia
     protected String title;
     // O ano de lançamento da mídia
@@ -20,6 +23,12 @@ public abstract class Media {
     protected boolean seen;
     // A review da mídia
     protected String review;
+    // Chave de busca do título (minúsculas e sem acentos), calculada sob demanda
+    protected transient String titleKey;
+    // Indica se a mídia foi alterada desde o último salvamento
+    protected transient boolean modified;
+    // Texto do toString(), montado sob demanda e descartado quando a mídia é alterada
+    protected transient String rendered;
 
     /**
      * Construtor da classe Media.
@@ -63,6 +72,7 @@ public abstract class Media {
      */
     public void setRating(int rating) {
         this.rating = rating;
+        markModified();
     }
 
     /**
@@ -74,6 +84,18 @@ public abstract class Media {
         return title;
     }
 
+    /**
+     * Obtém a chave de busca do título: o título em minúsculas e sem acentos.
+     * É calculada na primeira chamada e reaproveitada até o título mudar.
+     *
+     * @return A chave de busca do título.
+     */
+    public String getTitleKey() {
+        if (titleKey == null)
+            titleKey = SearchKeys.normalize(title);
+        return titleKey;
+    }
+
     /**
      * Obtém o ano de lançamento da mídia.
      *
@@ -106,6 +128,7 @@ public abstract class Media {
      */
     public void setSeen() {
         this.seen = true;
+        markModified();
     }
 
     /**
@@ -124,15 +147,19 @@ public abstract class Media {
      */
     public void setReview(String review) {
         this.review = review;
+        markModified();
     }
 
     /**
      * Define o título da mídia.
+     * Invalida a chave de busca do título.
      *
      * @param title O título a ser atribuído à mídia.
      */
     public void setTitle(String title) {
         this.title = title;
+        this.titleKey = null;
+        markModified();
     }
 
     /**
@@ -142,6 +169,7 @@ public abstract class Media {
      */
     public void setGenre(Genres genre) {
         this.genre = genre;
+        markModified();
     }
 
     /**
@@ -151,6 +179,60 @@ public abstract class Media {
      */
     public void setYear(int year) {
         this.year = year;
+        markModified();
+    }
+
+    /**
+     * Verifica se a mídia foi alterada desde o último salvamento.
+     *
+     * @return true se a mídia foi alterada, false caso contrário.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Marca a mídia como alterada desde o último salvamento e descarta o texto
+     * do toString(), que será montado de novo na próxima chamada.
+     * Deve ser chamado por todos os métodos que alteram a mídia, e pela
+     * biblioteca quando um salvamento falha.
+     */
+    public void markModified() {
+        this.modified = true;
+        this.rendered = null;
+    }
+
+    /**
+     * Marca a mídia como salva, sem alterações pendentes.
+     */
+    public void clearModified() {
+        this.modified = false;
+    }
+
+    /**
+     * Copia a mídia para um salvamento em segundo plano, que a escreve depois
+     * de a biblioteca ser liberada. Os textos são imutáveis e são compartilhados
+     * com a mídia original; as subclasses copiam as listas e as temporadas.
+     *
+     * @return A cópia da mídia.
+     */
+    public Media copyForSave() {
+        try {
+            return (Media) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Troca os textos que se repetem entre mídias pelas instâncias compartilhadas
+     * devolvidas pela função dada. O conteúdo da mídia não muda.
+     * Sobrescrito pelas subclasses que têm esses textos.
+     *
+     * @param pool Função que devolve a instância compartilhada de um texto.
+     */
+    public void shareStrings(UnaryOperator<String> pool) {
+
     }
 
     /**
@@ -161,6 +243,51 @@ public abstract class Media {
      */
     public abstract String getMediaType();
 
+    /**
+     * Sobrescreve o método de Object.
+     * Retorna a representação em string da mídia, montada pelo método render() na
+     * primeira chamada e reaproveitada até a mídia ser alterada. Assim, listar a
+     * biblioteca inteira várias vezes não monta os mesmos textos de novo.
+     *
+     * @return Uma string representando a mídia.
+     */
+    @Override
+    public String toString() {
+        String string = rendered;
+        if (string == null) {
+            StringBuilder builder = new StringBuilder(256);
+            render(builder);
+            string = builder.toString();
+            rendered = string;
+        }
+        return string;
+    }
+
+    /**
+     * Monta a representação em string da mídia, usada pelo toString().
+     * Implementada por suas subclasses.
+     *
+     * @param string O StringBuilder onde o texto é escrito.
+     */
+    protected abstract void render(StringBuilder string);
+
+    /**
+     * Escreve os textos de uma lista separados por vírgula, como o toString() da lista
+     * sem os colchetes, mas sem criar textos intermediários.
+     *
+     * @param string O StringBuilder onde os textos são escritos.
+     * @param list A lista de textos.
+     */
+    protected static void appendList(StringBuilder string, List<String> list) {
+        boolean first = true;
+        for (String item : list) {
+            if (!first)
+                string.append(", ");
+            string.append(item);
+            first = false;
+        }
+    }
+
     /**
      * Obtém o identificador único da mídia com base no
      * hash do título e no ano multiplicado por um primo.
@@ -168,6 +295,17 @@ public abstract class Media {
      * @return O identificador único da mídia.
      */
     public int getId() {
+        return getIdForYear(year);
+    }
+
+    /**
+     * Obtém o identificador que a mídia teria se o seu ano fosse alterado,
+     * permitindo verificar colisões antes da alteração.
+     *
+     * @param year O ano considerado.
+     * @return O identificador da mídia com o ano dado.
+     */
+    public int getIdForYear(int year) {
         return title.hashCode() + 227 * year;
     }
 }
\ No newline at end of file
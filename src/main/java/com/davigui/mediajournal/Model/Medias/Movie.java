@@ -1,7 +1,9 @@
 package com.davigui.mediajournal.Model.Medias;
 import com.davigui.mediajournal.Model.Enums.Genres;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * A classe Movie representa um filme como uma mídia, estendendo a classe base Media.
@@ -23,6 +25,10 @@ public class Movie extends Media {
     private List<String> whereToWatch;
     // Data em que o filme foi visto (formato: MÊS de XXXX)
     private String seenDate;
+    // Chave de busca do diretor, calculada sob demanda
+    private transient String directionKey;
+    // Chaves de busca do elenco, calculadas sob demanda
+    private transient List<String> castKeys;
 
     /**
      * Construtor da classe Movie.
@@ -78,6 +84,30 @@ public class Movie extends Media {
         return direction;
     }
 
+    /**
+     * Obtém as chaves de busca do elenco: cada nome em minúsculas e sem acentos.
+     * São calculadas na primeira chamada e reaproveitadas nas seguintes.
+     *
+     * @return Uma lista imutável com as chaves de busca do elenco.
+     */
+    public List<String> getCastKeys() {
+        if (castKeys == null)
+            castKeys = cast.stream().map(SearchKeys::normalize).toList();
+        return castKeys;
+    }
+
+    /**
+     * Obtém a chave de busca do diretor: o nome em minúsculas e sem acentos.
+     * É calculada na primeira chamada e reaproveitada nas seguintes.
+     *
+     * @return A chave de busca do diretor.
+     */
+    public String getDirectionKey() {
+        if (directionKey == null)
+            directionKey = SearchKeys.normalize(direction);
+        return directionKey;
+    }
+
     /**
      * Define a data em que o filme foi visto.
      *
@@ -85,6 +115,7 @@ public class Movie extends Media {
      */
     public void setSeenDate(String seenDate) {
         this.seenDate = seenDate;
+        markModified();
     }
 
     /**
@@ -133,6 +164,37 @@ public class Movie extends Media {
         return duration;
     }
 
+    /**
+     * Copia o filme para um salvamento em segundo plano, com cópias do elenco e das plataformas.
+     * Sobrescreve o método de Media.
+     *
+     * @return A cópia do filme.
+     */
+    @Override
+    public Movie copyForSave() {
+        Movie copy = (Movie) super.copyForSave();
+        if (cast != null)
+            copy.cast = new ArrayList<>(cast);
+        if (whereToWatch != null)
+            copy.whereToWatch = new ArrayList<>(whereToWatch);
+        return copy;
+    }
+
+    /**
+     * Troca o diretor, os nomes do elenco e as plataformas pelas instâncias compartilhadas.
+     * Sobrescreve o método de Media.
+     *
+     * @param pool Função que devolve a instância compartilhada de um texto.
+     */
+    @Override
+    public void shareStrings(UnaryOperator<String> pool) {
+        this.direction = pool.apply(direction);
+        if (cast != null)
+            cast.replaceAll(pool);
+        if (whereToWatch != null)
+            whereToWatch.replaceAll(pool);
+    }
+
     /**
      * Obtém o tipo de mídia, que neste caso é "Filme".
      *
@@ -144,39 +206,30 @@ public class Movie extends Media {
     }
 
     /**
-     * Sobrecarrega o método  de Object.
-     * Retorna uma representação em string do filme, incluindo título, ano, duração,
+     * Sobrescreve o método de Media.
+     * Monta a representação em string do filme, incluindo título, ano, duração,
      * direção, título original, elenco, data em que foi visto (se disponível) e avaliação (se disponível).
-     * Os colchetes que existem no toString() das listas de elenco e onde
-     * assistir são removidos.
+     * As listas de elenco e onde assistir são escritas sem colchetes, separadas por vírgula.
      *
-     * @return Uma string representando o filme.
+     * @param string O StringBuilder onde o texto é escrito.
      */
     @Override
-    public String toString() {
-        StringBuilder watchString = new StringBuilder(whereToWatch.toString());
-        watchString.deleteCharAt(0).deleteCharAt(watchString.length() - 1);
-
-        StringBuilder castString = new StringBuilder(cast.toString());
-        castString.deleteCharAt(0).deleteCharAt(castString.length() - 1);
-
-        StringBuilder string = new StringBuilder(
-                "\n" + title + " (" + year + ")" +
-                "\nDuração: " + duration + " minutos" +
-                "\nDireção: " + direction +
-                "\nTítulo original: " + originalTitle +
-                "\nOnde assistir: " + watchString
-                );
+    protected void render(StringBuilder string) {
+        string.append("\n").append(title).append(" (").append(year).append(")")
+                .append("\nDuração: ").append(duration).append(" minutos")
+                .append("\nDireção: ").append(direction)
+                .append("\nTítulo original: ").append(originalTitle)
+                .append("\nOnde assistir: ");
+        appendList(string, whereToWatch);
 
         if(seenDate != null)
             string.append("\nVisto em: ").append(seenDate);
 
         if(rating != 0)
-            string.append("\nAvaliação: ").append("★".repeat(rating));
+            string.append("\nAvaliação: ").append(Stars.of(rating));
 
         string.append("\n\nSinopse: ").append(script)
-                .append("\nElenco: ").append(castString);
-
-        return string.toString();
+                .append("\nElenco: ");
+        appendList(string, cast);
     }
 }
\ No newline at end of file
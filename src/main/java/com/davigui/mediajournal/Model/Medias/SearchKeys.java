@@ -0,0 +1,34 @@
+package com.davigui.mediajournal.Model.Medias;
+
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/**
+ * Classe estatica responsável por normalizar textos para as buscas.
+ * Um texto normalizado está em minúsculas e sem acentos, de forma que
+ * "ficcao" e "FICÇÃO" tenham a mesma chave de busca.
+ */
+public class SearchKeys {
+    // Marcas diacríticas separadas das letras pela decomposição NFD
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Normaliza um texto para a busca: remove os acentos e converte para minúsculas.
+     * Textos só com caracteres ASCII não passam pela decomposição.
+     *
+     * @param text O texto original (pode ser nulo).
+     * @return O texto normalizado ou null se o texto for nulo.
+     */
+    public static String normalize(String text) {
+        if (text == null)
+            return null;
+
+        for (int i = 0; i < text.length(); ++i) {
+            if (text.charAt(i) >= 0x80) {
+                String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+                return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase();
+            }
+        }
+        return text.toLowerCase();
+    }
+}
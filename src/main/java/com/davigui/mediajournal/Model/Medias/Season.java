@@ -6,7 +6,7 @@ package com.davigui.mediajournal.Model.Medias;
  * e status de visualização.
  * Implementa a interface Comparable para ser organizada num TreeSet.
  */
-public class Season implements Comparable<Season> {
+public class Season implements Comparable<Season>, Cloneable {
     // Avaliação da temporada
     private int rating;
     // Número da temporada
@@ -19,6 +19,10 @@ public class Season implements Comparable<Season> {
     private int episodeCount;
     // Ano de lançamento da temporada
     private int year;
+    // Indica se a temporada foi alterada desde o último salvamento
+    private transient boolean modified;
+    // Texto do toString(), montado sob demanda e descartado quando o ano muda
+    private transient String rendered;
 
     /**
      * Construtor da classe Season.
@@ -45,6 +49,19 @@ public class Season implements Comparable<Season> {
 
     }
 
+    /**
+     * Copia a temporada para um salvamento em segundo plano.
+     *
+     * @return A cópia da temporada.
+     */
+    Season copy() {
+        try {
+            return (Season) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     /**
      * Sobrescreve o método compareTo da interface Comparable.
      * Compara esta temporada com outra com base no número da temporada.
@@ -62,11 +79,14 @@ public class Season implements Comparable<Season> {
      * Sobrecarrega o método  de Object.
      * Retorna uma representação em string da temporada, incluindo o número da temporada,
      * ano de lançamento e quantidade de episódios.
+     * O texto é montado na primeira chamada e reaproveitado até o ano mudar.
      *
      * @return Uma string representando a temporada.
      */
     public String toString() {
-        return "Temporada: " + seasonNumber + " (" + year + ") - " + episodeCount + " Episódios";
+        if (rendered == null)
+            rendered = "Temporada: " + seasonNumber + " (" + year + ") - " + episodeCount + " Episódios";
+        return rendered;
     }
 
     /**
@@ -85,6 +105,7 @@ public class Season implements Comparable<Season> {
      */
     public void setRating(int rating) {
         this.rating = rating;
+        this.modified = true;
     }
 
     /**
@@ -103,6 +124,7 @@ public class Season implements Comparable<Season> {
      */
     public void setReview(String review) {
         this.review = review;
+        this.modified = true;
     }
 
     /**
@@ -110,6 +132,7 @@ public class Season implements Comparable<Season> {
      */
     public void setSeen() {
         this.seen = true;
+        this.modified = true;
     }
 
     /**
@@ -119,6 +142,24 @@ public class Season implements Comparable<Season> {
      */
     public void setYear(int year) {
         this.year = year;
+        this.rendered = null;
+        this.modified = true;
+    }
+
+    /**
+     * Verifica se a temporada foi alterada desde o último salvamento.
+     *
+     * @return true se a temporada foi alterada, false caso contrário.
+     */
+    boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Marca a temporada como salva, sem alterações pendentes.
+     */
+    void clearModified() {
+        this.modified = false;
     }
 
     /**
@@ -138,4 +179,22 @@ public class Season implements Comparable<Season> {
     public int getSeasonNumber() {
         return seasonNumber;
     }
+
+    /**
+     * Obtém a quantidade de episódios da temporada.
+     *
+     * @return A quantidade de episódios.
+     */
+    public int getEpisodeCount() {
+        return episodeCount;
+    }
+
+    /**
+     * Obtém o ano de lançamento da temporada.
+     *
+     * @return O ano de lançamento da temporada.
+     */
+    public int getYear() {
+        return year;
+    }
 }
\ No newline at end of file
@@ -3,8 +3,11 @@ package com.davigui.mediajournal.Model.Medias;
 import com.davigui.mediajournal.Model.Enums.Genres;
 import com.davigui.mediajournal.Model.Exceptions.SeasonNotFoundException;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.TreeSet;
+import java.util.function.UnaryOperator;
 
 /**
  * A classe Series representa uma série como uma mídia, estendendo a classe base Media.
@@ -16,12 +19,14 @@ public class Series extends Media {
     private int yearOfEnding;
     // Lista com os nomes do elenco da série
     private List<String> cast;
-    // Conjunto ordenado de temporadas da série
-    private TreeSet<Season> seasons;
+    // Conjunto ordenado de temporadas da série, trocado por uma cópia a cada temporada adicionada
+    private volatile TreeSet<Season> seasons;
     // Título original da série
     private String originalTitle;
     // Lista de plataformas onde a série pode ser assistida
     private List<String> whereToWatch;
+    // Chaves de busca do elenco, calculadas sob demanda
+    private transient List<String> castKeys;
 
     /**
      * Construtor da classe Series.
@@ -55,11 +60,30 @@ public class Series extends Media {
 
     /**
      * Adiciona uma temporada ao conjunto de temporadas da série.
+     * O conjunto não é alterado: a temporada é adicionada a uma cópia, que o substitui,
+     * de forma que um salvamento em segundo plano que esteja percorrendo o conjunto
+     * anterior não seja afetado.
      *
      * @param season A temporada a ser adicionada.
      */
     public void addSeason(Season season){
-        this.seasons.add(season);
+        addSeasons(List.of(season));
+    }
+
+    /**
+     * Adiciona várias temporadas ao conjunto de temporadas da série, com uma única cópia
+     * do conjunto, como em addSeason(). Usado ao ler a série de um arquivo.
+     *
+     * @param added As temporadas a serem adicionadas.
+     */
+    public void addSeasons(Collection<Season> added){
+        if (added.isEmpty())
+            return;
+
+        TreeSet<Season> updated = new TreeSet<>(seasons);
+        updated.addAll(added);
+        this.seasons = updated;
+        markModified();
     }
 
     /**
@@ -136,6 +160,18 @@ public class Series extends Media {
         return cast;
     }
 
+    /**
+     * Obtém as chaves de busca do elenco: cada nome em minúsculas e sem acentos.
+     * São calculadas na primeira chamada e reaproveitadas nas seguintes.
+     *
+     * @return Uma lista imutável com as chaves de busca do elenco.
+     */
+    public List<String> getCastKeys() {
+        if (castKeys == null)
+            castKeys = cast.stream().map(SearchKeys::normalize).toList();
+        return castKeys;
+    }
+
     /**
      * Obtém as temporadas de uma série.
      *
@@ -145,6 +181,72 @@ public class Series extends Media {
         return seasons;
     }
 
+    /**
+     * Verifica se a série ou alguma de suas temporadas foi alterada desde o último salvamento.
+     * Sobrescreve o método de Media.
+     *
+     * @return true se a série foi alterada, false caso contrário.
+     */
+    @Override
+    public boolean isModified() {
+        if (modified)
+            return true;
+
+        for (Season season : seasons) {
+            if (season.isModified())
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Marca a série e suas temporadas como salvas, sem alterações pendentes.
+     * Sobrescreve o método de Media.
+     */
+    @Override
+    public void clearModified() {
+        super.clearModified();
+        for (Season season : seasons)
+            season.clearModified();
+    }
+
+    /**
+     * Copia a série para um salvamento em segundo plano, com cópias do elenco,
+     * das plataformas e de cada temporada.
+     * Sobrescreve o método de Media.
+     *
+     * @return A cópia da série.
+     */
+    @Override
+    public Series copyForSave() {
+        Series copy = (Series) super.copyForSave();
+        if (cast != null)
+            copy.cast = new ArrayList<>(cast);
+        if (whereToWatch != null)
+            copy.whereToWatch = new ArrayList<>(whereToWatch);
+        if (seasons != null) {
+            TreeSet<Season> copies = new TreeSet<>();
+            for (Season season : seasons)
+                copies.add(season.copy());
+            copy.seasons = copies;
+        }
+        return copy;
+    }
+
+    /**
+     * Troca os nomes do elenco e as plataformas pelas instâncias compartilhadas.
+     * Sobrescreve o método de Media.
+     *
+     * @param pool Função que devolve a instância compartilhada de um texto.
+     */
+    @Override
+    public void shareStrings(UnaryOperator<String> pool) {
+        if (cast != null)
+            cast.replaceAll(pool);
+        if (whereToWatch != null)
+            whereToWatch.replaceAll(pool);
+    }
+
     /**
      * Obtém o tipo de mídia, que neste caso é "Série".
      *
@@ -156,40 +258,52 @@ public class Series extends Media {
     }
 
     /**
-     * Sobrecarrega o método  de Object.
-     * Retorna uma representação em string da série, incluindo título, anos de início e término,
-     * título original, plataformas onde assistir, elenco e avaliação (se disponível) e temporadas.
-     * Itera e adiciona o toString de cada temporada registrada.
-     * Os colchetes que existem no toString() das listas de elenco e onde
-     * assistir são removidos.
-     * Caso o ano de encerramento seja 9999, exibe-se 'Em andamento' no lugar do ano.
+     * Sobrescreve o método de Media.
+     * Retorna uma representação em string da série: o texto guardado da série,
+     * seguido do toString de cada temporada registrada. As temporadas guardam
+     * seus próprios textos, então uma temporada alterada não invalida o da série.
+     *
      * @return Uma string representando a série.
      */
     @Override
     public String toString() {
-        String endingYear = (yearOfEnding == 9999) ? "Em andamento" : Integer.toString(yearOfEnding);
+        String header = super.toString();
+        StringBuilder string = new StringBuilder(header.length() + 48 * seasons.size()).append(header);
 
-        StringBuilder castString = new StringBuilder(cast.toString());
-        castString.deleteCharAt(0).deleteCharAt(castString.length() - 1);
+        for(Season season : seasons)
+            string.append("\n\t").append(season.toString());
 
-        StringBuilder watchString = new StringBuilder(whereToWatch.toString());
-        watchString.deleteCharAt(0).deleteCharAt(watchString.length() - 1);
+        return string.toString();
+    }
 
-        StringBuilder string = new StringBuilder(
-                "\n" + title + " (" + year + " - "  + endingYear + ")" +
-                "\nTítulo original: " + originalTitle +
-                "\nOnde assistir: " + watchString +
-                "\nElenco: " + castString
-                );
+    /**
+     * Sobrescreve o método de Media.
+     * Monta a representação em string da série, sem as temporadas, incluindo título,
+     * anos de início e término, título original, plataformas onde assistir, elenco
+     * e avaliação (se disponível).
+     * As listas de elenco e onde assistir são escritas sem colchetes, separadas por vírgula.
+     * Caso o ano de encerramento seja 9999, exibe-se 'Em andamento' no lugar do ano.
+     *
+     * @param string O StringBuilder onde o texto é escrito.
+     */
+    @Override
+    protected void render(StringBuilder string) {
+        string.append("\n").append(title).append(" (").append(year).append(" - ");
+        if (yearOfEnding == 9999)
+            string.append("Em andamento");
+        else
+            string.append(yearOfEnding);
+
+        string.append(")")
+                .append("\nTítulo original: ").append(originalTitle)
+                .append("\nOnde assistir: ");
+        appendList(string, whereToWatch);
+        string.append("\nElenco: ");
+        appendList(string, cast);
 
         if (rating != 0)
-            string.append("\nAvaliação: ").append("★".repeat(rating));
+            string.append("\nAvaliação: ").append(Stars.of(rating));
 
         string.append("\nTemporadas:");
-
-        for(Season season : seasons)
-            string.append("\n\t").append(season.toString());
-
-        return string.toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.davigui.mediajournal.Model.Medias;
+
+/**
+ * Classe estatica que fornece a representação em estrelas de uma nota.
+ * As strings das notas válidas (0 a 5) são criadas uma única vez e compartilhadas,
+ * em vez de repetir "★" a cada exibição.
+ */
+public class Stars {
+    // Estrelas de cada nota válida, indexadas pela nota
+    private static final String[] STARS = {"", "★", "★★", "★★★", "★★★★", "★★★★★"};
+
+    /**
+     * Obtém as estrelas de uma nota.
+     *
+     * @param rating A nota.
+     * @return Uma estrela por ponto da nota (vazia para zero).
+     */
+    public static String of(int rating) {
+        if (rating >= 0 && rating < STARS.length)
+            return STARS[rating];
+        return "★".repeat(Math.max(rating, 0));
+    }
+}
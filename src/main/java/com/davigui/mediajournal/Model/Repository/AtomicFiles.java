@@ -0,0 +1,187 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Classe estatica responsável pela escrita segura dos arquivos da biblioteca.
+ * <p>
+ * Um arquivo nunca é truncado no lugar: o novo conteúdo é escrito em um arquivo
+ * temporário na mesma pasta, sincronizado com o disco (fsync) e só então
+ * movido sobre o original de forma atômica. Ao substituir um conjunto de arquivos,
+ * a versão anterior de cada um é mantida como backup (".bak"), o que permite
+ * desfazer um salvamento interrompido entre um arquivo e outro.
+ */
+class AtomicFiles {
+    //Sufixo dos arquivos temporários com o novo conteúdo
+    private static final String TEMP_SUFFIX = ".tmp";
+    //Sufixo das cópias de segurança da versão anterior
+    private static final String BACKUP_SUFFIX = ".bak";
+
+    /**
+     * A interface Content representa um conteúdo a ser escrito em um arquivo.
+     */
+    interface Content {
+        /**
+         * Escreve o conteúdo no fluxo dado. O fluxo não deve ser fechado.
+         *
+         * @param out O fluxo bufferizado do arquivo.
+         * @throws IOException Se ocorrer um erro ao escrever.
+         */
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Escreve o conteúdo no arquivo temporário do caminho dado e o sincroniza com o disco.
+     * O arquivo original não é alterado até a chamada de commit() ou replace().
+     *
+     * @param path O caminho do arquivo de destino.
+     * @param content O conteúdo a ser escrito.
+     * @return O checksum CRC32 do conteúdo escrito.
+     * @throws IOException Se ocorrer um erro ao escrever no arquivo.
+     */
+    static long writeTemp(Path path, Content content) throws IOException {
+        CRC32 checksum = new CRC32();
+
+        try (FileChannel channel = FileChannel.open(tempOf(path), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), checksum));
+            content.writeTo(out);
+            out.flush();
+            channel.force(true);
+        }
+        return checksum.getValue();
+    }
+
+    /**
+     * Substitui um único arquivo pelo seu temporário de forma atômica, sem manter backup.
+     *
+     * @param path O caminho do arquivo de destino.
+     * @throws IOException Se ocorrer um erro ao mover o arquivo.
+     */
+    static void replace(Path path) throws IOException {
+        move(tempOf(path), path);
+        syncDirectory(path);
+    }
+
+    /**
+     * Substitui um conjunto de arquivos pelos seus temporários.
+     * Primeiro a versão atual de cada arquivo vira backup, depois cada
+     * temporário é movido sobre o original. Se o processo for interrompido no meio,
+     * a versão anterior de cada arquivo continua no próprio arquivo ou no seu backup.
+     *
+     * @param paths Os caminhos dos arquivos de destino.
+     * @throws IOException Se ocorrer um erro ao mover os arquivos.
+     */
+    static void commit(List<Path> paths) throws IOException {
+        for (Path path : paths) {
+            if (Files.exists(path))
+                move(path, backupOf(path));
+        }
+        for (Path path : paths)
+            move(tempOf(path), path);
+
+        syncDirectory(paths.getFirst());
+    }
+
+    /**
+     * Restaura o backup de um arquivo se o arquivo não tiver o checksum esperado
+     * e o backup tiver. Caso contrário, o arquivo é mantido como está.
+     *
+     * @param path O caminho do arquivo.
+     * @param expected O checksum esperado, ou null se não houver um registrado.
+     * @return true se o backup foi restaurado, false caso contrário.
+     * @throws IOException Se ocorrer um erro ao ler ou mover os arquivos.
+     */
+    static boolean restoreIfTorn(Path path, Long expected) throws IOException {
+        if (expected == null || expected.equals(checksum(path)))
+            return false;
+
+        Path backup = backupOf(path);
+        if (!expected.equals(checksum(backup)))
+            return false;
+
+        move(backup, path);
+        syncDirectory(path);
+        return true;
+    }
+
+    /**
+     * Calcula o checksum CRC32 de um arquivo.
+     *
+     * @param path O caminho do arquivo.
+     * @return O checksum do arquivo, ou null se o arquivo não existir.
+     * @throws IOException Se ocorrer um erro ao ler o arquivo.
+     */
+    static Long checksum(Path path) throws IOException {
+        CRC32 checksum = new CRC32();
+
+        try (InputStream input = new CheckedInputStream(Files.newInputStream(path), checksum)) {
+            byte[] buffer = new byte[8192];
+            while (input.read(buffer) != -1) {
+                //O checksum é atualizado durante a leitura
+            }
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        return checksum.getValue();
+    }
+
+    /**
+     * Move um arquivo de forma atômica, substituindo o destino.
+     *
+     * @param source O arquivo de origem.
+     * @param target O arquivo de destino.
+     * @throws IOException Se ocorrer um erro ao mover o arquivo.
+     */
+    private static void move(Path source, Path target) throws IOException {
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Sincroniza a pasta de um arquivo com o disco, para que as renomeações sejam duráveis.
+     * Em sistemas que não permitem abrir pastas (como o Windows), nada é feito.
+     *
+     * @param path O caminho de um arquivo da pasta.
+     */
+    private static void syncDirectory(Path path) {
+        Path directory = path.toAbsolutePath().getParent();
+
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            //A sincronização da pasta é apenas uma garantia adicional
+        }
+    }
+
+    /**
+     * Obtém o caminho do arquivo temporário de um arquivo.
+     *
+     * @param path O caminho do arquivo.
+     * @return O caminho do temporário.
+     */
+    private static Path tempOf(Path path) {
+        return path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Obtém o caminho do backup de um arquivo.
+     *
+     * @param path O caminho do arquivo.
+     * @return O caminho do backup.
+     */
+    private static Path backupOf(Path path) {
+        return path.resolveSibling(path.getFileName() + BACKUP_SUFFIX);
+    }
+}
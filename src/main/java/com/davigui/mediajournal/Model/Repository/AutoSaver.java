@@ -0,0 +1,244 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import com.davigui.mediajournal.Model.Enums.StorageFormat;
+import com.davigui.mediajournal.Model.Result.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A classe AutoSaver salva a biblioteca automaticamente, em segundo plano, enquanto ela é usada.
+ * <p>
+ * A cada cadastro, remoção ou alteração feita pelos serviços, um salvamento é agendado
+ * para depois do intervalo configurado; as alterações feitas até lá são salvas juntas,
+ * no mesmo salvamento. Assim, há no máximo um salvamento por intervalo.
+ * <p>
+ * Quando o intervalo termina, a fotografia da biblioteca é tirada no executor da biblioteca
+ * (a thread que a altera, como a thread do JavaFX) e escrita na thread de salvamento de
+ * DataOperations, sem bloquear quem usa a biblioteca. Uma ConcurrentLibrary pode ser
+ * fotografada de qualquer thread, então o executor pode executar a tarefa diretamente.
+ * <p>
+ * A duração e a quantidade de bytes do último salvamento ficam disponíveis como métricas.
+ * Um salvamento que falha, por qualquer motivo, é registrado como o último resultado e
+ * a biblioteca continua com as alterações pendentes; o salvamento automático continua ativo.
+ */
+public class AutoSaver {
+    // Intervalo padrão entre salvamentos automáticos
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(30);
+
+    // Biblioteca salva automaticamente
+    private final Library journal;
+    // Formato dos arquivos da biblioteca
+    private final StorageFormat format;
+    // Intervalo entre uma alteração e o salvamento que a inclui
+    private final Duration interval;
+    // Executor onde a biblioteca pode ser lida com segurança
+    private final Executor libraryExecutor;
+    // Thread que aguarda o fim de cada intervalo
+    private final ScheduledExecutorService timer;
+    // Salvamento agendado e ainda não iniciado (protegido por this, null se não houver)
+    private ScheduledFuture<?> pending;
+    // Indica se o salvamento automático foi encerrado (protegido por this)
+    private boolean closed;
+    // Duração do último salvamento, da fotografia até o fim da escrita, em nanossegundos
+    private volatile long lastLatency;
+    // Quantidade de bytes escritos no último salvamento
+    private volatile long lastBytesWritten;
+    // Quantidade de salvamentos concluídos com sucesso
+    private volatile long saveCount;
+    // Resultado do último salvamento (null se nenhum terminou)
+    private volatile IResult lastResult;
+
+    /**
+     * Construtor da classe AutoSaver, para bibliotecas salvas em JSON.
+     *
+     * @param journal A biblioteca a ser salva automaticamente.
+     * @param interval O intervalo entre uma alteração e o salvamento que a inclui.
+     * @param libraryExecutor O executor onde a biblioteca pode ser lida com segurança.
+     */
+    public AutoSaver(Library journal, Duration interval, Executor libraryExecutor) {
+        this(journal, StorageFormat.JSON, interval, libraryExecutor);
+    }
+
+    /**
+     * Construtor da classe AutoSaver.
+     * Passa a receber as alterações da biblioteca imediatamente.
+     *
+     * @param journal A biblioteca a ser salva automaticamente.
+     * @param format O formato dos arquivos da biblioteca.
+     * @param interval O intervalo entre uma alteração e o salvamento que a inclui.
+     * @param libraryExecutor O executor onde a biblioteca pode ser lida com segurança.
+     */
+    public AutoSaver(Library journal, StorageFormat format, Duration interval, Executor libraryExecutor) {
+        this.journal = journal;
+        this.format = format;
+        this.interval = interval;
+        this.libraryExecutor = libraryExecutor;
+        this.timer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "library-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pending = null;
+        this.closed = false;
+        journal.setChangeListener(this::changed);
+    }
+
+    /**
+     * Encerra o salvamento automático e faz um último salvamento, aguardando o seu fim.
+     * Como os salvamentos são escritos em ordem, um salvamento em andamento termina antes.
+     * Deve ser chamado no executor da biblioteca, ao fechar a aplicação.
+     *
+     * @return Um resultado indicando sucesso ou falha do último salvamento.
+     */
+    public IResult close() {
+        return closeAsync().join();
+    }
+
+    /**
+     * Encerra o salvamento automático e agenda um último salvamento, sem aguardar a escrita.
+     * A fotografia da biblioteca é tirada na thread de quem chama, que deve poder ler
+     * a biblioteca com segurança (qualquer thread, no caso de uma ConcurrentLibrary).
+     *
+     * @return Um futuro que será completado com o resultado do último salvamento,
+     * depois de algum salvamento que estivesse em andamento.
+     */
+    public CompletableFuture<IResult> closeAsync() {
+        synchronized (this) {
+            closed = true;
+            if (pending != null)
+                pending.cancel(false);
+            pending = null;
+        }
+        journal.setChangeListener(null);
+        timer.shutdownNow();
+
+        return saveNow();
+    }
+
+    /**
+     * Obtém a duração do último salvamento, da fotografia da biblioteca até o fim da escrita.
+     *
+     * @return A duração do último salvamento (zero se nenhum terminou).
+     */
+    public Duration getLastSaveLatency() {
+        return Duration.ofNanos(lastLatency);
+    }
+
+    /**
+     * Obtém a quantidade de bytes escritos nos arquivos de dados pelo último salvamento.
+     *
+     * @return A quantidade de bytes escritos.
+     */
+    public long getLastBytesWritten() {
+        return lastBytesWritten;
+    }
+
+    /**
+     * Obtém a quantidade de salvamentos concluídos com sucesso.
+     *
+     * @return A quantidade de salvamentos.
+     */
+    public long getSaveCount() {
+        return saveCount;
+    }
+
+    /**
+     * Obtém o resultado do último salvamento.
+     *
+     * @return O resultado, ou null se nenhum salvamento terminou.
+     */
+    public IResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Recebe uma alteração da biblioteca e agenda um salvamento para o fim do intervalo,
+     * se ainda não houver um agendado.
+     */
+    private synchronized void changed() {
+        if (closed || pending != null)
+            return;
+
+        pending = timer.schedule(this::startSave, interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Passa o salvamento agendado para o executor da biblioteca. Executado na thread do timer.
+     * Se o executor recusar a tarefa, a falha é registrada e a próxima alteração agenda
+     * um novo salvamento.
+     */
+    private void startSave() {
+
+        try {
+            libraryExecutor.execute(this::intervalElapsed);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                pending = null;
+            }
+            failed(e);
+        }
+    }
+
+    /**
+     * Inicia o salvamento agendado. Executado no executor da biblioteca.
+     * As alterações feitas a partir daqui agendam o próximo salvamento.
+     * Nunca lança exceções: uma falha é registrada como o último resultado.
+     */
+    private void intervalElapsed() {
+        synchronized (this) {
+            if (closed)
+                return;
+            pending = null;
+        }
+
+        try {
+            saveNow();
+        } catch (RuntimeException e) {
+            failed(e);
+        }
+    }
+
+    /**
+     * Tira a fotografia da biblioteca, agenda a sua escrita e registra as métricas quando ela terminar.
+     * Qualquer falha completa o futuro com um Failure, nunca com uma exceção.
+     *
+     * @return Um futuro que será completado com o resultado do salvamento.
+     */
+    private CompletableFuture<IResult> saveNow() {
+        long start = System.nanoTime();
+
+        return DataOperations.submitSave(journal, format).handle((bytes, error) -> {
+            if (error != null)
+                return failed((error.getCause() == null) ? error : error.getCause());
+
+            lastLatency = System.nanoTime() - start;
+            lastBytesWritten = bytes;
+            ++saveCount;
+            IResult result = new Success("Biblioteca", "Salva com sucesso.");
+            lastResult = result;
+            return result;
+        });
+    }
+
+    /**
+     * Registra um salvamento que falhou como o último resultado.
+     * As alterações da biblioteca continuam pendentes para o próximo salvamento.
+     *
+     * @param error O erro do salvamento.
+     * @return O resultado da falha.
+     */
+    private IResult failed(Throwable error) {
+        IResult result = (error instanceof IOException) ? new Failure("Biblioteca", "Exceção de IO")
+                : new Failure("Biblioteca", "Erro inesperado ao salvar: " + error);
+        lastResult = result;
+        return result;
+    }
+}
@@ -0,0 +1,587 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import com.davigui.mediajournal.Model.Enums.Genres;
+import com.davigui.mediajournal.Model.Exceptions.MediaAlreadyExistsException;
+import com.davigui.mediajournal.Model.Medias.Book;
+import com.davigui.mediajournal.Model.Medias.Movie;
+import com.davigui.mediajournal.Model.Medias.Series;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A classe ConcurrentLibrary é uma variante da Library que pode ser usada por
+ * várias threads ao mesmo tempo (por exemplo, um importador em segundo plano e a interface).
+ * <p>
+ * Cada tipo de mídia tem o seu próprio ReadWriteLock, de forma que operações em
+ * livros não bloqueiam operações em filmes ou séries; o histograma de anos tem um
+ * lock próprio. Consultas usam o lock de leitura e podem acontecer em paralelo;
+ * cadastros, remoções e alterações de índices usam o lock de escrita.
+ * Os locks são sempre obtidos na mesma ordem (livros, filmes, séries e anos),
+ * o que evita deadlocks.
+ * <p>
+ * Os getters de listas e índices devolvem cópias (snapshots) feitas sob o lock
+ * de leitura, que podem ser percorridas sem bloquear as outras threads. As buscas por
+ * um ano ou gênero copiam apenas o balde consultado; os mapas de índice inteiros são
+ * copiados por completo e não devem ser usados em buscas.
+ * addIfAbsent() e removeIfPresent() verificam e alteram a biblioteca de forma atômica.
+ * <p>
+ * As alterações nas próprias mídias (nota, review, temporadas...) devem ser feitas por
+ * update(mídia, alteração), que as aplica e registra sob o lock de escrita do tipo, como
+ * fazem os serviços. Assim, um salvamento nunca lê uma mídia no meio de uma alteração.
+ */
+public class ConcurrentLibrary extends Library {
+    // Lock da lista e dos índices de livros
+    private final ReadWriteLock bookLock;
+    // Lock da lista e dos índices de filmes
+    private final ReadWriteLock movieLock;
+    // Lock da lista e dos índices de séries
+    private final ReadWriteLock seriesLock;
+    // Lock do histograma de anos registrados
+    private final ReadWriteLock yearLock;
+
+    /**
+     * Construtor da classe ConcurrentLibrary.
+     * Inicializa a biblioteca vazia e um lock para cada tipo de mídia e para os anos.
+     */
+    public ConcurrentLibrary() {
+        super();
+        this.bookLock = new ReentrantReadWriteLock();
+        this.movieLock = new ReentrantReadWriteLock();
+        this.seriesLock = new ReentrantReadWriteLock();
+        this.yearLock = new ReentrantReadWriteLock();
+    }
+
+    @Override
+    public void exists(Book book) throws MediaAlreadyExistsException {
+        read(bookLock, () -> super.exists(book));
+    }
+
+    @Override
+    public void exists(Movie movie) throws MediaAlreadyExistsException {
+        read(movieLock, () -> super.exists(movie));
+    }
+
+    @Override
+    public void exists(Series series) throws MediaAlreadyExistsException {
+        read(seriesLock, () -> super.exists(series));
+    }
+
+    @Override
+    public void add(Book book) {
+        write(bookLock, () -> super.add(book));
+    }
+
+    @Override
+    public void add(Movie movie) {
+        write(movieLock, () -> super.add(movie));
+    }
+
+    @Override
+    public void add(Series series) {
+        write(seriesLock, () -> super.add(series));
+    }
+
+    /**
+     * Cadastra um livro e uma ocorrência do seu ano sob o lock de escrita dos livros,
+     * de forma que duas threads não cadastrem o mesmo livro.
+     * Sobrescreve o método de Library.
+     *
+     * @param book O livro a ser cadastrado.
+     * @throws MediaAlreadyExistsException Se o livro já estiver cadastrado.
+     */
+    @Override
+    public void addIfAbsent(Book book) throws MediaAlreadyExistsException {
+        write(bookLock, () -> super.addIfAbsent(book));
+    }
+
+    /**
+     * Cadastra um filme e uma ocorrência do seu ano sob o lock de escrita dos filmes.
+     * Sobrescreve o método de Library.
+     *
+     * @param movie O filme a ser cadastrado.
+     * @throws MediaAlreadyExistsException Se o filme já estiver cadastrado.
+     */
+    @Override
+    public void addIfAbsent(Movie movie) throws MediaAlreadyExistsException {
+        write(movieLock, () -> super.addIfAbsent(movie));
+    }
+
+    /**
+     * Cadastra uma série e uma ocorrência do seu ano sob o lock de escrita das séries.
+     * Sobrescreve o método de Library.
+     *
+     * @param series A série a ser cadastrada.
+     * @throws MediaAlreadyExistsException Se a série já estiver cadastrada.
+     */
+    @Override
+    public void addIfAbsent(Series series) throws MediaAlreadyExistsException {
+        write(seriesLock, () -> super.addIfAbsent(series));
+    }
+
+    @Override
+    public boolean removeIfPresent(Book book) {
+        return write(bookLock, () -> super.removeIfPresent(book));
+    }
+
+    @Override
+    public boolean removeIfPresent(Movie movie) {
+        return write(movieLock, () -> super.removeIfPresent(movie));
+    }
+
+    @Override
+    public boolean removeIfPresent(Series series) {
+        return write(seriesLock, () -> super.removeIfPresent(series));
+    }
+
+    @Override
+    public void addYear(int year) {
+        write(yearLock, () -> super.addYear(year));
+    }
+
+    @Override
+    public void remove(Book book) {
+        write(bookLock, () -> super.remove(book));
+    }
+
+    @Override
+    public void remove(Movie movie) {
+        write(movieLock, () -> super.remove(movie));
+    }
+
+    @Override
+    public void remove(Series series) {
+        write(seriesLock, () -> super.remove(series));
+    }
+
+    @Override
+    public void removeYear(int year) {
+        write(yearLock, () -> super.removeYear(year));
+    }
+
+    @Override
+    public Book findBook(int id) {
+        return read(bookLock, () -> super.findBook(id));
+    }
+
+    @Override
+    public Movie findMovie(int id) {
+        return read(movieLock, () -> super.findMovie(id));
+    }
+
+    @Override
+    public Series findSeries(int id) {
+        return read(seriesLock, () -> super.findSeries(id));
+    }
+
+    @Override
+    public void setYear(Book book, int year) {
+        write(bookLock, () -> super.setYear(book, year));
+    }
+
+    @Override
+    public void setGenre(Book book, Genres genre) {
+        write(bookLock, () -> super.setGenre(book, genre));
+    }
+
+    @Override
+    public void setYear(Movie movie, int year) throws MediaAlreadyExistsException {
+        write(movieLock, () -> super.setYear(movie, year));
+    }
+
+    @Override
+    public void setGenre(Movie movie, Genres genre) {
+        write(movieLock, () -> super.setGenre(movie, genre));
+    }
+
+    @Override
+    public void setYear(Series series, int year) throws MediaAlreadyExistsException {
+        write(seriesLock, () -> super.setYear(series, year));
+    }
+
+    @Override
+    public void setGenre(Series series, Genres genre) {
+        write(seriesLock, () -> super.setGenre(series, genre));
+    }
+
+    @Override
+    public void update(Book book) {
+        write(bookLock, () -> super.update(book));
+    }
+
+    @Override
+    public void update(Book book, Consumer<? super Book> change) {
+        write(bookLock, () -> super.update(book, change));
+    }
+
+    @Override
+    public void update(Movie movie) {
+        write(movieLock, () -> super.update(movie));
+    }
+
+    @Override
+    public void update(Movie movie, Consumer<? super Movie> change) {
+        write(movieLock, () -> super.update(movie, change));
+    }
+
+    @Override
+    public void update(Series series) {
+        write(seriesLock, () -> super.update(series));
+    }
+
+    @Override
+    public void update(Series series, Consumer<? super Series> change) {
+        write(seriesLock, () -> super.update(series, change));
+    }
+
+    @Override
+    void replay(MutationLog.Changes<Book> books, MutationLog.Changes<Movie> movies,
+                MutationLog.Changes<Series> series) {
+        write(bookLock, () -> write(movieLock, () -> write(seriesLock,
+                () -> write(yearLock, () -> super.replay(books, movies, series)))));
+    }
+
+    @Override
+    public NavigableMap<Integer, List<Book>> getBooksByYear() {
+        return read(bookLock, () -> copyByYear(super.getBooksByYear()));
+    }
+
+    @Override
+    public Map<Genres, List<Book>> getBooksByGenre() {
+        return read(bookLock, () -> copyByGenre(super.getBooksByGenre()));
+    }
+
+    @Override
+    public NavigableMap<Integer, List<Movie>> getMoviesByYear() {
+        return read(movieLock, () -> copyByYear(super.getMoviesByYear()));
+    }
+
+    @Override
+    public Map<Genres, List<Movie>> getMoviesByGenre() {
+        return read(movieLock, () -> copyByGenre(super.getMoviesByGenre()));
+    }
+
+    @Override
+    public NavigableMap<Integer, List<Series>> getSeriesByYear() {
+        return read(seriesLock, () -> copyByYear(super.getSeriesByYear()));
+    }
+
+    @Override
+    public Map<Genres, List<Series>> getSeriesByGenre() {
+        return read(seriesLock, () -> copyByGenre(super.getSeriesByGenre()));
+    }
+
+    @Override
+    public List<Book> getBooksOfYear(int year) {
+        return read(bookLock, () -> List.copyOf(super.getBooksOfYear(year)));
+    }
+
+    @Override
+    public List<Book> getBooksOfGenre(Genres genre) {
+        return read(bookLock, () -> List.copyOf(super.getBooksOfGenre(genre)));
+    }
+
+    @Override
+    public List<Movie> getMoviesOfYear(int year) {
+        return read(movieLock, () -> List.copyOf(super.getMoviesOfYear(year)));
+    }
+
+    @Override
+    public List<Movie> getMoviesOfGenre(Genres genre) {
+        return read(movieLock, () -> List.copyOf(super.getMoviesOfGenre(genre)));
+    }
+
+    @Override
+    public List<Series> getSeriesOfYear(int year) {
+        return read(seriesLock, () -> List.copyOf(super.getSeriesOfYear(year)));
+    }
+
+    @Override
+    public List<Series> getSeriesOfGenre(Genres genre) {
+        return read(seriesLock, () -> List.copyOf(super.getSeriesOfGenre(genre)));
+    }
+
+    @Override
+    public TextIndex<Book> getBookTitleIndex() {
+        return guarded(super.getBookTitleIndex(), bookLock);
+    }
+
+    @Override
+    public TextIndex<Book> getBookAuthorIndex() {
+        return guarded(super.getBookAuthorIndex(), bookLock);
+    }
+
+    @Override
+    public TextIndex<Movie> getMovieTitleIndex() {
+        return guarded(super.getMovieTitleIndex(), movieLock);
+    }
+
+    @Override
+    public TextIndex<Movie> getMovieDirectorIndex() {
+        return guarded(super.getMovieDirectorIndex(), movieLock);
+    }
+
+    @Override
+    public TextIndex<Movie> getMovieCastIndex() {
+        return guarded(super.getMovieCastIndex(), movieLock);
+    }
+
+    @Override
+    public TextIndex<Series> getSeriesTitleIndex() {
+        return guarded(super.getSeriesTitleIndex(), seriesLock);
+    }
+
+    @Override
+    public TextIndex<Series> getSeriesCastIndex() {
+        return guarded(super.getSeriesCastIndex(), seriesLock);
+    }
+
+    /**
+     * Obtém uma cópia da lista de livros, feita sob o lock de leitura.
+     * Sobrescreve o método de Library.
+     *
+     * @return Uma nova lista com os livros cadastrados.
+     */
+    @Override
+    public ArrayList<Book> getBookList() {
+        return read(bookLock, () -> new ArrayList<>(super.getBookList()));
+    }
+
+    /**
+     * Obtém uma cópia da lista de séries, feita sob o lock de leitura.
+     * Sobrescreve o método de Library.
+     *
+     * @return Uma nova lista com as séries cadastradas.
+     */
+    @Override
+    public ArrayList<Series> getSeriesList() {
+        return read(seriesLock, () -> new ArrayList<>(super.getSeriesList()));
+    }
+
+    /**
+     * Obtém uma cópia da lista de filmes, feita sob o lock de leitura.
+     * Sobrescreve o método de Library.
+     *
+     * @return Uma nova lista com os filmes cadastrados.
+     */
+    @Override
+    public ArrayList<Movie> getMovieList() {
+        return read(movieLock, () -> new ArrayList<>(super.getMovieList()));
+    }
+
+    /**
+     * Obtém uma cópia do histograma de anos, feita sob o lock de leitura.
+     * Sobrescreve o método de Library.
+     *
+     * @return Um novo histograma com os anos registrados.
+     */
+    @Override
+    public YearHistogram getYearsRegistered() {
+        return read(yearLock, () -> new YearHistogram(super.getYearsRegistered()));
+    }
+
+    @Override
+    public List<Book> getBooks() {
+        return read(bookLock, super::getBooks);
+    }
+
+    @Override
+    public List<Movie> getMovies() {
+        return read(movieLock, super::getMovies);
+    }
+
+    @Override
+    public List<Series> getSeries() {
+        return read(seriesLock, super::getSeries);
+    }
+
+    /**
+     * Tira uma fotografia imutável da biblioteca com todos os locks de leitura obtidos,
+     * de forma que as listas e o histograma correspondam ao mesmo momento.
+     * Sobrescreve o método de Library.
+     *
+     * @return A fotografia da biblioteca.
+     */
+    @Override
+    public LibrarySnapshot snapshot() {
+        return read(bookLock, () -> read(movieLock, () -> read(seriesLock,
+                () -> read(yearLock, super::snapshot))));
+    }
+
+    /**
+     * Tira a fotografia para salvamento, copiando as mídias alteradas, com todos os locks
+     * de escrita obtidos, de forma que nenhuma mídia seja alterada durante a cópia.
+     * A fotografia é escrita depois, sem nenhum lock.
+     * Sobrescreve o método de Library.
+     *
+     * @return A fotografia da biblioteca.
+     */
+    @Override
+    LibrarySnapshot detachForSave() {
+        return write(bookLock, () -> write(movieLock, () -> write(seriesLock,
+                () -> write(yearLock, super::detachForSave))));
+    }
+
+    @Override
+    void restoreDirty(LibrarySnapshot snapshot) {
+        write(bookLock, () -> write(movieLock, () -> write(seriesLock,
+                () -> write(yearLock, () -> super.restoreDirty(snapshot)))));
+    }
+
+    @Override
+    public void setBookList(ArrayList<Book> bookList) {
+        write(bookLock, () -> super.setBookList(bookList));
+    }
+
+    @Override
+    public void setMovieList(ArrayList<Movie> movieList) {
+        write(movieLock, () -> super.setMovieList(movieList));
+    }
+
+    @Override
+    public void setSeriesList(ArrayList<Series> seriesList) {
+        write(seriesLock, () -> super.setSeriesList(seriesList));
+    }
+
+    @Override
+    void rebuildYears() {
+        read(bookLock, () -> read(movieLock, () -> read(seriesLock,
+                () -> write(yearLock, super::rebuildYears))));
+    }
+
+    @Override
+    public boolean isBooksDirty() {
+        return read(bookLock, super::isBooksDirty);
+    }
+
+    @Override
+    public boolean isMoviesDirty() {
+        return read(movieLock, super::isMoviesDirty);
+    }
+
+    @Override
+    public boolean isSeriesDirty() {
+        return read(seriesLock, super::isSeriesDirty);
+    }
+
+    @Override
+    public boolean isYearsDirty() {
+        return read(yearLock, super::isYearsDirty);
+    }
+
+    /**
+     * Marca a biblioteca inteira como salva, com todos os locks de escrita obtidos.
+     * Sobrescreve o método de Library.
+     */
+    @Override
+    public void markSaved() {
+        write(bookLock, () -> write(movieLock, () -> write(seriesLock,
+                () -> write(yearLock, super::markSaved))));
+    }
+
+    /**
+     * Copia um índice por ano, incluindo as listas de cada ano.
+     *
+     * @param index O índice original.
+     * @param <T> O tipo das mídias.
+     * @return Uma cópia somente leitura do índice.
+     */
+    private static <T> NavigableMap<Integer, List<T>> copyByYear(NavigableMap<Integer, List<T>> index) {
+        TreeMap<Integer, List<T>> copy = new TreeMap<>();
+        index.forEach((year, medias) -> copy.put(year, List.copyOf(medias)));
+        return Collections.unmodifiableNavigableMap(copy);
+    }
+
+    /**
+     * Copia um índice por gênero, incluindo as listas de cada gênero.
+     *
+     * @param index O índice original.
+     * @param <T> O tipo das mídias.
+     * @return Uma cópia somente leitura do índice.
+     */
+    private static <T> Map<Genres, List<T>> copyByGenre(Map<Genres, List<T>> index) {
+        EnumMap<Genres, List<T>> copy = new EnumMap<>(Genres.class);
+        index.forEach((genre, medias) -> copy.put(genre, List.copyOf(medias)));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Cria uma visão de um índice de texto que faz as buscas sob o lock de leitura
+     * do tipo de mídia indexado.
+     *
+     * @param index O índice mantido pela biblioteca.
+     * @param lock O lock do tipo de mídia indexado.
+     * @param <T> O tipo de mídia indexada.
+     * @return A visão protegida do índice.
+     */
+    private static <T> TextIndex<T> guarded(TextIndex<T> index, ReadWriteLock lock) {
+        return term -> read(lock, () -> index.search(term));
+    }
+
+    /**
+     * Executa uma ação sob o lock de leitura.
+     *
+     * @param lock O lock.
+     * @param action A ação.
+     */
+    private static void read(ReadWriteLock lock, Runnable action) {
+        lock.readLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Executa uma consulta sob o lock de leitura.
+     *
+     * @param lock O lock.
+     * @param query A consulta.
+     * @param <R> O tipo do resultado.
+     * @return O resultado da consulta.
+     */
+    private static <R> R read(ReadWriteLock lock, Supplier<R> query) {
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Executa uma ação sob o lock de escrita.
+     *
+     * @param lock O lock.
+     * @param action A ação.
+     */
+    private static void write(ReadWriteLock lock, Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Executa uma operação com resultado sob o lock de escrita.
+     *
+     * @param lock O lock.
+     * @param operation A operação.
+     * @param <R> O tipo do resultado.
+     * @return O resultado da operação.
+     */
+    private static <R> R write(ReadWriteLock lock, Supplier<R> operation) {
+        lock.writeLock().lock();
+        try {
+            return operation.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
\ No newline at end of file
@@ -1,18 +1,43 @@
 package com.davigui.mediajournal.Model.Repository;
 
+import com.davigui.mediajournal.Model.Enums.StorageFormat;
 import com.davigui.mediajournal.Model.Result.*;
 import com.davigui.mediajournal.Model.Medias.*;
 
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import java.lang.reflect.Type;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Classe estatica responsável por operações de manipulação de dados da biblioteca.
+ * Os arquivos são lidos e escritos em fluxo (streaming), mídia por mídia.
+ * A escrita é atômica: um salvamento interrompido nunca deixa um arquivo pela metade
+ * e é desfeito na leitura seguinte com base no manifesto.
+ * Entre um salvamento e outro, as alterações são registradas em um log (MutationLog),
+ * reaplicado na próxima leitura caso a aplicação termine sem salvar.
+ * <p>
+ * A biblioteca pode ser salva nos arquivos JSON (padrão) ou em um único snapshot
+ * binário (SnapshotCodec). Ela deve ser salva no mesmo formato em que foi carregada;
+ * o método convert() copia a biblioteca de um formato para o outro.
  */
 public class DataOperations {
     //Caminho do arquivo JSON onde os dados dos livros estão armazenados.
@@ -23,38 +48,238 @@ public class DataOperations {
     private static final String SERIESPATH = "src/main/data/series.json";
     //Caminho do arquivo JSON onde os dados dos anos registrados estão armazenados.
     private static final String YEARSPATH = "src/main/data/years.json";
+    //Caminho do manifesto do último salvamento concluído.
+    private static final String MANIFESTPATH = "src/main/data/manifest.json";
+    //Caminho do log de alterações feitas desde o último salvamento.
+    private static final String LOGPATH = "src/main/data/mutations.log";
+    //Caminho do snapshot binário da biblioteca.
+    private static final String BINPATH = "src/main/data/library.bin";
 
-    private static final Gson gson = new Gson();
+    private static final Gson gson = MediaAdapters.create();
+
+    //Thread única onde os salvamentos são escritos, um de cada vez e na ordem em que foram pedidos
+    private static final ExecutorService saver = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "library-save");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * A interface CollectionWriter representa a escrita do arquivo temporário de uma coleção.
+     */
+    private interface CollectionWriter {
+        /**
+         * Escreve o arquivo temporário.
+         *
+         * @return O checksum do conteúdo escrito.
+         * @throws IOException Se ocorrer um erro ao escrever no arquivo.
+         */
+        long write() throws IOException;
+    }
 
     /**
      * Salva os dados da biblioteca em arquivos JSON.
      * Falha se ocorrer uma exceção de IO.
-     * Utiliza o método auxiliar saveFile() para salvar os arquivos.
+     * Utiliza os métodos auxiliares saveList() e saveYears() para salvar os arquivos,
+     * que escrevem as mídias uma a uma, sem montar o documento inteiro em memória.
+     * <p>
+     * Apenas os arquivos das coleções alteradas desde o último salvamento são
+     * reescritos; os demais mantêm o checksum registrado no manifesto anterior.
+     * Sem manifesto anterior, todos os arquivos são escritos.
+     * <p>
+     * Os arquivos são escritos em temporários sincronizados com o disco,
+     * movidos sobre os originais (que viram backup) e, por fim, o manifesto
+     * com a nova geração e os checksums é gravado, concluindo o salvamento.
+     * Depois disso, o log de alterações, já incorporado aos arquivos, é esvaziado.
      *
      * @param journal A biblioteca cujos dados serão salvos.
      * @return Um resultado indicando sucesso ou falha na operação de salvamento.
      */
     public static IResult save(Library journal) {
+        return save(journal, StorageFormat.JSON);
+    }
+
+    /**
+     * Salva os dados da biblioteca no formato escolhido e aguarda o fim da escrita.
+     * No formato binário, o snapshot inteiro é reescrito se qualquer coleção
+     * tiver mudado, em um temporário movido de forma atômica sobre o original.
+     *
+     * @param journal A biblioteca cujos dados serão salvos.
+     * @param format O formato dos arquivos.
+     * @return Um resultado indicando sucesso ou falha na operação de salvamento.
+     */
+    public static IResult save(Library journal, StorageFormat format) {
+        return saveAsync(journal, format).join();
+    }
+
+    /**
+     * Salva os dados da biblioteca em arquivos JSON de forma assíncrona, sem bloquear quem chama.
+     *
+     * @param journal A biblioteca cujos dados serão salvos.
+     * @return Um futuro que será completado com o resultado do salvamento.
+     */
+    public static CompletableFuture<IResult> saveAsync(Library journal) {
+        return saveAsync(journal, StorageFormat.JSON);
+    }
+
+    /**
+     * Salva os dados da biblioteca no formato escolhido, de forma assíncrona.
+     * <p>
+     * Uma fotografia da biblioteca (LibrarySnapshot) é tirada na thread de quem chama, com
+     * cópias das mídias alteradas (Library.detachForSave()), e a biblioteca é marcada como salva;
+     * a fotografia é então escrita, em fluxo, na thread de salvamento. Como as mídias alteradas
+     * são copiadas antes de a biblioteca ser liberada, ela pode continuar sendo alterada durante
+     * a escrita: as novas alterações ficam pendentes para o próximo salvamento. Se o salvamento
+     * falhar, por qualquer motivo, as coleções e as mídias da fotografia voltam a ser marcadas
+     * como alteradas.
+     * Os salvamentos são escritos um de cada vez, na ordem em que foram pedidos.
+     *
+     * @param journal A biblioteca cujos dados serão salvos.
+     * @param format O formato dos arquivos.
+     * @return Um futuro que será completado com o resultado do salvamento.
+     */
+    public static CompletableFuture<IResult> saveAsync(Library journal, StorageFormat format) {
+        return submitSave(journal, format).handle((bytes, error) -> {
+            if (error == null)
+                return new Success("Biblioteca", "Salva com sucesso.");
+            if (error.getCause() instanceof IOException)
+                return new Failure("Biblioteca", "Exceção de IO");
+            throw new CompletionException(error.getCause());
+        });
+    }
+
+    /**
+     * Tira uma fotografia da biblioteca e agenda a sua escrita na thread de salvamento,
+     * como descrito em saveAsync().
+     * A fotografia e o agendamento acontecem juntos, de forma que os salvamentos
+     * sejam escritos na mesma ordem das fotografias.
+     * Este método não lança exceções: qualquer erro completa o futuro excepcionalmente.
+     *
+     * @param journal A biblioteca cujos dados serão salvos.
+     * @param format O formato dos arquivos.
+     * @return Um futuro que será completado com a quantidade de bytes escritos,
+     * ou com uma CompletionException que tem o erro como causa.
+     */
+    static synchronized CompletableFuture<Long> submitSave(Library journal, StorageFormat format) {
+        LibrarySnapshot snapshot;
+
+        try {
+            snapshot = journal.detachForSave();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(new CompletionException(e));
+        }
+        return CompletableFuture.supplyAsync(() -> writeSnapshot(journal, snapshot, format), saver);
+    }
+
+    /**
+     * Copia a biblioteca salva em um formato para o outro formato,
+     * reescrevendo por completo os arquivos do formato de destino.
+     *
+     * @param from O formato de origem.
+     * @param to O formato de destino.
+     * @return Um resultado indicando sucesso ou falha na conversão.
+     */
+    public static IResult convert(StorageFormat from, StorageFormat to) {
+        Library source = new Library();
+        IResult loaded = load(source, from);
+        if (loaded instanceof Failure)
+            return loaded;
 
-        String booksJson = gson.toJson(journal.getBookList());
-        String moviesJson = gson.toJson(journal.getMovieList());
-        String seriesJson = gson.toJson(journal.getSeriesList());
-        String yearJson = gson.toJson(journal.getYearsRegistered());
+        //Uma biblioteca com as listas recém-definidas tem todas as coleções alteradas
+        Library target = new Library();
+        target.setBookList(source.getBookList());
+        target.setMovieList(source.getMovieList());
+        target.setSeriesList(source.getSeriesList());
+        target.rebuildYears();
+        return save(target, to);
+    }
+
+    /**
+     * Escreve uma fotografia da biblioteca e, em seguida, descarta do log
+     * de alterações os registros incluídos nela. Executado na thread de salvamento.
+     * Se o salvamento falhar por qualquer motivo, as coleções e as mídias da fotografia
+     * voltam a ser marcadas como alteradas e o log é mantido.
+     *
+     * @param journal A biblioteca de onde a fotografia foi tirada.
+     * @param snapshot A fotografia a ser escrita.
+     * @param format O formato dos arquivos.
+     * @return A quantidade de bytes escritos nos arquivos de dados.
+     * @throws CompletionException Se ocorrer um erro de IO, com o erro como causa.
+     */
+    private static long writeSnapshot(Library journal, LibrarySnapshot snapshot, StorageFormat format) {
+        boolean saved = false;
 
         try {
-            saveFile(BOOKSPATH, booksJson);
-            saveFile(MOVIESPATH, moviesJson);
-            saveFile(SERIESPATH, seriesJson);
-            saveFile(YEARSPATH, yearJson);
-            return new Success("Biblioteca", "Salva com sucesso.");
+            long bytes = (format == StorageFormat.BINARY) ? saveBinary(snapshot) : saveJson(snapshot);
+            if (journal.getMutationLog() != null)
+                journal.getMutationLog().truncate(snapshot.getLogPosition());
+            saved = true;
+            return bytes;
         } catch (IOException e) {
-            return new Failure("Biblioteca", "Exceção de IO");
+            throw new CompletionException(e);
+        } finally {
+            if (!saved)
+                journal.restoreDirty(snapshot);
         }
     }
 
+    /**
+     * Reescreve o snapshot binário se alguma coleção tiver mudado ou se ele não existir.
+     *
+     * @param snapshot A fotografia a ser escrita.
+     * @return O tamanho do snapshot escrito, ou 0 se ele não precisou ser reescrito.
+     * @throws IOException Se ocorrer um erro ao escrever o arquivo.
+     */
+    private static long saveBinary(LibrarySnapshot snapshot) throws IOException {
+        Path path = Path.of(BINPATH);
+
+        if (!snapshot.isDirty() && Files.exists(path))
+            return 0;
+
+        AtomicFiles.writeTemp(path, out -> SnapshotCodec.write(snapshot, out));
+        AtomicFiles.replace(path);
+        return Files.size(path);
+    }
+
+    /**
+     * Escreve os arquivos JSON das coleções alteradas e o novo manifesto,
+     * como descrito em save().
+     *
+     * @param snapshot A fotografia a ser escrita.
+     * @return A soma dos tamanhos dos arquivos JSON reescritos.
+     * @throws IOException Se ocorrer um erro ao escrever os arquivos.
+     */
+    private static long saveJson(LibrarySnapshot snapshot) throws IOException {
+        SaveManifest previous = SaveManifest.read(Path.of(MANIFESTPATH));
+        Map<Path, Long> checksums = new LinkedHashMap<>();
+        List<Path> written = new ArrayList<>();
+
+        saveIfDirty(BOOKSPATH, snapshot.isBooksDirty(), previous, checksums, written,
+                () -> saveList(BOOKSPATH, snapshot.getBooks(), Book.class));
+        saveIfDirty(MOVIESPATH, snapshot.isMoviesDirty(), previous, checksums, written,
+                () -> saveList(MOVIESPATH, snapshot.getMovies(), Movie.class));
+        saveIfDirty(SERIESPATH, snapshot.isSeriesDirty(), previous, checksums, written,
+                () -> saveList(SERIESPATH, snapshot.getSeries(), Series.class));
+        saveIfDirty(YEARSPATH, snapshot.isYearsDirty(), previous, checksums, written,
+                () -> saveYears(YEARSPATH, snapshot.getYears().toMap()));
+
+        if (written.isEmpty())
+            return 0;
+
+        long generation = (previous == null) ? 1 : previous.getGeneration() + 1;
+        AtomicFiles.commit(written);
+        new SaveManifest(generation, checksums).write(Path.of(MANIFESTPATH));
+
+        long bytes = 0;
+        for (Path path : written)
+            bytes += Files.size(path);
+        return bytes;
+    }
+
     /**
      * Carrega os dados da biblioteca a partir de arquivos JSON.
-     * Utiliza o método auxiliar loadFile() para ler os arquivos.
+     * Os arquivos de livros, filmes e séries são lidos em paralelo pelo método auxiliar loadInto()
+     * e este método aguarda o fim da leitura.
      * Pode falhar se ocorrer uma exceção de IO.
      *
      * @param journal A biblioteca onde os dados serão carregados.
@@ -62,70 +287,421 @@ public class DataOperations {
 
      */
     public static IResult load(Library journal) {
+        return load(journal, StorageFormat.JSON);
+    }
 
-        try {
-            Reader booksReader = loadFile(BOOKSPATH);
-            Reader moviesReader = loadFile(MOVIESPATH);
-            Reader seriesReader = loadFile(SERIESPATH);
-            Reader yearReader = loadFile(YEARSPATH);
-
-            Type bookType = new TypeToken<ArrayList<Book>>() {}.getType();
-            Type movieType = new TypeToken<ArrayList<Movie>>() {}.getType();
-            Type seriesType = new TypeToken<ArrayList<Series>>() {}.getType();
-            Type yearType = new TypeToken<TreeMap<Integer, Integer>>() {}.getType();
-
-            ArrayList<Book> books = gson.fromJson(booksReader, bookType);
-            ArrayList<Movie> movies = gson.fromJson(moviesReader, movieType);
-            ArrayList<Series> series = gson.fromJson(seriesReader, seriesType);
-            TreeMap<Integer, Integer> years = gson.fromJson(yearReader, yearType);
-
-            journal.setBookList(books);
-            journal.setMovieList(movies);
-            journal.setSeriesList(series);
-            journal.setYearsRegistered(years);
-
-            booksReader.close();
-            moviesReader.close();
-            seriesReader.close();
-            yearReader.close();
+    /**
+     * Carrega os dados da biblioteca no formato escolhido e aguarda o fim da leitura.
+     * Pode falhar se ocorrer uma exceção de IO.
+     *
+     * @param journal A biblioteca onde os dados serão carregados.
+     * @param format O formato dos arquivos.
+     * @return Um resultado indicando sucesso na operação de carregamento.
+     */
+    public static IResult load(Library journal, StorageFormat format) {
 
+        try {
+            loadInto(journal, format, new ProgressCounter(LoadProgress.NONE)).join();
             return new Success("Biblioteca", "Carregada com sucesso.");
 
-        } catch (IOException e){
-            return new Failure("Biblioteca", "Exceção de IO.");
+        } catch (CompletionException e){
+            if (e.getCause() instanceof IOException)
+                return new Failure("Biblioteca", "Exceção de IO.");
+            throw e;
         }
 
     }
 
     /**
-     * Salva um arquivo no formato JSON no caminho especificado.
+     * Carrega os dados da biblioteca de forma assíncrona, sem bloquear quem chama.
+     * Os arquivos de livros, filmes e séries são lidos em paralelo em threads virtuais.
+     * O futuro é completado com uma exceção se ocorrer um erro de leitura.
+     *
+     * @return Um futuro que será completado com a biblioteca carregada.
+     */
+    public static CompletableFuture<Library> loadAsync() {
+        return loadAsync(StorageFormat.JSON);
+    }
+
+    /**
+     * Carrega os dados da biblioteca no formato escolhido, de forma assíncrona.
+     *
+     * @param format O formato dos arquivos.
+     * @return Um futuro que será completado com a biblioteca carregada.
+     */
+    public static CompletableFuture<Library> loadAsync(StorageFormat format) {
+        return loadAsync(format, LoadProgress.NONE);
+    }
+
+    /**
+     * Carrega os dados da biblioteca no formato escolhido, de forma assíncrona,
+     * informando o andamento da leitura: as mídias lidas e os bytes lidos do total.
+     *
+     * @param format O formato dos arquivos.
+     * @param progress Quem recebe o andamento da leitura.
+     * @return Um futuro que será completado com a biblioteca carregada.
+     */
+    public static CompletableFuture<Library> loadAsync(StorageFormat format, LoadProgress progress) {
+        return loadAsync(new Library(), format, progress);
+    }
+
+    /**
+     * Carrega os dados da biblioteca no formato escolhido em uma biblioteca já criada,
+     * de forma assíncrona, informando o andamento da leitura.
+     * Permite escolher a implementação da biblioteca, como uma ConcurrentLibrary.
+     *
+     * @param journal A biblioteca, vazia, onde os dados serão carregados.
+     * @param format O formato dos arquivos.
+     * @param progress Quem recebe o andamento da leitura.
+     * @return Um futuro que será completado com a biblioteca carregada.
+     */
+    public static <L extends Library> CompletableFuture<L> loadAsync(L journal, StorageFormat format,
+                                                                   LoadProgress progress) {
+        return loadInto(journal, format, new ProgressCounter(progress)).thenApply(done -> journal);
+    }
+
+    /**
+     * Lê a biblioteca no formato escolhido, recalcula os anos registrados a partir
+     * das mídias e, em seguida, reaplica e compacta o log de alterações no mesmo formato.
+     *
+     * @param journal A biblioteca onde os dados serão carregados.
+     * @param format O formato dos arquivos.
+     * @param progress O contador do andamento da leitura.
+     * @return Um futuro que será completado quando a biblioteca estiver pronta.
+     */
+    private static CompletableFuture<Void> loadInto(Library journal, StorageFormat format,
+                                                    ProgressCounter progress) {
+        CompletableFuture<Void> loaded = (format == StorageFormat.BINARY) ?
+                loadBinaryInto(journal, progress) : loadJsonInto(journal, progress);
+
+        return loaded.thenRun(() -> {
+            journal.rebuildYears();
+            journal.markSaved();
+
+            try {
+                recoverLog(journal, format);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Lê o snapshot binário em uma thread virtual e preenche a biblioteca.
+     * Se o snapshot não existir, a biblioteca continua vazia.
+     *
+     * As mídias lidas são informadas de uma vez, no fim da leitura.
+     *
+     * @param journal A biblioteca onde os dados serão carregados.
+     * @param progress O contador do andamento da leitura.
+     * @return Um futuro que será completado quando a biblioteca estiver preenchida.
+     */
+    private static CompletableFuture<Void> loadBinaryInto(Library journal, ProgressCounter progress) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        CompletableFuture<Library> read = readAsync(() -> {
+            try (InputStream in = new BufferedInputStream(progress.open(Path.of(BINPATH)))) {
+                SnapshotCodec.read(in, journal);
+                progress.parsed(journal.getBookList().size() + journal.getMovieList().size()
+                        + journal.getSeriesList().size());
+            } catch (NoSuchFileException e) {
+                //Sem snapshot, a biblioteca começa vazia
+            }
+            return journal;
+        }, executor);
+
+        executor.shutdown();
+        return read.thenRun(() -> {});
+    }
+
+    /**
+     * Lê os arquivos de livros, filmes e séries em paralelo, cada um em
+     * sua própria thread virtual, e preenche a biblioteca quando todos terminarem.
+     * Utiliza o método auxiliar loadList() para ler os arquivos, que lê as mídias uma a uma.
+     * O arquivo de anos não é lido: os anos são recalculados a partir das mídias.
+     *
+     * @param journal A biblioteca onde os dados serão carregados.
+     * @param progress O contador do andamento da leitura.
+     * @return Um futuro que será completado quando a biblioteca estiver preenchida.
+     */
+    private static CompletableFuture<Void> loadJsonInto(Library journal, ProgressCounter progress) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        CompletableFuture<ArrayList<Book>> books =
+                readAsync(() -> loadList(BOOKSPATH, Book.class, progress), executor);
+        CompletableFuture<ArrayList<Movie>> movies =
+                readAsync(() -> loadList(MOVIESPATH, Movie.class, progress), executor);
+        CompletableFuture<ArrayList<Series>> series =
+                readAsync(() -> loadList(SERIESPATH, Series.class, progress), executor);
+
+        //As tarefas já enviadas continuam executando
+        executor.shutdown();
+
+        return CompletableFuture.allOf(books, movies, series).thenRun(() -> {
+            journal.setBookList(books.join());
+            journal.setMovieList(movies.join());
+            journal.setSeriesList(series.join());
+        });
+    }
+
+    /**
+     * Reaplica o log de alterações sobre a biblioteca recém-lida e o compacta:
+     * se houver alterações no log, a biblioteca é salva com elas, e então
+     * um log vazio é criado e associado à biblioteca.
+     * Se a aplicação parar entre o salvamento e a criação do novo log, o log antigo
+     * é reaplicado na próxima leitura sem efeito, pois seus registros são idempotentes.
+     *
+     * @param journal A biblioteca recém-lida.
+     * @param format O formato em que a biblioteca foi lida e será salva.
+     * @throws IOException Se ocorrer um erro ao ler o log ou salvar a biblioteca.
+     */
+    private static void recoverLog(Library journal, StorageFormat format) throws IOException {
+        Path path = Path.of(LOGPATH);
+
+        if (MutationLog.replay(path, journal) > 0) {
+            try {
+                writeSnapshot(journal, journal.detachForSave(), format);
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException io)
+                    throw io;
+                throw e;
+            }
+        }
+
+        journal.setMutationLog(MutationLog.create(path));
+    }
+
+    /**
+     * Executa uma leitura de arquivo no executor dado.
+     * Exceções da leitura completam o futuro excepcionalmente.
+     *
+     * @param reader A leitura a ser executada.
+     * @param executor O executor onde a leitura será feita.
+     * @param <T> O tipo do conteúdo lido.
+     * @return Um futuro com o conteúdo lido.
+     */
+    private static <T> CompletableFuture<T> readAsync(Callable<T> reader, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return reader.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Escreve o arquivo temporário de um caminho se a coleção correspondente
+     * estiver suja ou se o manifesto anterior não tiver o checksum do arquivo.
+     * Caso contrário, apenas repete o checksum anterior.
+     *
+     * @param path O caminho do arquivo.
+     * @param dirty Indica se a coleção do arquivo mudou desde o último salvamento.
+     * @param previous O manifesto anterior, ou null se não houver.
+     * @param checksums Os checksums do novo manifesto, onde o do arquivo é registrado.
+     * @param written Os arquivos escritos, a serem substituídos no fim do salvamento.
+     * @param writer A escrita do arquivo, que retorna o checksum do conteúdo.
+     * @throws IOException Se ocorrer um erro ao escrever no arquivo.
+     */
+    private static void saveIfDirty(String path, boolean dirty, SaveManifest previous,
+                                    Map<Path, Long> checksums, List<Path> written,
+                                    CollectionWriter writer) throws IOException {
+        Long checksum = (previous == null) ? null : previous.checksumOf(Path.of(path));
+
+        if (dirty || checksum == null) {
+            checksum = writer.write();
+            written.add(Path.of(path));
+        }
+        checksums.put(Path.of(path), checksum);
+    }
+
+    /**
+     * Salva uma lista de mídias no formato JSON no arquivo temporário do caminho especificado.
+     * Cada mídia é serializada diretamente no arquivo através de um JsonWriter
+     * bufferizado, gerando o mesmo conteúdo que gson.toJson() da lista inteira.
+     *
+     * @param path O caminho do arquivo onde os dados serão salvos.
+     * @param medias A lista de mídias a ser salva.
+     * @param type A classe das mídias da lista.
+     * @param <T> O tipo das mídias.
+     * @return O checksum do conteúdo escrito.
+     * @throws IOException Se ocorrer um erro ao escrever no arquivo.
+     */
+    private static <T> long saveList(String path, List<T> medias, Class<T> type) throws IOException {
+
+        return AtomicFiles.writeTemp(Path.of(path), out -> {
+            JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.beginArray();
+            for (T media : medias)
+                gson.toJson(media, type, writer);
+            writer.endArray();
+            writer.flush();
+        });
+    }
+
+    /**
+     * Salva o mapa de anos registrados no formato JSON no arquivo temporário do caminho especificado.
      *
      * @param path O caminho do arquivo onde os dados serão salvos.
-     * @param json O conteúdo JSON a ser salvo.
+     * @param years O mapa de anos registrados.
+     * @return O checksum do conteúdo escrito.
      * @throws IOException Se ocorrer um erro ao escrever no arquivo.
      */
-    private static void saveFile(String path, String json) throws IOException {
+    private static long saveYears(String path, TreeMap<Integer, Integer> years) throws IOException {
+
+        return AtomicFiles.writeTemp(Path.of(path), out -> {
+            JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            gson.toJson(years, MediaAdapters.YEARS_TYPE, writer);
+            writer.flush();
+        });
+    }
 
-        FileWriter fileWriter = new FileWriter(path);
-        fileWriter.write(json);
-        fileWriter.close();
+    /**
+     * Lê uma lista de mídias do arquivo JSON do caminho especificado.
+     * As mídias são desserializadas uma a uma através de um JsonReader.
+     * Se o arquivo não existir ou estiver vazio, retorna uma lista vazia.
+     *
+     * @param path O caminho do arquivo a ser carregado.
+     * @param type A classe das mídias da lista.
+     * @param progress O contador do andamento da leitura, avisado a cada mídia lida.
+     * @param <T> O tipo das mídias.
+     * @return A lista de mídias lida.
+     * @throws IOException Se ocorrer um erro ao ler o arquivo.
+     */
+    private static <T> ArrayList<T> loadList(String path, Class<T> type, ProgressCounter progress)
+            throws IOException {
+        ArrayList<T> medias = new ArrayList<>();
+
+        try (JsonReader reader = gson.newJsonReader(loadFile(path, progress))) {
+            if (isEmpty(reader))
+                return medias;
+
+            reader.beginArray();
+            while (reader.hasNext()) {
+                medias.add(gson.fromJson(reader, type));
+                progress.parsed(1);
+            }
+            reader.endArray();
+        }
+        return medias;
     }
 
     /**
-     * Lê o conteudo do arquivo JSON do caminho especificado.
+     * Verifica se um documento JSON não possui conteúdo (arquivo vazio ou null).
+     *
+     * @param reader O leitor do documento.
+     * @return true se o documento estiver vazio, false caso contrário.
+     * @throws IOException Se ocorrer um erro ao ler o arquivo.
+     */
+    private static boolean isEmpty(JsonReader reader) throws IOException {
+        try {
+            if (reader.peek() != JsonToken.NULL)
+                return false;
+            reader.nextNull();
+            return true;
+        } catch (EOFException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Abre um leitor bufferizado para o arquivo JSON do caminho especificado.
+     * Antes, se o arquivo não conferir com o manifesto (salvamento interrompido),
+     * ele é trocado pelo seu backup, a versão do último salvamento concluído.
      * Se o arquivo não for encontrado, retorna um leitor de
      * uma String que representa uma lista vazia.
      *
      * @param path O caminho do arquivo a ser carregado.
+     * @param progress O contador do andamento da leitura, que conta os bytes lidos do arquivo.
      * @return Um leitor para o conteúdo do arquivo.
+     * @throws IOException Se ocorrer um erro ao abrir o arquivo.
      */
-    private static Reader loadFile(String path) {
+    private static Reader loadFile(String path, ProgressCounter progress) throws IOException {
+        SaveManifest manifest = SaveManifest.read(Path.of(MANIFESTPATH));
+        if (manifest != null)
+            AtomicFiles.restoreIfTorn(Path.of(path), manifest.checksumOf(Path.of(path)));
 
         try {
-            return new FileReader(path);
-        } catch (FileNotFoundException e) {
+            return new BufferedReader(new InputStreamReader(progress.open(Path.of(path)), StandardCharsets.UTF_8));
+        } catch (NoSuchFileException e) {
             return new StringReader("[]");
         }
     }
 
+    /**
+     * A classe ProgressCounter soma o andamento da leitura dos arquivos,
+     * feita em paralelo, e o repassa para quem o acompanha.
+     */
+    private static class ProgressCounter {
+        // Quem recebe o andamento da leitura
+        private final LoadProgress listener;
+        // Mídias lidas até agora
+        private final AtomicLong items;
+        // Bytes lidos até agora
+        private final AtomicLong bytesRead;
+        // Tamanho dos arquivos abertos até agora
+        private final AtomicLong totalBytes;
+
+        /**
+         * Construtor da classe ProgressCounter.
+         *
+         * @param listener Quem recebe o andamento da leitura.
+         */
+        ProgressCounter(LoadProgress listener) {
+            this.listener = listener;
+            this.items = new AtomicLong();
+            this.bytesRead = new AtomicLong();
+            this.totalBytes = new AtomicLong();
+        }
+
+        /**
+         * Abre um arquivo para leitura, somando o seu tamanho ao total
+         * e contando os bytes lidos dele.
+         *
+         * @param path O caminho do arquivo.
+         * @return Um fluxo de leitura do arquivo.
+         * @throws IOException Se o arquivo não existir ou não puder ser aberto.
+         */
+        InputStream open(Path path) throws IOException {
+            InputStream in = Files.newInputStream(path);
+            totalBytes.addAndGet(Files.size(path));
+
+            return new FilterInputStream(in) {
+                @Override
+                public int read() throws IOException {
+                    int value = super.read();
+                    if (value != -1)
+                        counted(1);
+                    return value;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int count = super.read(buffer, offset, length);
+                    if (count > 0)
+                        counted(count);
+                    return count;
+                }
+            };
+        }
+
+        /**
+         * Soma mídias lidas e informa o andamento.
+         *
+         * @param count A quantidade de mídias lidas.
+         */
+        void parsed(long count) {
+            listener.update(items.addAndGet(count), bytesRead.get(), totalBytes.get());
+        }
+
+        /**
+         * Soma bytes lidos.
+         *
+         * @param count A quantidade de bytes lidos.
+         */
+        private void counted(long count) {
+            bytesRead.addAndGet(count);
+        }
+    }
+
 }
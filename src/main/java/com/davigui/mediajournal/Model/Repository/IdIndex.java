@@ -0,0 +1,170 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import java.util.Collection;
+import java.util.function.ToIntFunction;
+
+/**
+ * A classe IdIndex é um índice de mídias indexado pelo ID (int primitivo).
+ * Usa endereçamento aberto com sondagem linear, evitando o boxing das chaves
+ * que um HashMap de Integer exigiria. Permite que a Library verifique a
+ * existência e busque mídias pelo ID em tempo constante.
+ *
+ * @param <T> O tipo de mídia indexada.
+ */
+class IdIndex<T> {
+    // Capacidade inicial da tabela (sempre potência de 2)
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Chaves (IDs) da tabela
+    private int[] keys;
+    // Valores da tabela. Uma posição nula indica que ela está livre
+    private Object[] values;
+    // Quantidade de entradas no índice
+    private int size;
+
+    /**
+     * Construtor da classe IdIndex.
+     * Inicializa a tabela com a capacidade inicial.
+     */
+    IdIndex() {
+        this.keys = new int[INITIAL_CAPACITY];
+        this.values = new Object[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Verifica se existe alguma mídia com o ID dado.
+     *
+     * @param id O ID a ser verificado.
+     * @return true se o ID estiver indexado, false caso contrário.
+     */
+    boolean containsKey(int id) {
+        return values[indexOf(id)] != null;
+    }
+
+    /**
+     * Obtém a mídia associada ao ID dado.
+     *
+     * @param id O ID a ser buscado.
+     * @return A mídia indexada ou null se o ID não estiver indexado.
+     */
+    @SuppressWarnings("unchecked")
+    T get(int id) {
+        return (T) values[indexOf(id)];
+    }
+
+    /**
+     * Indexa uma mídia pelo ID. Se o ID já estiver indexado,
+     * a mídia anterior é mantida.
+     *
+     * @param id    O ID da mídia.
+     * @param media A mídia a ser indexada.
+     */
+    void put(int id, T media) {
+        int slot = indexOf(id);
+        if (values[slot] != null)
+            return;
+
+        keys[slot] = id;
+        values[slot] = media;
+        if (++size * 4 > values.length * 3)
+            resize(values.length * 2);
+    }
+
+    /**
+     * Remove o ID do índice, apenas se ele estiver associado à mídia dada.
+     * Utiliza deslocamento para trás, dispensando marcadores de remoção.
+     *
+     * @param id    O ID da mídia.
+     * @param media A mídia a ser removida.
+     */
+    void remove(int id, T media) {
+        int slot = indexOf(id);
+        if (values[slot] != media)
+            return;
+
+        int mask = values.length - 1;
+        int next = (slot + 1) & mask;
+        while (values[next] != null) {
+            int home = mix(keys[next]) & mask;
+            // Move a entrada se a posição livre estiver entre sua posição ideal e a atual
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[slot] = null;
+        --size;
+    }
+
+    /**
+     * Reconstrói o índice a partir de uma coleção de mídias.
+     *
+     * @param medias A coleção de mídias (pode ser nula).
+     * @param idOf   Função que extrai o ID de uma mídia.
+     */
+    void rebuild(Collection<? extends T> medias, ToIntFunction<? super T> idOf) {
+        int capacity = INITIAL_CAPACITY;
+        int expected = (medias == null) ? 0 : medias.size();
+        while (capacity * 3 < expected * 4)
+            capacity *= 2;
+
+        keys = new int[capacity];
+        values = new Object[capacity];
+        size = 0;
+
+        if (medias != null)
+            for (T media : medias)
+                put(idOf.applyAsInt(media), media);
+    }
+
+    /**
+     * Procura a posição do ID na tabela. Se o ID não estiver indexado,
+     * retorna a posição livre onde ele seria inserido.
+     *
+     * @param id O ID a ser procurado.
+     * @return A posição na tabela.
+     */
+    private int indexOf(int id) {
+        int mask = values.length - 1;
+        int slot = mix(id) & mask;
+        while (values[slot] != null && keys[slot] != id)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * Dobra a capacidade da tabela, reinserindo todas as entradas.
+     *
+     * @param capacity A nova capacidade.
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        keys = new int[capacity];
+        values = new Object[capacity];
+        size = 0;
+
+        for (int i = 0; i < oldValues.length; ++i) {
+            if (oldValues[i] != null)
+                put(oldKeys[i], (T) oldValues[i]);
+        }
+    }
+
+    /**
+     * Espalha os bits do ID, já que hashCode() de Strings somado ao
+     * ano tende a concentrar valores próximos.
+     *
+     * @param id O ID original.
+     * @return O hash espalhado.
+     */
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
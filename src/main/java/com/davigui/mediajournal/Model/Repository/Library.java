@@ -1,17 +1,31 @@
 package com.davigui.mediajournal.Model.Repository;
 
+import com.davigui.mediajournal.Model.Enums.Genres;
 import com.davigui.mediajournal.Model.Exceptions.MediaAlreadyExistsException;
 import com.davigui.mediajournal.Model.Medias.Book;
+import com.davigui.mediajournal.Model.Medias.Media;
 import com.davigui.mediajournal.Model.Medias.Movie;
 import com.davigui.mediajournal.Model.Medias.Series;
 
 
 import java.util.ArrayList;
-import java.util.TreeMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 /**
  * A classe Library representa uma biblioteca que gerencia listas de livros,
  * filmes e séries, além de registrar os anos associados às mídias cadastradas.
+ * <p>
+ * Não é segura para várias threads: deve ser alterada e fotografada para salvamento
+ * sempre pela mesma thread (por exemplo, a thread do JavaFX), inclusive as alterações
+ * feitas nas próprias mídias, que passam por update(). Para várias threads, use a ConcurrentLibrary.
  */
 public class Library {
     // Lista de livros cadastrados na biblioteca
@@ -20,102 +34,269 @@ public class Library {
     private ArrayList<Movie> movieList;
     // Lista de séries cadastradas na biblioteca
     private ArrayList<Series> seriesList;
-    // Mapa de anos registrados na biblioteca (ordenado pelo número do ano)
-    private TreeMap<Integer, Integer> yearsRegistered;
+    // Quantidade de mídias por ano registrado na biblioteca
+    private final YearHistogram yearsRegistered;
+    // Indica se livros foram cadastrados ou removidos desde o último salvamento
+    // (volatile: pode ser restaurado por um salvamento em segundo plano que falhou)
+    private volatile boolean booksChanged;
+    // Indica se filmes foram cadastrados ou removidos desde o último salvamento
+    private volatile boolean moviesChanged;
+    // Indica se séries foram cadastradas ou removidas desde o último salvamento
+    private volatile boolean seriesChanged;
+    // Indica se o histograma de anos registrados mudou desde o último salvamento
+    private volatile boolean yearsChanged;
+    // Versão da biblioteca, avançada a cada cadastro, remoção ou mudança nos anos registrados
+    private final AtomicLong version;
+    // Cópia imutável da lista de livros, compartilhada até a próxima mudança (null se desatualizada)
+    private List<Book> bookSnapshot;
+    // Cópia imutável da lista de filmes, compartilhada até a próxima mudança (null se desatualizada)
+    private List<Movie> movieSnapshot;
+    // Cópia imutável da lista de séries, compartilhada até a próxima mudança (null se desatualizada)
+    private List<Series> seriesSnapshot;
+    // Log onde as alterações são registradas assim que acontecem (null se não houver)
+    private MutationLog mutationLog;
+    // Ação executada a cada cadastro, remoção ou alteração de mídia (null se não houver)
+    private Runnable changeListener;
+    // Índice de livros por ID, mantido em sincronia com a lista de livros
+    private final IdIndex<Book> bookIndex;
+    // Índice de filmes por ID, mantido em sincronia com a lista de filmes
+    private final IdIndex<Movie> movieIndex;
+    // Índice de séries por ID, mantido em sincronia com a lista de séries
+    private final IdIndex<Series> seriesIndex;
+    // Índices de livros por ano e gênero
+    private final SecondaryIndex<Book> bookAttributes;
+    // Índices de filmes por ano e gênero
+    private final SecondaryIndex<Movie> movieAttributes;
+    // Índices de séries por ano e gênero
+    private final SecondaryIndex<Series> seriesAttributes;
+    // Índice de trigramas para busca de livros por título
+    private final TrigramIndex<Book> bookTitleIndex;
+    // Índice de trigramas para busca de livros por autor
+    private final TrigramIndex<Book> bookAuthorIndex;
+    // Índice de trigramas para busca de filmes por título
+    private final TrigramIndex<Movie> movieTitleIndex;
+    // Índice de trigramas para busca de filmes por diretor
+    private final TrigramIndex<Movie> movieDirectorIndex;
+    // Índice de trigramas para busca de filmes por ator no elenco
+    private final TrigramIndex<Movie> movieCastIndex;
+    // Índice de trigramas para busca de séries por título
+    private final TrigramIndex<Series> seriesTitleIndex;
+    // Índice de trigramas para busca de séries por ator no elenco
+    private final TrigramIndex<Series> seriesCastIndex;
+    // Textos compartilhados entre as mídias (elenco, plataformas, autores, editoras e diretores)
+    private final StringPool strings;
 
     /**
      * Construtor da classe Library.
-     * Inicializa as listas de livros, filmes, séries e o
-     * mapa de anos.
+     * Inicializa as listas de livros, filmes, séries, o
+     * histograma de anos, a versão, os índices por ID, os índices por ano e gênero
+     * os índices de trigramas para as buscas textuais e o conjunto de textos compartilhados.
      */
     public Library() {
         this.bookList = new ArrayList<>();
         this.movieList = new ArrayList<>();
         this.seriesList = new ArrayList<>();
-        this.yearsRegistered = new TreeMap<>();
+        this.yearsRegistered = new YearHistogram();
+        this.version = new AtomicLong();
+        this.bookIndex = new IdIndex<>();
+        this.movieIndex = new IdIndex<>();
+        this.seriesIndex = new IdIndex<>();
+        this.bookAttributes = new SecondaryIndex<>();
+        this.movieAttributes = new SecondaryIndex<>();
+        this.seriesAttributes = new SecondaryIndex<>();
+        this.bookTitleIndex = new TrigramIndex<>(book -> Collections.singletonList(book.getTitleKey()));
+        this.bookAuthorIndex = new TrigramIndex<>(book -> Collections.singletonList(book.getAuthorKey()));
+        this.movieTitleIndex = new TrigramIndex<>(movie -> Collections.singletonList(movie.getTitleKey()));
+        this.movieDirectorIndex = new TrigramIndex<>(movie -> Collections.singletonList(movie.getDirectionKey()));
+        this.movieCastIndex = new TrigramIndex<>(Movie::getCastKeys);
+        this.seriesTitleIndex = new TrigramIndex<>(series -> Collections.singletonList(series.getTitleKey()));
+        this.seriesCastIndex = new TrigramIndex<>(Series::getCastKeys);
+        this.strings = new StringPool();
     }
 
     /**
      * Verifica se um livro já está cadastrado na biblioteca.
-     * Não utiliza o equals() de Object. Em vez disso, compara os IDs.
+     * Não utiliza o equals() de Object. Em vez disso, consulta o índice de IDs.
      *
      * @param book O livro a ser verificado.
      * @throws MediaAlreadyExistsException Se o livro já estiver cadastrado.
      */
     public void exists(Book book) throws MediaAlreadyExistsException {
-        for (Book bookE : bookList) {
-            if (book.getId() == bookE.getId())
-                throw new MediaAlreadyExistsException("Esse livro já foi cadastrado!");
-        }
+        if (bookIndex.containsKey(book.getId()))
+            throw new MediaAlreadyExistsException("Esse livro já foi cadastrado!");
     }
 
     /**
      * Verifica se um filme já está cadastrado na biblioteca.
-     * Não utiliza o equals() de Object. Em vez disso, compara os IDs.
+     * Não utiliza o equals() de Object. Em vez disso, consulta o índice de IDs.
      *
      * @param movie O filme a ser verificado.
      * @throws MediaAlreadyExistsException Se o filme já estiver cadastrado.
      */
     public void exists(Movie movie) throws MediaAlreadyExistsException {
-        for (Movie movieE : movieList) {
-            if (movie.getId() == movieE.getId())
-                throw new MediaAlreadyExistsException("Esse filme já foi cadastrado!");
-        }
+        if (movieIndex.containsKey(movie.getId()))
+            throw new MediaAlreadyExistsException("Esse filme já foi cadastrado!");
     }
 
     /**
      * Verifica se uma série já está cadastrada na biblioteca.
-     * Não utiliza o equals() de Object. Em vez disso, compara os IDs.
+     * Não utiliza o equals() de Object. Em vez disso, consulta o índice de IDs.
      *
      * @param series A série a ser verificada.
      * @throws MediaAlreadyExistsException Se a série já estiver cadastrada.
      */
     public void exists(Series series) throws MediaAlreadyExistsException {
-        for (Series seriesE : seriesList) {
-            if (series.getId() == seriesE.getId())
-                throw new MediaAlreadyExistsException("Essa série já foi cadastrada!");
-        }
+        if (seriesIndex.containsKey(series.getId()))
+            throw new MediaAlreadyExistsException("Essa série já foi cadastrada!");
     }
 
     /**
      * Adiciona um livro à lista de livros da biblioteca.
+     * Os textos repetidos da mídia passam a usar as instâncias compartilhadas da biblioteca.
      *
      * @param book O livro a ser adicionado.
      */
     public void add(Book book) {
+        book.shareStrings(strings::share);
         bookList.add(book);
+        bookListChanged();
+        index(book);
+        if (mutationLog != null)
+            mutationLog.put(book);
     }
 
     /**
      * Adiciona um filme à lista de filmes da biblioteca.
+     * Os textos repetidos da mídia passam a usar as instâncias compartilhadas da biblioteca.
      *
      * @param movie O filme a ser adicionado.
      */
     public void add(Movie movie) {
+        movie.shareStrings(strings::share);
         movieList.add(movie);
+        movieListChanged();
+        index(movie);
+        if (mutationLog != null)
+            mutationLog.put(movie);
     }
 
     /**
      * Adiciona uma série à lista de séries da biblioteca.
+     * Os textos repetidos da mídia passam a usar as instâncias compartilhadas da biblioteca.
      *
      * @param series A série a ser adicionada.
      */
     public void add(Series series) {
+        series.shareStrings(strings::share);
         seriesList.add(series);
+        seriesListChanged();
+        index(series);
+        if (mutationLog != null)
+            mutationLog.put(series);
     }
 
     /**
-     * Adiciona um ano ao mapa de anos registrados na biblioteca com ocorrência 1.
+     * Cadastra um livro e uma ocorrência do seu ano, se ainda não estiver cadastrado.
+     * A verificação e o cadastro formam uma única operação, que as variantes
+     * concorrentes da biblioteca executam de forma atômica.
+     *
+     * @param book O livro a ser cadastrado.
+     * @throws MediaAlreadyExistsException Se o livro já estiver cadastrado.
+     */
+    public void addIfAbsent(Book book) throws MediaAlreadyExistsException {
+        exists(book);
+        add(book);
+        addYear(book.getYear());
+    }
+
+    /**
+     * Remove um livro e uma ocorrência do seu ano, se estiver cadastrado.
+     * A verificação e a remoção formam uma única operação, que as variantes
+     * concorrentes da biblioteca executam de forma atômica.
+     *
+     * @param book O livro a ser removido.
+     * @return true se o livro foi removido, false se não estava cadastrado.
+     */
+    public boolean removeIfPresent(Book book) {
+        if (findBook(book.getId()) != book)
+            return false;
+
+        remove(book);
+        removeYear(book.getYear());
+        return true;
+    }
+
+    /**
+     * Cadastra um filme e uma ocorrência do seu ano, se ainda não estiver cadastrado.
+     * A verificação e o cadastro formam uma única operação, que as variantes
+     * concorrentes da biblioteca executam de forma atômica.
+     *
+     * @param movie O filme a ser cadastrado.
+     * @throws MediaAlreadyExistsException Se o filme já estiver cadastrado.
+     */
+    public void addIfAbsent(Movie movie) throws MediaAlreadyExistsException {
+        exists(movie);
+        add(movie);
+        addYear(movie.getYear());
+    }
+
+    /**
+     * Remove um filme e uma ocorrência do seu ano, se estiver cadastrado.
+     * A verificação e a remoção formam uma única operação, que as variantes
+     * concorrentes da biblioteca executam de forma atômica.
+     *
+     * @param movie O filme a ser removido.
+     * @return true se o filme foi removido, false se não estava cadastrado.
+     */
+    public boolean removeIfPresent(Movie movie) {
+        if (findMovie(movie.getId()) != movie)
+            return false;
+
+        remove(movie);
+        removeYear(movie.getYear());
+        return true;
+    }
+
+    /**
+     * Cadastra uma série e uma ocorrência do seu ano, se ainda não estiver cadastrada.
+     * A verificação e o cadastro formam uma única operação, que as variantes
+     * concorrentes da biblioteca executam de forma atômica.
+     *
+     * @param series A série a ser cadastrada.
+     * @throws MediaAlreadyExistsException Se a série já estiver cadastrada.
+     */
+    public void addIfAbsent(Series series) throws MediaAlreadyExistsException {
+        exists(series);
+        add(series);
+        addYear(series.getYear());
+    }
+
+    /**
+     * Remove uma série e uma ocorrência do seu ano, se estiver cadastrada.
+     * A verificação e a remoção formam uma única operação, que as variantes
+     * concorrentes da biblioteca executam de forma atômica.
+     *
+     * @param series A série a ser removida.
+     * @return true se a série foi removida, false se não estava cadastrada.
+     */
+    public boolean removeIfPresent(Series series) {
+        if (findSeries(series.getId()) != series)
+            return false;
+
+        remove(series);
+        removeYear(series.getYear());
+        return true;
+    }
+
+    /**
+     * Adiciona um ano ao histograma de anos registrados na biblioteca com ocorrência 1.
      * Se o ano já existir, sua ocorrência é incrementada em 1.
      *
      * @param year O ano a ser adicionado.
      */
     public void addYear(int year) {
-        if (yearsRegistered.containsKey(year)) {
-            yearsRegistered.put(year, yearsRegistered.get(year) + 1);
-        } else{
-            yearsRegistered.put(year, 1);
-        }
+        yearsRegistered.add(year);
+        histogramChanged();
     }
 
     /**
@@ -124,7 +305,12 @@ public class Library {
      * @param book O livro a ser removido.
      */
     public void remove(Book book) {
-        bookList.remove(book);
+        if (bookList.remove(book)) {
+            bookListChanged();
+            unindex(book);
+            if (mutationLog != null)
+                mutationLog.remove(book);
+        }
     }
 
     /**
@@ -133,7 +319,12 @@ public class Library {
      * @param movie O filme a ser removido.
      */
     public void remove(Movie movie) {
-        movieList.remove(movie);
+        if (movieList.remove(movie)) {
+            movieListChanged();
+            unindex(movie);
+            if (mutationLog != null)
+                mutationLog.remove(movie);
+        }
     }
 
     /**
@@ -142,25 +333,579 @@ public class Library {
      * @param series A série a ser removida.
      */
     public void remove(Series series) {
-        seriesList.remove(series);
+        if (seriesList.remove(series)) {
+            seriesListChanged();
+            unindex(series);
+            if (mutationLog != null)
+                mutationLog.remove(series);
+        }
     }
 
     /**
-     * Remove uma ocorrência do ano no mapa de anos registrados na biblioteca.
+     * Remove uma ocorrência do ano no histograma de anos registrados na biblioteca.
      * Se após isso ano não tiver mais associações, ele será completamente removido.
      *
      * @param year O ano a ser removido.
      */
     public void removeYear(int year) {
-        if (yearsRegistered.containsKey(year)) {
-            yearsRegistered.put(year, yearsRegistered.get(year) - 1);
-            if (yearsRegistered.get(year) == 0)
-                yearsRegistered.remove(year);
+        if (yearsRegistered.remove(year))
+            histogramChanged();
+    }
+
+    /**
+     * Busca um livro pelo ID em tempo constante, através do índice de IDs.
+     *
+     * @param id O ID do livro.
+     * @return O livro com o ID dado ou null se não estiver cadastrado.
+     */
+    public Book findBook(int id) {
+        return bookIndex.get(id);
+    }
+
+    /**
+     * Busca um filme pelo ID em tempo constante, através do índice de IDs.
+     *
+     * @param id O ID do filme.
+     * @return O filme com o ID dado ou null se não estiver cadastrado.
+     */
+    public Movie findMovie(int id) {
+        return movieIndex.get(id);
+    }
+
+    /**
+     * Busca uma série pelo ID em tempo constante, através do índice de IDs.
+     *
+     * @param id O ID da série.
+     * @return A série com o ID dado ou null se não estiver cadastrada.
+     */
+    public Series findSeries(int id) {
+        return seriesIndex.get(id);
+    }
+
+    /**
+     * Define o ano de um livro cadastrado, mantendo os índices e o mapa
+     * de anos registrados atualizados.
+     *
+     * @param book O livro a ser alterado.
+     * @param year O novo ano do livro.
+     */
+    public void setYear(Book book, int year) {
+        if (mutationLog != null)
+            mutationLog.remove(book);
+        removeYear(book.getYear());
+        reindex(book, bookIndex, bookAttributes, media -> media.setYear(year));
+        addYear(year);
+        update(book);
+    }
+
+    /**
+     * Define o gênero de um livro cadastrado, mantendo os índices atualizados.
+     *
+     * @param book O livro a ser alterado.
+     * @param genre O novo gênero do livro.
+     */
+    public void setGenre(Book book, Genres genre) {
+        reindex(book, bookIndex, bookAttributes, media -> media.setGenre(genre));
+        update(book);
+    }
+
+    /**
+     * Define o ano de um filme cadastrado, mantendo os índices e o mapa
+     * de anos registrados atualizados.
+     *
+     * @param movie O filme a ser alterado.
+     * @param year O novo ano do filme.
+     * @throws MediaAlreadyExistsException Se já houver um filme com o mesmo título no novo ano.
+     */
+    public void setYear(Movie movie, int year) throws MediaAlreadyExistsException {
+        int id = movie.getIdForYear(year);
+        if (id != movie.getId() && movieIndex.containsKey(id))
+            throw new MediaAlreadyExistsException("Esse filme já foi cadastrado!");
+
+        if (mutationLog != null)
+            mutationLog.remove(movie);
+        removeYear(movie.getYear());
+        reindex(movie, movieIndex, movieAttributes, media -> media.setYear(year));
+        addYear(year);
+        update(movie);
+    }
+
+    /**
+     * Define o gênero de um filme cadastrado, mantendo os índices atualizados.
+     *
+     * @param movie O filme a ser alterado.
+     * @param genre O novo gênero do filme.
+     */
+    public void setGenre(Movie movie, Genres genre) {
+        reindex(movie, movieIndex, movieAttributes, media -> media.setGenre(genre));
+        update(movie);
+    }
+
+    /**
+     * Define o ano de uma série cadastrada, mantendo os índices e o mapa
+     * de anos registrados atualizados.
+     *
+     * @param series A série a ser alterada.
+     * @param year O novo ano da série.
+     * @throws MediaAlreadyExistsException Se já houver uma série com o mesmo título no novo ano.
+     */
+    public void setYear(Series series, int year) throws MediaAlreadyExistsException {
+        int id = series.getIdForYear(year);
+        if (id != series.getId() && seriesIndex.containsKey(id))
+            throw new MediaAlreadyExistsException("Essa série já foi cadastrada!");
+
+        if (mutationLog != null)
+            mutationLog.remove(series);
+        removeYear(series.getYear());
+        reindex(series, seriesIndex, seriesAttributes, media -> media.setYear(year));
+        addYear(year);
+        update(series);
+    }
+
+    /**
+     * Define o gênero de uma série cadastrada, mantendo os índices atualizados.
+     *
+     * @param series A série a ser alterada.
+     * @param genre O novo gênero da série.
+     */
+    public void setGenre(Series series, Genres genre) {
+        reindex(series, seriesIndex, seriesAttributes, media -> media.setGenre(genre));
+        update(series);
+    }
+
+    /**
+     * Registra no log que um livro cadastrado foi alterado (avaliação, review, data...).
+     * Deve ser chamado pelos serviços depois de cada alteração feita diretamente no livro.
+     *
+     * @param book O livro alterado.
+     */
+    public void update(Book book) {
+        if (mutationLog != null)
+            mutationLog.put(book);
+        notifyChange();
+    }
+
+    /**
+     * Registra no log que um filme cadastrado foi alterado (avaliação, review, data...).
+     * Deve ser chamado pelos serviços depois de cada alteração feita diretamente no filme.
+     *
+     * @param movie O filme alterado.
+     */
+    public void update(Movie movie) {
+        if (mutationLog != null)
+            mutationLog.put(movie);
+        notifyChange();
+    }
+
+    /**
+     * Registra no log que uma série cadastrada ou suas temporadas foram alteradas.
+     * Deve ser chamado pelos serviços depois de cada alteração feita diretamente na série.
+     *
+     * @param series A série alterada.
+     */
+    public void update(Series series) {
+        if (mutationLog != null)
+            mutationLog.put(series);
+        notifyChange();
+    }
+
+    /**
+     * Aplica uma alteração a um livro cadastrado e a registra no log, como update().
+     * É a forma de os serviços alterarem o livro: nesta classe a alteração é feita
+     * na thread que usa a biblioteca; a ConcurrentLibrary o altera sob o lock de escrita.
+     *
+     * @param book O livro a ser alterado.
+     * @param change A alteração.
+     */
+    public void update(Book book, Consumer<? super Book> change) {
+        change.accept(book);
+        update(book);
+    }
+
+    /**
+     * Aplica uma alteração a um filme cadastrado e a registra no log, como update().
+     * É a forma de os serviços alterarem o filme: nesta classe a alteração é feita
+     * na thread que usa a biblioteca; a ConcurrentLibrary o altera sob o lock de escrita.
+     *
+     * @param movie O filme a ser alterado.
+     * @param change A alteração.
+     */
+    public void update(Movie movie, Consumer<? super Movie> change) {
+        change.accept(movie);
+        update(movie);
+    }
+
+    /**
+     * Aplica uma alteração a uma série cadastrada e a registra no log, como update().
+     * É a forma de os serviços alterarem a série: nesta classe a alteração é feita
+     * na thread que usa a biblioteca; a ConcurrentLibrary a altera sob o lock de escrita.
+     *
+     * @param series A série a ser alterada.
+     * @param change A alteração.
+     */
+    public void update(Series series, Consumer<? super Series> change) {
+        change.accept(series);
+        update(series);
+    }
+
+    /**
+     * Aplica na biblioteca as alterações reaplicadas do log, percorrendo cada lista uma única vez.
+     * As mídias alteradas são substituídas na mesma posição, as removidas saem da lista
+     * e as cadastradas são adicionadas ao fim, mantendo o histograma de anos registrados atualizado.
+     *
+     * @param books As alterações de livros.
+     * @param movies As alterações de filmes.
+     * @param series As alterações de séries.
+     */
+    void replay(MutationLog.Changes<Book> books, MutationLog.Changes<Movie> movies,
+                MutationLog.Changes<Series> series) {
+        if (replay(bookList, books, this::index, this::unindex))
+            bookListChanged();
+        if (replay(movieList, movies, this::index, this::unindex))
+            movieListChanged();
+        if (replay(seriesList, series, this::index, this::unindex))
+            seriesListChanged();
+    }
+
+    /**
+     * Aplica as alterações reaplicadas do log em uma lista da biblioteca.
+     *
+     * @param list A lista da biblioteca.
+     * @param changes As alterações do tipo da lista.
+     * @param index A operação que insere uma mídia nos índices do tipo.
+     * @param unindex A operação que retira uma mídia dos índices do tipo.
+     * @param <T> O tipo das mídias.
+     * @return true se a lista foi alterada.
+     */
+    private <T extends Media> boolean replay(ArrayList<T> list, MutationLog.Changes<T> changes,
+                                             Consumer<T> index, Consumer<T> unindex) {
+        if (changes.isEmpty())
+            return false;
+
+        Map<Integer, T> added = new LinkedHashMap<>(changes.getPut());
+        boolean removed = false;
+        for (int i = 0; i < list.size(); ++i) {
+            T current = list.get(i);
+            int id = current.getId();
+            if (changes.getRemoved().contains(id)) {
+                unindex.accept(current);
+                removeYear(current.getYear());
+                list.set(i, null);
+                removed = true;
+            } else if (added.containsKey(id)) {
+                T media = added.remove(id);
+                unindex.accept(current);
+                media.shareStrings(strings::share);
+                list.set(i, media);
+                index.accept(media);
+                replaceYear(current, media);
+            }
+        }
+        if (removed)
+            list.removeIf(Objects::isNull);
+
+        for (T media : added.values()) {
+            media.shareStrings(strings::share);
+            list.add(media);
+            index.accept(media);
+            addYear(media.getYear());
+        }
+        return true;
+    }
+
+    /**
+     * Troca o ano de uma mídia substituída no histograma de anos registrados, se ele mudou.
+     *
+     * @param current A mídia substituída.
+     * @param media A mídia nova.
+     */
+    private void replaceYear(Media current, Media media) {
+        if (current.getYear() != media.getYear()) {
+            removeYear(current.getYear());
+            addYear(media.getYear());
         }
     }
 
+    /**
+     * Insere um livro nos índices por ID, ano, gênero e texto.
+     *
+     * @param book O livro.
+     */
+    private void index(Book book) {
+        bookIndex.put(book.getId(), book);
+        bookAttributes.add(book);
+        bookTitleIndex.add(book);
+        bookAuthorIndex.add(book);
+    }
+
+    /**
+     * Insere um filme nos índices por ID, ano, gênero e texto.
+     *
+     * @param movie O filme.
+     */
+    private void index(Movie movie) {
+        movieIndex.put(movie.getId(), movie);
+        movieAttributes.add(movie);
+        movieTitleIndex.add(movie);
+        movieDirectorIndex.add(movie);
+        movieCastIndex.add(movie);
+    }
+
+    /**
+     * Insere uma série nos índices por ID, ano, gênero e texto.
+     *
+     * @param series A série.
+     */
+    private void index(Series series) {
+        seriesIndex.put(series.getId(), series);
+        seriesAttributes.add(series);
+        seriesTitleIndex.add(series);
+        seriesCastIndex.add(series);
+    }
+
+    /**
+     * Retira um livro dos índices por ID, ano, gênero e texto.
+     *
+     * @param book O livro.
+     */
+    private void unindex(Book book) {
+        bookIndex.remove(book.getId(), book);
+        bookAttributes.remove(book);
+        bookTitleIndex.remove(book);
+        bookAuthorIndex.remove(book);
+    }
+
+    /**
+     * Retira um filme dos índices por ID, ano, gênero e texto.
+     *
+     * @param movie O filme.
+     */
+    private void unindex(Movie movie) {
+        movieIndex.remove(movie.getId(), movie);
+        movieAttributes.remove(movie);
+        movieTitleIndex.remove(movie);
+        movieDirectorIndex.remove(movie);
+        movieCastIndex.remove(movie);
+    }
+
+    /**
+     * Retira uma série dos índices por ID, ano, gênero e texto.
+     *
+     * @param series A série.
+     */
+    private void unindex(Series series) {
+        seriesIndex.remove(series.getId(), series);
+        seriesAttributes.remove(series);
+        seriesTitleIndex.remove(series);
+        seriesCastIndex.remove(series);
+    }
+
+    /**
+     * Aplica uma alteração a uma mídia cadastrada, retirando-a dos índices antes
+     * e reinserindo-a depois, já que o ID, o ano e o gênero podem mudar.
+     *
+     * @param media A mídia a ser alterada.
+     * @param ids O índice por ID do tipo da mídia.
+     * @param attributes Os índices por ano e gênero do tipo da mídia.
+     * @param change A alteração a ser aplicada.
+     * @param <T> O tipo da mídia.
+     */
+    private <T extends Media> void reindex(T media, IdIndex<T> ids, SecondaryIndex<T> attributes,
+                                           Consumer<T> change) {
+        ids.remove(media.getId(), media);
+        attributes.remove(media);
+        change.accept(media);
+        ids.put(media.getId(), media);
+        attributes.add(media);
+    }
+
+    /**
+     * Obtém o índice de livros por ano, ordenado de forma crescente.
+     * As listas seguem a ordem de cadastro e não devem ser modificadas.
+     *
+     * @return Um mapa ordenado de ano para os livros daquele ano.
+     */
+    public NavigableMap<Integer, List<Book>> getBooksByYear() {
+        return bookAttributes.byYear();
+    }
+
+    /**
+     * Obtém o índice de livros por gênero.
+     * As listas seguem a ordem de cadastro e não devem ser modificadas.
+     *
+     * @return Um mapa de gênero para os livros daquele gênero.
+     */
+    public Map<Genres, List<Book>> getBooksByGenre() {
+        return bookAttributes.byGenre();
+    }
+
+    /**
+     * Obtém o índice de filmes por ano, ordenado de forma crescente.
+     * As listas seguem a ordem de cadastro e não devem ser modificadas.
+     *
+     * @return Um mapa ordenado de ano para os filmes daquele ano.
+     */
+    public NavigableMap<Integer, List<Movie>> getMoviesByYear() {
+        return movieAttributes.byYear();
+    }
+
+    /**
+     * Obtém o índice de filmes por gênero.
+     * As listas seguem a ordem de cadastro e não devem ser modificadas.
+     *
+     * @return Um mapa de gênero para os filmes daquele gênero.
+     */
+    public Map<Genres, List<Movie>> getMoviesByGenre() {
+        return movieAttributes.byGenre();
+    }
+
+    /**
+     * Obtém o índice de séries por ano, ordenado de forma crescente.
+     * As listas seguem a ordem de cadastro e não devem ser modificadas.
+     *
+     * @return Um mapa ordenado de ano para as séries daquele ano.
+     */
+    public NavigableMap<Integer, List<Series>> getSeriesByYear() {
+        return seriesAttributes.byYear();
+    }
+
+    /**
+     * Obtém o índice de séries por gênero.
+     * As listas seguem a ordem de cadastro e não devem ser modificadas.
+     *
+     * @return Um mapa de gênero para as séries daquele gênero.
+     */
+    public Map<Genres, List<Series>> getSeriesByGenre() {
+        return seriesAttributes.byGenre();
+    }
+
+    /**
+     * Obtém os livros de um ano, consultando apenas o balde do ano no índice.
+     *
+     * @param year O ano.
+     * @return Uma lista somente leitura, na ordem de cadastro (vazia se não houver).
+     */
+    public List<Book> getBooksOfYear(int year) {
+        return bookAttributes.ofYear(year);
+    }
+
+    /**
+     * Obtém os livros de um gênero, consultando apenas o balde do gênero no índice.
+     *
+     * @param genre O gênero.
+     * @return Uma lista somente leitura, na ordem de cadastro (vazia se não houver).
+     */
+    public List<Book> getBooksOfGenre(Genres genre) {
+        return bookAttributes.ofGenre(genre);
+    }
+
+    /**
+     * Obtém os filmes de um ano, consultando apenas o balde do ano no índice.
+     *
+     * @param year O ano.
+     * @return Uma lista somente leitura, na ordem de cadastro (vazia se não houver).
+     */
+    public List<Movie> getMoviesOfYear(int year) {
+        return movieAttributes.ofYear(year);
+    }
+
+    /**
+     * Obtém os filmes de um gênero, consultando apenas o balde do gênero no índice.
+     *
+     * @param genre O gênero.
+     * @return Uma lista somente leitura, na ordem de cadastro (vazia se não houver).
+     */
+    public List<Movie> getMoviesOfGenre(Genres genre) {
+        return movieAttributes.ofGenre(genre);
+    }
+
+    /**
+     * Obtém as séries de um ano, consultando apenas o balde do ano no índice.
+     *
+     * @param year O ano.
+     * @return Uma lista somente leitura, na ordem de cadastro (vazia se não houver).
+     */
+    public List<Series> getSeriesOfYear(int year) {
+        return seriesAttributes.ofYear(year);
+    }
+
+    /**
+     * Obtém as séries de um gênero, consultando apenas o balde do gênero no índice.
+     *
+     * @param genre O gênero.
+     * @return Uma lista somente leitura, na ordem de cadastro (vazia se não houver).
+     */
+    public List<Series> getSeriesOfGenre(Genres genre) {
+        return seriesAttributes.ofGenre(genre);
+    }
+
+    /**
+     * Obtém o índice de trigramas de livros por título.
+     *
+     * @return O índice de busca textual por título.
+     */
+    public TextIndex<Book> getBookTitleIndex() {
+        return bookTitleIndex;
+    }
+
+    /**
+     * Obtém o índice de trigramas de livros por autor.
+     *
+     * @return O índice de busca textual por autor.
+     */
+    public TextIndex<Book> getBookAuthorIndex() {
+        return bookAuthorIndex;
+    }
+
+    /**
+     * Obtém o índice de trigramas de filmes por título.
+     *
+     * @return O índice de busca textual por título.
+     */
+    public TextIndex<Movie> getMovieTitleIndex() {
+        return movieTitleIndex;
+    }
+
+    /**
+     * Obtém o índice de trigramas de filmes por diretor.
+     *
+     * @return O índice de busca textual por diretor.
+     */
+    public TextIndex<Movie> getMovieDirectorIndex() {
+        return movieDirectorIndex;
+    }
+
+    /**
+     * Obtém o índice de trigramas de filmes por elenco.
+     *
+     * @return O índice de busca textual por elenco.
+     */
+    public TextIndex<Movie> getMovieCastIndex() {
+        return movieCastIndex;
+    }
+
+    /**
+     * Obtém o índice de trigramas de séries por título.
+     *
+     * @return O índice de busca textual por título.
+     */
+    public TextIndex<Series> getSeriesTitleIndex() {
+        return seriesTitleIndex;
+    }
+
+    /**
+     * Obtém o índice de trigramas de séries por elenco.
+     *
+     * @return O índice de busca textual por elenco.
+     */
+    public TextIndex<Series> getSeriesCastIndex() {
+        return seriesCastIndex;
+    }
+
     /**
      * Obtém a lista de livros cadastrados na biblioteca.
+     * É a própria lista mantida pela biblioteca; para percorrê-la enquanto a
+     * biblioteca pode ser alterada, use a cópia imutável de getBooks().
      *
      * @return Uma lista de livros.
      */
@@ -170,6 +915,8 @@ public class Library {
 
     /**
      * Obtém a lista de séries cadastradas na biblioteca.
+     * É a própria lista mantida pela biblioteca; para percorrê-la enquanto a
+     * biblioteca pode ser alterada, use a cópia imutável de getSeries().
      *
      * @return Uma lista de séries.
      */
@@ -179,6 +926,8 @@ public class Library {
 
     /**
      * Obtém a lista de filmes cadastrados na biblioteca.
+     * É a própria lista mantida pela biblioteca; para percorrê-la enquanto a
+     * biblioteca pode ser alterada, use a cópia imutável de getMovies().
      *
      * @return Uma lista de filmes.
      */
@@ -187,48 +936,373 @@ public class Library {
     }
 
     /**
-     * Obtém o mapa de anos registrados na biblioteca, ordenado de forma crescente.
+     * Obtém o histograma de anos registrados na biblioteca, que pode ser percorrido
+     * em ordem crescente ou decrescente.
      *
-     * @return Um mapa ordenado contendo os anos registrados e suas respectivas contagens.
+     * @return O histograma com os anos registrados e suas respectivas contagens.
      */
-    public TreeMap<Integer, Integer> getYearsRegistered() {
+    public YearHistogram getYearsRegistered() {
         return yearsRegistered;
     }
 
+    /**
+     * Obtém uma cópia imutável da lista de livros.
+     * A cópia é feita apenas na primeira chamada depois de um cadastro ou remoção
+     * e compartilhada pelas chamadas seguintes, então pode ser guardada e percorrida
+     * enquanto a biblioteca continua sendo alterada.
+     *
+     * @return Uma lista imutável de livros.
+     */
+    public List<Book> getBooks() {
+        List<Book> books = bookSnapshot;
+        if (books == null)
+            bookSnapshot = books = List.copyOf(bookList);
+        return books;
+    }
+
+    /**
+     * Obtém uma cópia imutável da lista de filmes, compartilhada até o próximo cadastro ou remoção.
+     *
+     * @return Uma lista imutável de filmes.
+     */
+    public List<Movie> getMovies() {
+        List<Movie> movies = movieSnapshot;
+        if (movies == null)
+            movieSnapshot = movies = List.copyOf(movieList);
+        return movies;
+    }
+
+    /**
+     * Obtém uma cópia imutável da lista de séries, compartilhada até o próximo cadastro ou remoção.
+     *
+     * @return Uma lista imutável de séries.
+     */
+    public List<Series> getSeries() {
+        List<Series> series = seriesSnapshot;
+        if (series == null)
+            seriesSnapshot = series = List.copyOf(seriesList);
+        return series;
+    }
+
+    /**
+     * Obtém a versão atual da biblioteca, que avança a cada cadastro,
+     * remoção ou mudança nos anos registrados.
+     *
+     * @return A versão da biblioteca.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Tira uma fotografia imutável da biblioteca, com as listas de mídias,
+     * uma cópia do histograma de anos e a versão atual.
+     *
+     * @return A fotografia da biblioteca.
+     */
+    public LibrarySnapshot snapshot() {
+        return snapshot(getBooks(), getMovies(), getSeries(), List.of());
+    }
+
+    /**
+     * Tira uma fotografia imutável da biblioteca com as listas dadas,
+     * registrando as mídias alteradas dadas.
+     *
+     * @param books Os livros da fotografia.
+     * @param movies Os filmes da fotografia.
+     * @param series As séries da fotografia.
+     * @param modified As mídias alteradas desde o último salvamento.
+     * @return A fotografia da biblioteca.
+     */
+    private LibrarySnapshot snapshot(List<Book> books, List<Movie> movies, List<Series> series,
+                                     List<Media> modified) {
+        return new LibrarySnapshot(getVersion(), books, movies, series,
+                new YearHistogram(yearsRegistered), isBooksDirty(), isMoviesDirty(),
+                isSeriesDirty(), isYearsDirty(), modified,
+                (mutationLog == null) ? 0 : mutationLog.position());
+    }
+
     /**
      * Define a lista de livros cadastrados na biblioteca.
      *
+     * Reconstrói os índices de livros por ID, ano, gênero e texto e troca os textos repetidos
+     * pelas instâncias compartilhadas da biblioteca.
+     *
      * @param bookList A nova lista de livros a ser definida.
      */
     public void setBookList(ArrayList<Book> bookList) {
+        bookList.forEach(media -> media.shareStrings(strings::share));
         this.bookList = bookList;
+        bookListChanged();
+        bookIndex.rebuild(bookList, Book::getId);
+        bookAttributes.rebuild(bookList);
+        bookTitleIndex.rebuild(bookList);
+        bookAuthorIndex.rebuild(bookList);
     }
 
     /**
      * Define a lista de filmes cadastrados na biblioteca.
      *
+     * Reconstrói os índices de filmes por ID, ano, gênero e texto e troca os textos repetidos
+     * pelas instâncias compartilhadas da biblioteca.
+     *
      * @param movieList A nova lista de filmes a ser definida.
      */
     public void setMovieList(ArrayList<Movie> movieList) {
+        movieList.forEach(media -> media.shareStrings(strings::share));
         this.movieList = movieList;
+        movieListChanged();
+        movieIndex.rebuild(movieList, Movie::getId);
+        movieAttributes.rebuild(movieList);
+        movieTitleIndex.rebuild(movieList);
+        movieDirectorIndex.rebuild(movieList);
+        movieCastIndex.rebuild(movieList);
     }
 
     /**
      * Define a lista de séries cadastradas na biblioteca.
      *
+     * Reconstrói os índices de séries por ID, ano, gênero e texto e troca os textos repetidos
+     * pelas instâncias compartilhadas da biblioteca.
+     *
      * @param seriesList A nova lista de séries a ser definida.
      */
     public void setSeriesList(ArrayList<Series> seriesList) {
+        seriesList.forEach(media -> media.shareStrings(strings::share));
         this.seriesList = seriesList;
+        seriesListChanged();
+        seriesIndex.rebuild(seriesList, Series::getId);
+        seriesAttributes.rebuild(seriesList);
+        seriesTitleIndex.rebuild(seriesList);
+        seriesCastIndex.rebuild(seriesList);
     }
 
     /**
-     * Define o mapa de anos registrados na biblioteca.
+     * Recalcula o histograma de anos registrados a partir das listas de livros,
+     * filmes e séries, para que ele nunca divirja do conteúdo da biblioteca.
+     * Deve ser chamado depois de definir as listas lidas dos arquivos.
+     */
+    void rebuildYears() {
+        yearsRegistered.clear();
+        bookList.forEach(book -> yearsRegistered.add(book.getYear()));
+        movieList.forEach(movie -> yearsRegistered.add(movie.getYear()));
+        seriesList.forEach(series -> yearsRegistered.add(series.getYear()));
+        histogramChanged();
+    }
+
+    /**
+     * Verifica se os livros mudaram desde o último salvamento: se algum livro
+     * foi cadastrado ou removido, ou se algum livro foi alterado.
+     *
+     * @return true se o arquivo de livros precisa ser reescrito, false caso contrário.
+     */
+    public boolean isBooksDirty() {
+        return booksChanged || anyModified(bookList);
+    }
+
+    /**
+     * Verifica se os filmes mudaram desde o último salvamento: se algum filme
+     * foi cadastrado ou removido, ou se algum filme foi alterado.
      *
-     * @param yearsRegistered O novo mapa de anos registrados a ser definido.
+     * @return true se o arquivo de filmes precisa ser reescrito, false caso contrário.
      */
-    public void setYearsRegistered(TreeMap<Integer, Integer> yearsRegistered) {
-        this.yearsRegistered = yearsRegistered;
+    public boolean isMoviesDirty() {
+        return moviesChanged || anyModified(movieList);
+    }
+
+    /**
+     * Verifica se as séries mudaram desde o último salvamento: se alguma série
+     * foi cadastrada ou removida, ou se alguma série ou temporada foi alterada.
+     *
+     * @return true se o arquivo de séries precisa ser reescrito, false caso contrário.
+     */
+    public boolean isSeriesDirty() {
+        return seriesChanged || anyModified(seriesList);
+    }
+
+    /**
+     * Verifica se o histograma de anos registrados mudou desde o último salvamento.
+     *
+     * @return true se o arquivo de anos precisa ser reescrito, false caso contrário.
+     */
+    public boolean isYearsDirty() {
+        return yearsChanged;
+    }
+
+    /**
+     * Marca a biblioteca inteira como salva, sem alterações pendentes.
+     * Deve ser chamado depois de salvar ou carregar os arquivos.
+     */
+    public void markSaved() {
+        booksChanged = false;
+        moviesChanged = false;
+        seriesChanged = false;
+        yearsChanged = false;
+
+        bookList.forEach(Media::clearModified);
+        movieList.forEach(Media::clearModified);
+        seriesList.forEach(Media::clearModified);
+    }
+
+    /**
+     * Tira uma fotografia da biblioteca para salvá-la e marca a biblioteca como salva.
+     * <p>
+     * Nas listas da fotografia, cada mídia alterada desde o último salvamento é trocada
+     * por uma cópia (Media.copyForSave()), de forma que a fotografia pode ser escrita em
+     * outra thread enquanto a biblioteca continua sendo alterada. As mídias não alteradas
+     * são as da biblioteca: uma alteração feita nelas durante a escrita é registrada no log
+     * depois da posição da fotografia e fica pendente para o próximo salvamento.
+     *
+     * @return A fotografia da biblioteca.
+     */
+    LibrarySnapshot detachForSave() {
+        List<Media> modified = new ArrayList<>();
+        LibrarySnapshot snapshot = snapshot(frozen(getBooks(), Book::copyForSave, modified),
+                frozen(getMovies(), Movie::copyForSave, modified),
+                frozen(getSeries(), Series::copyForSave, modified), modified);
+
+        markSaved();
+        return snapshot;
+    }
+
+    /**
+     * Marca novamente como alteradas as coleções e as mídias de uma fotografia
+     * que não pôde ser salva, para que sejam escritas no próximo salvamento.
+     *
+     * @param snapshot A fotografia cujo salvamento falhou.
+     */
+    void restoreDirty(LibrarySnapshot snapshot) {
+        if (snapshot.isBooksDirty())
+            booksChanged = true;
+        if (snapshot.isMoviesDirty())
+            moviesChanged = true;
+        if (snapshot.isSeriesDirty())
+            seriesChanged = true;
+        if (snapshot.isYearsDirty())
+            yearsChanged = true;
+
+        snapshot.getModified().forEach(Media::markModified);
+    }
+
+    /**
+     * Obtém o log onde as alterações da biblioteca são registradas.
+     *
+     * @return O log, ou null se nenhum estiver associado.
+     */
+    MutationLog getMutationLog() {
+        return mutationLog;
+    }
+
+    /**
+     * Associa um log à biblioteca. A partir daí, cada cadastro, remoção e
+     * alteração é anexado ao log assim que acontece.
+     *
+     * @param mutationLog O log a ser associado.
+     */
+    void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+
+    /**
+     * Define a ação executada a cada cadastro, remoção ou alteração de mídia,
+     * na thread que fez a alteração (por exemplo, para agendar um salvamento automático).
+     * A ação deve ser rápida e não deve alterar a biblioteca.
+     *
+     * @param changeListener A ação, ou null para não executar nenhuma.
+     */
+    public void setChangeListener(Runnable changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Executa a ação de alteração, se houver uma definida.
+     */
+    private void notifyChange() {
+        Runnable listener = changeListener;
+        if (listener != null)
+            listener.run();
+    }
+
+    /**
+     * Registra que a lista de livros mudou: marca os livros como alterados,
+     * descarta a cópia imutável da lista, avança a versão e avisa a ação de alteração.
+     */
+    private void bookListChanged() {
+        booksChanged = true;
+        bookSnapshot = null;
+        version.incrementAndGet();
+        notifyChange();
+    }
+
+    /**
+     * Registra que a lista de filmes mudou: marca os filmes como alterados,
+     * descarta a cópia imutável da lista, avança a versão e avisa a ação de alteração.
+     */
+    private void movieListChanged() {
+        moviesChanged = true;
+        movieSnapshot = null;
+        version.incrementAndGet();
+        notifyChange();
+    }
+
+    /**
+     * Registra que a lista de séries mudou: marca as séries como alteradas,
+     * descarta a cópia imutável da lista, avança a versão e avisa a ação de alteração.
+     */
+    private void seriesListChanged() {
+        seriesChanged = true;
+        seriesSnapshot = null;
+        version.incrementAndGet();
+        notifyChange();
+    }
+
+    /**
+     * Registra que o histograma de anos mudou e avança a versão.
+     */
+    private void histogramChanged() {
+        yearsChanged = true;
+        version.incrementAndGet();
+    }
+
+    /**
+     * Verifica se alguma mídia de uma lista foi alterada desde o último salvamento.
+     *
+     * @param medias A lista de mídias.
+     * @return true se alguma mídia foi alterada, false caso contrário.
+     */
+    private static boolean anyModified(List<? extends Media> medias) {
+        for (Media media : medias) {
+            if (media.isModified())
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Obtém uma lista de mídias em que as alteradas desde o último salvamento
+     * são trocadas por cópias, e adiciona as originais à lista de alteradas.
+     * Se nenhuma mídia tiver sido alterada, a própria lista é devolvida.
+     *
+     * @param medias A lista imutável de mídias.
+     * @param copier A operação que copia uma mídia.
+     * @param modified A lista onde as mídias alteradas são adicionadas.
+     * @param <T> O tipo das mídias.
+     * @return A lista imutável com as cópias.
+     */
+    private static <T extends Media> List<T> frozen(List<T> medias, UnaryOperator<T> copier,
+                                                    List<Media> modified) {
+        List<T> copies = null;
+        for (int i = 0; i < medias.size(); ++i) {
+            T media = medias.get(i);
+            if (!media.isModified())
+                continue;
+
+            modified.add(media);
+            if (copies == null)
+                copies = new ArrayList<>(medias);
+            copies.set(i, copier.apply(media));
+        }
+        return (copies == null) ? medias : Collections.unmodifiableList(copies);
     }
 
 }
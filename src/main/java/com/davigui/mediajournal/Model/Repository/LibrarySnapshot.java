@@ -0,0 +1,189 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import com.davigui.mediajournal.Model.Medias.Book;
+import com.davigui.mediajournal.Model.Medias.Media;
+import com.davigui.mediajournal.Model.Medias.Movie;
+import com.davigui.mediajournal.Model.Medias.Series;
+
+import java.util.List;
+
+/**
+ * A classe LibrarySnapshot é uma fotografia imutável do conteúdo de uma Library
+ * em uma determinada versão: as listas de livros, filmes e séries e o histograma de anos.
+ * <p>
+ * As listas não mudam quando a biblioteca muda, então podem ser percorridas em outra
+ * thread (por exemplo, durante um salvamento em segundo plano) ou guardadas pela interface
+ * sem risco de ConcurrentModificationException. Em geral, as mídias em si continuam sendo
+ * as da biblioteca: a fotografia fixa quais mídias existem, não o conteúdo de cada uma.
+ * A fotografia tirada para salvamento (Library.detachForSave()) guarda cópias das mídias
+ * alteradas, de forma que o conteúdo salvo é o do momento da fotografia.
+ */
+public final class LibrarySnapshot {
+    // Versão da biblioteca no momento da fotografia
+    private final long version;
+    // Livros cadastrados, em ordem de cadastro
+    private final List<Book> books;
+    // Filmes cadastrados, em ordem de cadastro
+    private final List<Movie> movies;
+    // Séries cadastradas, em ordem de cadastro
+    private final List<Series> series;
+    // Cópia do histograma de anos registrados
+    private final YearHistogram years;
+    // Indica se os livros tinham alterações não salvas
+    private final boolean booksDirty;
+    // Indica se os filmes tinham alterações não salvas
+    private final boolean moviesDirty;
+    // Indica se as séries tinham alterações não salvas
+    private final boolean seriesDirty;
+    // Indica se o histograma de anos tinha alterações não salvas
+    private final boolean yearsDirty;
+    // Mídias alteradas desde o último salvamento, marcadas de novo se o salvamento falhar
+    private final List<Media> modified;
+    // Posição do log de alterações até onde os registros estão incluídos na fotografia
+    private final long logPosition;
+
+    /**
+     * Construtor da classe LibrarySnapshot.
+     * As listas devem ser imutáveis e o histograma, uma cópia.
+     *
+     * @param version A versão da biblioteca.
+     * @param books Os livros cadastrados.
+     * @param movies Os filmes cadastrados.
+     * @param series As séries cadastradas.
+     * @param years A cópia do histograma de anos.
+     * @param booksDirty Se os livros tinham alterações não salvas.
+     * @param moviesDirty Se os filmes tinham alterações não salvas.
+     * @param seriesDirty Se as séries tinham alterações não salvas.
+     * @param yearsDirty Se o histograma de anos tinha alterações não salvas.
+     * @param modified As mídias alteradas desde o último salvamento.
+     * @param logPosition A posição do log de alterações.
+     */
+    LibrarySnapshot(long version, List<Book> books, List<Movie> movies, List<Series> series,
+                    YearHistogram years, boolean booksDirty, boolean moviesDirty,
+                    boolean seriesDirty, boolean yearsDirty, List<Media> modified,
+                    long logPosition) {
+        this.version = version;
+        this.books = books;
+        this.movies = movies;
+        this.series = series;
+        this.years = years;
+        this.booksDirty = booksDirty;
+        this.moviesDirty = moviesDirty;
+        this.seriesDirty = seriesDirty;
+        this.yearsDirty = yearsDirty;
+        this.modified = modified;
+        this.logPosition = logPosition;
+    }
+
+    /**
+     * Obtém a versão da biblioteca no momento da fotografia.
+     * Se a versão atual da biblioteca for a mesma, nenhuma mídia foi cadastrada
+     * ou removida desde então.
+     *
+     * @return A versão da fotografia.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Obtém os livros da fotografia.
+     *
+     * @return Uma lista imutável de livros.
+     */
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    /**
+     * Obtém os filmes da fotografia.
+     *
+     * @return Uma lista imutável de filmes.
+     */
+    public List<Movie> getMovies() {
+        return movies;
+    }
+
+    /**
+     * Obtém as séries da fotografia.
+     *
+     * @return Uma lista imutável de séries.
+     */
+    public List<Series> getSeries() {
+        return series;
+    }
+
+    /**
+     * Obtém o histograma de anos da fotografia.
+     *
+     * @return A cópia do histograma de anos registrados.
+     */
+    public YearHistogram getYears() {
+        return years;
+    }
+
+    /**
+     * Verifica se os livros tinham alterações não salvas no momento da fotografia.
+     *
+     * @return true se o arquivo de livros precisa ser reescrito, false caso contrário.
+     */
+    public boolean isBooksDirty() {
+        return booksDirty;
+    }
+
+    /**
+     * Verifica se os filmes tinham alterações não salvas no momento da fotografia.
+     *
+     * @return true se o arquivo de filmes precisa ser reescrito, false caso contrário.
+     */
+    public boolean isMoviesDirty() {
+        return moviesDirty;
+    }
+
+    /**
+     * Verifica se as séries tinham alterações não salvas no momento da fotografia.
+     *
+     * @return true se o arquivo de séries precisa ser reescrito, false caso contrário.
+     */
+    public boolean isSeriesDirty() {
+        return seriesDirty;
+    }
+
+    /**
+     * Verifica se o histograma de anos tinha alterações não salvas no momento da fotografia.
+     *
+     * @return true se o arquivo de anos precisa ser reescrito, false caso contrário.
+     */
+    public boolean isYearsDirty() {
+        return yearsDirty;
+    }
+
+    /**
+     * Verifica se alguma coleção tinha alterações não salvas no momento da fotografia.
+     *
+     * @return true se há algo a salvar, false caso contrário.
+     */
+    public boolean isDirty() {
+        return booksDirty || moviesDirty || seriesDirty || yearsDirty;
+    }
+
+    /**
+     * Obtém as mídias da biblioteca (não as cópias) que estavam alteradas no momento
+     * da fotografia. Só são registradas nas fotografias tiradas para salvamento.
+     *
+     * @return Uma lista com as mídias alteradas.
+     */
+    List<Media> getModified() {
+        return modified;
+    }
+
+    /**
+     * Obtém a posição do log de alterações no momento da fotografia.
+     * Os registros anteriores a essa posição estão incluídos na fotografia.
+     *
+     * @return A posição do log, ou 0 se a biblioteca não tinha log.
+     */
+    long getLogPosition() {
+        return logPosition;
+    }
+}
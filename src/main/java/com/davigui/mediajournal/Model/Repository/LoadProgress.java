@@ -0,0 +1,21 @@
+package com.davigui.mediajournal.Model.Repository;
+
+/**
+ * A interface LoadProgress recebe o andamento da leitura da biblioteca.
+ * Os arquivos são lidos em paralelo, então o método pode ser chamado
+ * por várias threads ao mesmo tempo e deve ser seguro para isso.
+ */
+@FunctionalInterface
+public interface LoadProgress {
+    // Andamento que não faz nada, usado quando ninguém acompanha a leitura
+    LoadProgress NONE = (items, bytesRead, totalBytes) -> {};
+
+    /**
+     * Informa o andamento da leitura.
+     *
+     * @param items A quantidade de mídias lidas até agora.
+     * @param bytesRead A quantidade de bytes lidos até agora.
+     * @param totalBytes O tamanho dos arquivos abertos até agora.
+     */
+    void update(long items, long bytesRead, long totalBytes);
+}
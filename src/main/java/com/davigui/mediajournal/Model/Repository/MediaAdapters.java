@@ -0,0 +1,459 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import com.davigui.mediajournal.Model.Enums.Genres;
+import com.davigui.mediajournal.Model.Medias.*;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Classe estatica que cria o Gson da biblioteca, com TypeAdapters escritos à mão
+ * para livros, filmes, séries, temporadas e o mapa de anos.
+ * <p>
+ * Os adaptadores leem e escrevem os campos diretamente no fluxo, sem reflexão,
+ * e constroem as mídias pelos construtores públicos. O JSON gerado é idêntico ao
+ * do Gson padrão: mesmos nomes, mesma ordem dos campos (os da subclasse antes dos
+ * de Media) e campos nulos omitidos. Campos desconhecidos são ignorados na leitura.
+ * <p>
+ * Os gêneros são lidos por uma tabela de nomes, sem criar novos textos. Os textos
+ * que se repetem entre mídias são compartilhados pela biblioteca (StringPool)
+ * quando as mídias lidas são adicionadas a ela.
+ */
+class MediaAdapters {
+    //Tipo do mapa de anos registrados
+    static final Type YEARS_TYPE = new TypeToken<TreeMap<Integer, Integer>>() {}.getType();
+    //Gêneros pelo nome gravado no JSON
+    private static final Map<String, Genres> GENRES = new HashMap<>();
+
+    static {
+        for (Genres genre : Genres.values())
+            GENRES.put(genre.name(), genre);
+    }
+
+    /**
+     * Cria um Gson com todos os adaptadores registrados.
+     *
+     * @return O Gson da biblioteca.
+     */
+    static Gson create() {
+        SeasonAdapter seasons = new SeasonAdapter();
+
+        return new GsonBuilder()
+                .registerTypeAdapter(Book.class, new BookAdapter().nullSafe())
+                .registerTypeAdapter(Movie.class, new MovieAdapter().nullSafe())
+                .registerTypeAdapter(Series.class, new SeriesAdapter(seasons).nullSafe())
+                .registerTypeAdapter(Season.class, seasons.nullSafe())
+                .registerTypeAdapter(YEARS_TYPE, new YearsAdapter().nullSafe())
+                .create();
+    }
+
+    /**
+     * Adaptador de livros.
+     */
+    private static class BookAdapter extends TypeAdapter<Book> {
+
+        @Override
+        public void write(JsonWriter out, Book book) throws IOException {
+            out.beginObject();
+            writeString(out, "isbn", book.getIsbn());
+            writeString(out, "author", book.getAuthor());
+            writeString(out, "publisher", book.getPublisher());
+            out.name("owned").value(book.isOwned());
+            writeString(out, "seenDate", book.getSeenDate());
+            writeMedia(out, book);
+            out.endObject();
+        }
+
+        @Override
+        public Book read(JsonReader in) throws IOException {
+            MediaFields media = new MediaFields();
+            String isbn = null;
+            String author = null;
+            String publisher = null;
+            boolean owned = false;
+            String seenDate = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "isbn" -> isbn = readString(in);
+                    case "author" -> author = readString(in);
+                    case "publisher" -> publisher = readString(in);
+                    case "owned" -> owned = in.nextBoolean();
+                    case "seenDate" -> seenDate = readString(in);
+                    default -> media.read(name, in);
+                }
+            }
+            in.endObject();
+
+            Book book = new Book(media.title, media.year, media.genre, isbn, author, publisher, owned);
+            book.setSeenDate(seenDate);
+            media.applyTo(book);
+            return book;
+        }
+    }
+
+    /**
+     * Adaptador de filmes.
+     */
+    private static class MovieAdapter extends TypeAdapter<Movie> {
+
+        @Override
+        public void write(JsonWriter out, Movie movie) throws IOException {
+            out.beginObject();
+            writeStrings(out, "cast", movie.getCast());
+            out.name("duration").value(movie.getDuration());
+            writeString(out, "direction", movie.getDirection());
+            writeString(out, "script", movie.getScript());
+            writeString(out, "originalTitle", movie.getOriginalTitle());
+            writeStrings(out, "whereToWatch", movie.getWhereToWatch());
+            writeString(out, "seenDate", movie.getSeenDate());
+            writeMedia(out, movie);
+            out.endObject();
+        }
+
+        @Override
+        public Movie read(JsonReader in) throws IOException {
+            MediaFields media = new MediaFields();
+            List<String> cast = null;
+            int duration = 0;
+            String direction = null;
+            String script = null;
+            String originalTitle = null;
+            List<String> whereToWatch = null;
+            String seenDate = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "cast" -> cast = readStrings(in);
+                    case "duration" -> duration = in.nextInt();
+                    case "direction" -> direction = readString(in);
+                    case "script" -> script = readString(in);
+                    case "originalTitle" -> originalTitle = readString(in);
+                    case "whereToWatch" -> whereToWatch = readStrings(in);
+                    case "seenDate" -> seenDate = readString(in);
+                    default -> media.read(name, in);
+                }
+            }
+            in.endObject();
+
+            Movie movie = new Movie(media.title, media.year, media.genre, cast, duration, direction,
+                    script, originalTitle, whereToWatch);
+            movie.setSeenDate(seenDate);
+            media.applyTo(movie);
+            return movie;
+        }
+    }
+
+    /**
+     * Adaptador de séries, com suas temporadas.
+     */
+    private static class SeriesAdapter extends TypeAdapter<Series> {
+        // Adaptador das temporadas
+        private final SeasonAdapter seasons;
+
+        /**
+         * Construtor da classe SeriesAdapter.
+         *
+         * @param seasons O adaptador das temporadas.
+         */
+        SeriesAdapter(SeasonAdapter seasons) {
+            this.seasons = seasons;
+        }
+
+        @Override
+        public void write(JsonWriter out, Series series) throws IOException {
+            out.beginObject();
+            out.name("yearOfEnding").value(series.getYearOfEnding());
+            writeStrings(out, "cast", series.getCast());
+            if (series.getSeasons() != null) {
+                out.name("seasons").beginArray();
+                for (Season season : series.getSeasons())
+                    seasons.write(out, season);
+                out.endArray();
+            }
+            writeString(out, "originalTitle", series.getOriginalTitle());
+            writeStrings(out, "whereToWatch", series.getWhereToWatch());
+            writeMedia(out, series);
+            out.endObject();
+        }
+
+        @Override
+        public Series read(JsonReader in) throws IOException {
+            MediaFields media = new MediaFields();
+            int yearOfEnding = 0;
+            List<String> cast = null;
+            List<Season> seasonList = new ArrayList<>();
+            String originalTitle = null;
+            List<String> whereToWatch = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "yearOfEnding" -> yearOfEnding = in.nextInt();
+                    case "cast" -> cast = readStrings(in);
+                    case "seasons" -> {
+                        if (in.peek() == JsonToken.NULL) {
+                            in.nextNull();
+                        } else {
+                            in.beginArray();
+                            while (in.hasNext())
+                                seasonList.add(seasons.read(in));
+                            in.endArray();
+                        }
+                    }
+                    case "originalTitle" -> originalTitle = readString(in);
+                    case "whereToWatch" -> whereToWatch = readStrings(in);
+                    default -> media.read(name, in);
+                }
+            }
+            in.endObject();
+
+            Series series = new Series(media.title, media.year, media.genre, yearOfEnding, cast,
+                    originalTitle, whereToWatch);
+            series.addSeasons(seasonList);
+            media.applyTo(series);
+            return series;
+        }
+    }
+
+    /**
+     * Adaptador de temporadas.
+     * As temporadas lidas só são marcadas como salvas junto com a série.
+     */
+    private static class SeasonAdapter extends TypeAdapter<Season> {
+
+        @Override
+        public void write(JsonWriter out, Season season) throws IOException {
+            out.beginObject();
+            out.name("rating").value(season.getRating());
+            out.name("seasonNumber").value(season.getSeasonNumber());
+            writeString(out, "review", season.getReview());
+            out.name("seen").value(season.isSeen());
+            out.name("episodeCount").value(season.getEpisodeCount());
+            out.name("year").value(season.getYear());
+            out.endObject();
+        }
+
+        @Override
+        public Season read(JsonReader in) throws IOException {
+            int rating = 0;
+            int seasonNumber = 0;
+            String review = null;
+            boolean seen = false;
+            int episodeCount = 0;
+            int year = 0;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "rating" -> rating = in.nextInt();
+                    case "seasonNumber" -> seasonNumber = in.nextInt();
+                    case "review" -> review = readString(in);
+                    case "seen" -> seen = in.nextBoolean();
+                    case "episodeCount" -> episodeCount = in.nextInt();
+                    case "year" -> year = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+
+            Season season = new Season(seasonNumber, episodeCount, year);
+            season.setRating(rating);
+            season.setReview(review);
+            if (seen)
+                season.setSeen();
+            return season;
+        }
+    }
+
+    /**
+     * Adaptador do mapa de anos registrados, gravado como um objeto de ano para quantidade.
+     */
+    private static class YearsAdapter extends TypeAdapter<TreeMap<Integer, Integer>> {
+
+        @Override
+        public void write(JsonWriter out, TreeMap<Integer, Integer> years) throws IOException {
+            out.beginObject();
+            for (Map.Entry<Integer, Integer> year : years.entrySet())
+                out.name(Integer.toString(year.getKey())).value(year.getValue());
+            out.endObject();
+        }
+
+        @Override
+        public TreeMap<Integer, Integer> read(JsonReader in) throws IOException {
+            TreeMap<Integer, Integer> years = new TreeMap<>();
+
+            in.beginObject();
+            while (in.hasNext())
+                years.put(Integer.parseInt(in.nextName()), in.nextInt());
+            in.endObject();
+            return years;
+        }
+    }
+
+    /**
+     * A classe MediaFields guarda os atributos comuns de uma mídia durante a leitura,
+     * já que os campos de Media vêm depois dos campos da subclasse.
+     */
+    private static class MediaFields {
+        // O título da mídia
+        private String title;
+        // O ano de lançamento da mídia
+        private int year;
+        // O gênero da mídia
+        private Genres genre;
+        // A avaliação da mídia
+        private int rating;
+        // Indica se a mídia foi vista
+        private boolean seen;
+        // A review da mídia
+        private String review;
+
+        /**
+         * Lê um atributo comum de uma mídia. Atributos desconhecidos são ignorados.
+         *
+         * @param name O nome do atributo.
+         * @param in O leitor.
+         * @throws IOException Se ocorrer um erro de leitura.
+         */
+        void read(String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "title" -> title = readString(in);
+                case "year" -> year = in.nextInt();
+                case "genre" -> genre = readGenre(in);
+                case "rating" -> rating = in.nextInt();
+                case "seen" -> seen = in.nextBoolean();
+                case "review" -> review = readString(in);
+                default -> in.skipValue();
+            }
+        }
+
+        /**
+         * Aplica a uma mídia recém-construída os atributos mutáveis lidos
+         * e a marca como salva, como uma mídia lida pelo Gson padrão.
+         *
+         * @param media A mídia.
+         */
+        void applyTo(Media media) {
+            media.setRating(rating);
+            media.setReview(review);
+            if (seen)
+                media.setSeen();
+            media.clearModified();
+        }
+    }
+
+    /**
+     * Escreve os atributos comuns de uma mídia, depois dos atributos da subclasse.
+     *
+     * @param out O escritor.
+     * @param media A mídia.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    private static void writeMedia(JsonWriter out, Media media) throws IOException {
+        writeString(out, "title", media.getTitle());
+        out.name("year").value(media.getYear());
+        if (media.getGenre() != null)
+            out.name("genre").value(media.getGenre().name());
+        out.name("rating").value(media.getRating());
+        out.name("seen").value(media.isSeen());
+        writeString(out, "review", media.getReview());
+    }
+
+    /**
+     * Escreve um atributo de texto, omitindo-o se for nulo.
+     *
+     * @param out O escritor.
+     * @param name O nome do atributo.
+     * @param value O texto.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    private static void writeString(JsonWriter out, String name, String value) throws IOException {
+        if (value != null)
+            out.name(name).value(value);
+    }
+
+    /**
+     * Escreve um atributo de lista de textos, omitindo-o se for nulo.
+     *
+     * @param out O escritor.
+     * @param name O nome do atributo.
+     * @param values Os textos.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    private static void writeStrings(JsonWriter out, String name, List<String> values) throws IOException {
+        if (values == null)
+            return;
+
+        out.name(name).beginArray();
+        for (String value : values)
+            out.value(value);
+        out.endArray();
+    }
+
+    /**
+     * Lê um texto que pode ser nulo.
+     *
+     * @param in O leitor.
+     * @return O texto, ou null.
+     * @throws IOException Se ocorrer um erro de leitura.
+     */
+    private static String readString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Lê uma lista de textos que pode ser nula.
+     *
+     * @param in O leitor.
+     * @return A lista de textos, ou null.
+     * @throws IOException Se ocorrer um erro de leitura.
+     */
+    private static List<String> readStrings(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        List<String> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext())
+            values.add(readString(in));
+        in.endArray();
+        return values;
+    }
+
+    /**
+     * Lê um gênero pelo nome. Nomes desconhecidos são lidos como null, como no Gson padrão.
+     *
+     * @param in O leitor.
+     * @return O gênero, ou null.
+     * @throws IOException Se ocorrer um erro de leitura.
+     */
+    private static Genres readGenre(JsonReader in) throws IOException {
+        String name = readString(in);
+        return (name == null) ? null : GENRES.get(name);
+    }
+}
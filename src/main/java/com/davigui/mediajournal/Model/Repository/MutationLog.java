@@ -0,0 +1,481 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import com.davigui.mediajournal.Model.Medias.Book;
+import com.davigui.mediajournal.Model.Medias.Media;
+import com.davigui.mediajournal.Model.Medias.Movie;
+import com.davigui.mediajournal.Model.Medias.Series;
+
+import com.google.gson.Gson;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * A classe MutationLog é um log binário de escrita antecipada (write-ahead log),
+ * onde cada alteração da biblioteca é anexada no momento em que acontece.
+ * <p>
+ * Cada registro tem o formato [tamanho][CRC32][tipo][conteúdo]: o tamanho e o
+ * checksum são inteiros de 4 bytes e cobrem o tipo e o conteúdo. Um registro de
+ * cadastro ou alteração guarda o JSON da mídia inteira, já alterada; um registro
+ * de remoção guarda apenas o ID. Assim, reaplicar um registro mais de uma vez
+ * tem o mesmo efeito que aplicá-lo uma vez.
+ * <p>
+ * A escrita em disco é feita em grupo (group commit) por uma thread própria:
+ * os registros anexados enquanto um fsync está em andamento são gravados juntos,
+ * com um único fsync no lote seguinte. Quem altera a biblioteca não espera o disco.
+ */
+class MutationLog implements Closeable {
+    //Tipo de registro: livro cadastrado ou alterado
+    private static final byte PUT_BOOK = 1;
+    //Tipo de registro: filme cadastrado ou alterado
+    private static final byte PUT_MOVIE = 2;
+    //Tipo de registro: série cadastrada ou alterada
+    private static final byte PUT_SERIES = 3;
+    //Tipo de registro: livro removido
+    private static final byte REMOVE_BOOK = 4;
+    //Tipo de registro: filme removido
+    private static final byte REMOVE_MOVIE = 5;
+    //Tipo de registro: série removida
+    private static final byte REMOVE_SERIES = 6;
+    //Tamanho máximo de um registro; um tamanho maior indica um registro corrompido
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private static final Gson gson = MediaAdapters.create();
+
+    // Caminho do arquivo do log
+    private final Path path;
+    // Canal do arquivo do log, aberto para anexar (usado apenas na thread de gravação)
+    private FileChannel channel;
+    // Posição do log que corresponde ao início do arquivo (usada apenas na thread de gravação)
+    private long base;
+    // Thread única que grava os lotes de registros em ordem
+    private final ExecutorService writer;
+    // Registros anexados que ainda não foram gravados (protegido por this)
+    private ByteArrayOutputStream pending;
+    // Indica se já há uma gravação agendada para os registros pendentes (protegido por this)
+    private boolean flushScheduled;
+    // Quantidade de bytes anexados desde a criação do log (protegido por this)
+    private long appended;
+    // Último erro de gravação, relatado na próxima chamada de sync()
+    private volatile IOException failure;
+
+    /**
+     * Construtor da classe MutationLog.
+     *
+     * @param path O caminho do arquivo do log.
+     * @param channel O canal do arquivo do log.
+     */
+    private MutationLog(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+        this.base = 0;
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "mutation-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pending = new ByteArrayOutputStream();
+        this.flushScheduled = false;
+        this.appended = 0;
+    }
+
+    /**
+     * Cria um log vazio no caminho especificado, descartando o conteúdo anterior.
+     * Deve ser chamado depois de replay() e de salvar a biblioteca.
+     *
+     * @param path O caminho do arquivo do log.
+     * @return O log criado.
+     * @throws IOException Se ocorrer um erro ao criar o arquivo.
+     */
+    static MutationLog create(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        channel.force(true);
+        return new MutationLog(path, channel);
+    }
+
+    /**
+     * Reaplica os registros do log na biblioteca, na ordem em que foram anexados.
+     * A leitura para no primeiro registro incompleto ou com checksum inválido,
+     * que corresponde a uma escrita interrompida.
+     * Os registros são reduzidos ao estado final de cada mídia antes de serem
+     * aplicados, de forma que cada lista da biblioteca é percorrida uma única vez.
+     *
+     * @param path O caminho do arquivo do log.
+     * @param journal A biblioteca onde os registros serão aplicados.
+     * @return A quantidade de registros aplicados.
+     * @throws IOException Se ocorrer um erro ao ler o arquivo.
+     */
+    static int replay(Path path, Library journal) throws IOException {
+        Changes<Book> books = new Changes<>();
+        Changes<Movie> movies = new Changes<>();
+        Changes<Series> series = new Changes<>();
+        int applied = 0;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            while (true) {
+                int length = input.readInt();
+                int checksum = input.readInt();
+                if (length < 1 || length > MAX_RECORD_SIZE)
+                    break;
+
+                byte[] record = new byte[length];
+                input.readFully(record);
+                if (checksum != checksumOf(record))
+                    break;
+
+                apply(record, books, movies, series);
+                ++applied;
+            }
+        } catch (NoSuchFileException | EOFException e) {
+            //Fim do log ou registro incompleto
+        }
+
+        if (applied > 0)
+            journal.replay(books, movies, series);
+        return applied;
+    }
+
+    /**
+     * Anexa o cadastro ou a alteração de um livro.
+     *
+     * @param book O livro, já alterado.
+     */
+    void put(Book book) {
+        append(PUT_BOOK, gson.toJson(book, Book.class).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Anexa o cadastro ou a alteração de um filme.
+     *
+     * @param movie O filme, já alterado.
+     */
+    void put(Movie movie) {
+        append(PUT_MOVIE, gson.toJson(movie, Movie.class).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Anexa o cadastro ou a alteração de uma série, com suas temporadas.
+     *
+     * @param series A série, já alterada.
+     */
+    void put(Series series) {
+        append(PUT_SERIES, gson.toJson(series, Series.class).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Anexa a remoção de um livro.
+     *
+     * @param book O livro removido.
+     */
+    void remove(Book book) {
+        append(REMOVE_BOOK, ByteBuffer.allocate(Integer.BYTES).putInt(book.getId()).array());
+    }
+
+    /**
+     * Anexa a remoção de um filme.
+     *
+     * @param movie O filme removido.
+     */
+    void remove(Movie movie) {
+        append(REMOVE_MOVIE, ByteBuffer.allocate(Integer.BYTES).putInt(movie.getId()).array());
+    }
+
+    /**
+     * Anexa a remoção de uma série.
+     *
+     * @param series A série removida.
+     */
+    void remove(Series series) {
+        append(REMOVE_SERIES, ByteBuffer.allocate(Integer.BYTES).putInt(series.getId()).array());
+    }
+
+    /**
+     * Aguarda a gravação de todos os registros anexados até agora.
+     *
+     * @throws IOException Se alguma gravação tiver falhado.
+     */
+    void sync() throws IOException {
+        runOnWriter(() -> {});
+    }
+
+    /**
+     * Obtém a posição atual do log, isto é, a quantidade de bytes anexados desde a sua criação.
+     *
+     * @return A posição do log.
+     */
+    synchronized long position() {
+        return appended;
+    }
+
+    /**
+     * Descarta os registros do log anteriores à posição dada, depois que uma
+     * fotografia da biblioteca tirada nessa posição foi salva.
+     * Se outros registros foram anexados depois dessa posição, eles são copiados
+     * para um novo arquivo, que substitui o log de forma atômica; caso contrário,
+     * o arquivo é apenas esvaziado.
+     * Executado na thread de gravação, depois das gravações já agendadas, de forma
+     * que todos os registros até a posição dada já estejam no arquivo.
+     *
+     * @param position A posição do log quando a fotografia foi tirada.
+     * @throws IOException Se ocorrer um erro ao truncar o arquivo.
+     */
+    void truncate(long position) throws IOException {
+        runOnWriter(() -> {
+            long offset = position - base;
+            if (offset <= 0)
+                return;
+
+            long size = channel.size();
+            if (offset >= size) {
+                channel.truncate(0);
+                channel.force(true);
+            } else {
+                AtomicFiles.writeTemp(path, out -> {
+                    try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ)) {
+                        source.transferTo(offset, size - offset, Channels.newChannel(out));
+                    }
+                });
+                channel.close();
+                AtomicFiles.replace(path);
+                channel = FileChannel.open(path, StandardOpenOption.WRITE);
+                channel.position(channel.size());
+            }
+            base = position;
+        });
+    }
+
+    /**
+     * Grava os registros pendentes e fecha o log.
+     *
+     * @throws IOException Se ocorrer um erro ao gravar ou fechar o arquivo.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            runOnWriter(() -> channel.close());
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * Anexa um registro aos pendentes e agenda sua gravação, se ainda não houver uma agendada.
+     * Os registros anexados enquanto uma gravação está em andamento formam o próximo lote.
+     *
+     * @param type O tipo do registro.
+     * @param content O conteúdo do registro.
+     */
+    private synchronized void append(byte type, byte[] content) {
+        byte[] record = new byte[content.length + 1];
+        record[0] = type;
+        System.arraycopy(content, 0, record, 1, content.length);
+
+        DataOutputStream output = new DataOutputStream(pending);
+        try {
+            output.writeInt(record.length);
+            output.writeInt(checksumOf(record));
+            output.write(record);
+            appended += 8 + record.length;
+        } catch (IOException e) {
+            //Escrita em memória não lança IOException
+            throw new UncheckedIOException(e);
+        }
+
+        if (!flushScheduled) {
+            flushScheduled = true;
+            writer.execute(this::flushPending);
+        }
+    }
+
+    /**
+     * Grava em disco, com um único fsync, todos os registros pendentes até o momento.
+     * Executado apenas na thread de gravação.
+     */
+    private void flushPending() {
+        ByteBuffer batch;
+        synchronized (this) {
+            batch = ByteBuffer.wrap(pending.toByteArray());
+            pending = new ByteArrayOutputStream();
+            flushScheduled = false;
+        }
+
+        try {
+            while (batch.hasRemaining())
+                channel.write(batch);
+            channel.force(false);
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * A interface LogTask representa uma operação no arquivo do log.
+     */
+    private interface LogTask {
+        /**
+         * Executa a operação.
+         *
+         * @throws IOException Se ocorrer um erro de IO.
+         */
+        void run() throws IOException;
+    }
+
+    /**
+     * Executa uma operação na thread de gravação, depois das gravações já agendadas,
+     * e aguarda o seu fim.
+     *
+     * @param task A operação a ser executada.
+     * @throws IOException Se a operação ou alguma gravação anterior tiver falhado.
+     */
+    private void runOnWriter(LogTask task) throws IOException {
+        try {
+            writer.submit(() -> {
+                task.run();
+                return null;
+            }).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause)
+                throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando o log");
+        }
+
+        IOException error = failure;
+        if (error != null) {
+            failure = null;
+            throw error;
+        }
+    }
+
+    /**
+     * Acumula um registro nas alterações do seu tipo.
+     *
+     * @param record O registro (tipo seguido do conteúdo).
+     * @param books As alterações de livros.
+     * @param movies As alterações de filmes.
+     * @param series As alterações de séries.
+     */
+    private static void apply(byte[] record, Changes<Book> books, Changes<Movie> movies, Changes<Series> series) {
+        switch (record[0]) {
+            case PUT_BOOK -> books.put(gson.fromJson(jsonOf(record), Book.class));
+            case PUT_MOVIE -> movies.put(gson.fromJson(jsonOf(record), Movie.class));
+            case PUT_SERIES -> series.put(gson.fromJson(jsonOf(record), Series.class));
+            case REMOVE_BOOK -> books.remove(idOf(record));
+            case REMOVE_MOVIE -> movies.remove(idOf(record));
+            case REMOVE_SERIES -> series.remove(idOf(record));
+            default -> {
+                //Tipo desconhecido: o registro é ignorado
+            }
+        }
+    }
+
+    /**
+     * Lê o JSON de um registro de cadastro ou alteração.
+     *
+     * @param record O registro.
+     * @return O JSON da mídia.
+     */
+    private static String jsonOf(byte[] record) {
+        return new String(record, 1, record.length - 1, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lê o ID de um registro de remoção.
+     *
+     * @param record O registro.
+     * @return O ID da mídia removida.
+     */
+    private static int idOf(byte[] record) {
+        return ByteBuffer.wrap(record, 1, Integer.BYTES).getInt();
+    }
+
+    /**
+     * Calcula o CRC32 de um registro.
+     *
+     * @param record O registro.
+     * @return O checksum do registro.
+     */
+    private static int checksumOf(byte[] record) {
+        CRC32 checksum = new CRC32();
+        checksum.update(record);
+        return (int) checksum.getValue();
+    }
+
+    /**
+     * A classe Changes guarda o estado final das mídias de um tipo alteradas no log:
+     * os IDs removidos das mídias já cadastradas e as mídias cadastradas ou alteradas,
+     * na ordem do primeiro registro de cada uma desde a última remoção.
+     *
+     * @param <T> O tipo das mídias.
+     */
+    static final class Changes<T extends Media> {
+        // IDs removidos
+        private final Set<Integer> removed = new HashSet<>();
+        // Mídias cadastradas ou alteradas, por ID
+        private final Map<Integer, T> put = new LinkedHashMap<>();
+
+        /**
+         * Registra o cadastro ou a alteração de uma mídia.
+         *
+         * @param media A mídia, já alterada.
+         */
+        private void put(T media) {
+            put.put(media.getId(), media);
+        }
+
+        /**
+         * Registra a remoção de uma mídia.
+         *
+         * @param id O ID da mídia removida.
+         */
+        private void remove(int id) {
+            put.remove(id);
+            removed.add(id);
+        }
+
+        /**
+         * Verifica se não há alterações.
+         *
+         * @return true se nenhum registro foi acumulado.
+         */
+        boolean isEmpty() {
+            return removed.isEmpty() && put.isEmpty();
+        }
+
+        /**
+         * Obtém os IDs removidos.
+         *
+         * @return Os IDs removidos.
+         */
+        Set<Integer> getRemoved() {
+            return removed;
+        }
+
+        /**
+         * Obtém as mídias cadastradas ou alteradas, por ID, na ordem de cadastro.
+         *
+         * @return As mídias por ID.
+         */
+        Map<Integer, T> getPut() {
+            return put;
+        }
+    }
+}
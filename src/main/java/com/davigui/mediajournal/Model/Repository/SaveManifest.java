@@ -0,0 +1,114 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A classe SaveManifest registra o último salvamento concluído da biblioteca:
+ * um número de geração, incrementado a cada salvamento, e o checksum de cada arquivo.
+ * <p>
+ * O manifesto é escrito por último, de forma atômica, e marca o fim do salvamento.
+ * Na leitura, um arquivo cujo checksum não confere com o manifesto pertence a um
+ * salvamento interrompido e é trocado pelo seu backup da geração registrada.
+ */
+class SaveManifest {
+    // Número de geração do salvamento
+    private final long generation;
+    // Checksum CRC32 de cada arquivo, pelo nome do arquivo
+    private final Map<String, Long> checksums;
+
+    /**
+     * Construtor da classe SaveManifest.
+     *
+     * @param generation O número de geração do salvamento.
+     * @param checksums  O checksum de cada arquivo, pelo caminho do arquivo.
+     */
+    SaveManifest(long generation, Map<Path, Long> checksums) {
+        this.generation = generation;
+        this.checksums = new LinkedHashMap<>();
+        for (Map.Entry<Path, Long> checksum : checksums.entrySet())
+            this.checksums.put(checksum.getKey().getFileName().toString(), checksum.getValue());
+    }
+
+    /**
+     * Obtém o número de geração do salvamento.
+     *
+     * @return O número de geração.
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Obtém o checksum registrado para um arquivo.
+     *
+     * @param path O caminho do arquivo.
+     * @return O checksum registrado, ou null se o arquivo não fizer parte do manifesto.
+     */
+    Long checksumOf(Path path) {
+        return checksums.get(path.getFileName().toString());
+    }
+
+    /**
+     * Lê o manifesto do caminho especificado.
+     *
+     * @param path O caminho do manifesto.
+     * @return O manifesto lido, ou null se ele não existir (dados de versões anteriores).
+     * @throws IOException Se ocorrer um erro ao ler o arquivo.
+     */
+    static SaveManifest read(Path path) throws IOException {
+        long generation = 0;
+        Map<Path, Long> checksums = new LinkedHashMap<>();
+
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("generation")) {
+                    generation = reader.nextLong();
+                } else if (name.equals("checksums")) {
+                    reader.beginObject();
+                    while (reader.hasNext())
+                        checksums.put(Path.of(reader.nextName()), reader.nextLong());
+                    reader.endObject();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        return new SaveManifest(generation, checksums);
+    }
+
+    /**
+     * Escreve o manifesto no caminho especificado, de forma atômica.
+     *
+     * @param path O caminho do manifesto.
+     * @throws IOException Se ocorrer um erro ao escrever o arquivo.
+     */
+    void write(Path path) throws IOException {
+        AtomicFiles.writeTemp(path, out -> {
+            JsonWriter writer = new JsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.beginObject();
+            writer.name("generation").value(generation);
+            writer.name("checksums").beginObject();
+            for (Map.Entry<String, Long> checksum : checksums.entrySet())
+                writer.name(checksum.getKey()).value(checksum.getValue());
+            writer.endObject();
+            writer.endObject();
+            writer.flush();
+        });
+        AtomicFiles.replace(path);
+    }
+}
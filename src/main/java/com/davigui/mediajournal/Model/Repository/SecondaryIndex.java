@@ -0,0 +1,116 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import com.davigui.mediajournal.Model.Enums.Genres;
+import com.davigui.mediajournal.Model.Medias.Media;
+
+import java.util.*;
+
+/**
+ * A classe SecondaryIndex mantém índices secundários de um tipo de mídia
+ * por ano e por gênero. Cada ano/gênero aponta para um balde com as mídias
+ * correspondentes, na mesma ordem em que foram adicionadas à lista principal.
+ * Permite que as buscas por ano e gênero sejam consultas ao índice, em vez
+ * de percorrer a lista inteira.
+ *
+ * @param <T> O tipo de mídia indexada.
+ */
+class SecondaryIndex<T extends Media> {
+    // Baldes de mídias por ano (ordenado pelo número do ano)
+    private final TreeMap<Integer, List<T>> yearIndex;
+    // Baldes de mídias por gênero
+    private final EnumMap<Genres, List<T>> genreIndex;
+
+    /**
+     * Construtor da classe SecondaryIndex.
+     * Inicializa os índices de ano e gênero vazios.
+     */
+    SecondaryIndex() {
+        this.yearIndex = new TreeMap<>();
+        this.genreIndex = new EnumMap<>(Genres.class);
+    }
+
+    /**
+     * Adiciona uma mídia aos baldes do seu ano e do seu gênero.
+     * Mídias sem gênero (por exemplo, lidas de um arquivo com um gênero desconhecido)
+     * entram apenas no índice por ano, como na busca por gênero sem índice, que nunca as encontrava.
+     *
+     * @param media A mídia a ser indexada.
+     */
+    void add(T media) {
+        yearIndex.computeIfAbsent(media.getYear(), year -> new ArrayList<>()).add(media);
+        if (media.getGenre() != null)
+            genreIndex.computeIfAbsent(media.getGenre(), genre -> new ArrayList<>()).add(media);
+    }
+
+    /**
+     * Remove uma mídia dos baldes do seu ano e do seu gênero.
+     * Baldes que ficarem vazios são removidos do índice.
+     *
+     * @param media A mídia a ser removida.
+     */
+    void remove(T media) {
+        List<T> yearBucket = yearIndex.get(media.getYear());
+        if (yearBucket != null && yearBucket.remove(media) && yearBucket.isEmpty())
+            yearIndex.remove(media.getYear());
+
+        if (media.getGenre() == null)
+            return;
+        List<T> genreBucket = genreIndex.get(media.getGenre());
+        if (genreBucket != null && genreBucket.remove(media) && genreBucket.isEmpty())
+            genreIndex.remove(media.getGenre());
+    }
+
+    /**
+     * Reconstrói os índices a partir de uma lista de mídias.
+     *
+     * @param medias A lista de mídias (pode ser nula).
+     */
+    void rebuild(List<T> medias) {
+        yearIndex.clear();
+        genreIndex.clear();
+
+        if (medias != null)
+            for (T media : medias)
+                add(media);
+    }
+
+    /**
+     * Obtém as mídias de um ano.
+     *
+     * @param year O ano.
+     * @return Uma visão somente leitura do balde do ano, ou uma lista vazia se não houver mídias.
+     */
+    List<T> ofYear(int year) {
+        List<T> bucket = yearIndex.get(year);
+        return (bucket == null) ? List.of() : Collections.unmodifiableList(bucket);
+    }
+
+    /**
+     * Obtém as mídias de um gênero.
+     *
+     * @param genre O gênero (pode ser nulo).
+     * @return Uma visão somente leitura do balde do gênero, ou uma lista vazia se não houver mídias.
+     */
+    List<T> ofGenre(Genres genre) {
+        List<T> bucket = (genre == null) ? null : genreIndex.get(genre);
+        return (bucket == null) ? List.of() : Collections.unmodifiableList(bucket);
+    }
+
+    /**
+     * Obtém uma visão somente leitura do índice por ano.
+     *
+     * @return Um mapa ordenado de ano para as mídias daquele ano.
+     */
+    NavigableMap<Integer, List<T>> byYear() {
+        return Collections.unmodifiableNavigableMap(yearIndex);
+    }
+
+    /**
+     * Obtém uma visão somente leitura do índice por gênero.
+     *
+     * @return Um mapa de gênero para as mídias daquele gênero.
+     */
+    Map<Genres, List<T>> byGenre() {
+        return Collections.unmodifiableMap(genreIndex);
+    }
+}
@@ -0,0 +1,581 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import com.davigui.mediajournal.Model.Enums.Genres;
+import com.davigui.mediajournal.Model.Enums.Months;
+import com.davigui.mediajournal.Model.Medias.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Classe estatica responsável por codificar a biblioteca em um snapshot binário
+ * compacto, alternativo aos quatro arquivos JSON, e por decodificá-lo.
+ * <p>
+ * Formato (versão 1), sem reflexão na leitura nem na escrita:
+ * <ul>
+ *     <li>cabeçalho: os bytes "MJBS" e a versão;</li>
+ *     <li>tabela de textos repetidos (elenco, plataformas, autores, editoras e diretores),
+ *     referenciados nas mídias pela posição na tabela;</li>
+ *     <li>livros, filmes e séries (com suas temporadas aninhadas) e o mapa de anos;</li>
+ *     <li>CRC32 de todo o conteúdo anterior, em 4 bytes.</li>
+ * </ul>
+ * Inteiros são varints (7 bits por byte), textos únicos são UTF-8 precedidos
+ * do tamanho, gêneros são gravados pelo ordinal e as datas "MÊS de ANO"
+ * pelo ordinal do mês e pelo ano. Valores nulos são gravados como 0,
+ * com os demais valores deslocados em 1.
+ */
+public class SnapshotCodec {
+    //Bytes iniciais de todo snapshot
+    private static final byte[] MAGIC = {'M', 'J', 'B', 'S'};
+    //Versão do formato gravada por este codificador
+    private static final int VERSION = 1;
+    //Marca de data nula
+    private static final int DATE_NULL = 0;
+    //Marca de data no formato "MÊS de ANO", gravada como mês e ano
+    private static final int DATE_MONTH = 1;
+    //Marca de data em outro formato, gravada como texto
+    private static final int DATE_TEXT = 2;
+    //Bit de mídia ou temporada vista
+    private static final int FLAG_SEEN = 1;
+    //Bit de livro possuído
+    private static final int FLAG_OWNED = 2;
+
+    /**
+     * Codifica uma fotografia da biblioteca e escreve o snapshot no fluxo dado.
+     * As mídias são codificadas antes da tabela de textos, que é escrita primeiro.
+     *
+     * @param snapshot A fotografia da biblioteca a ser codificada.
+     * @param out O fluxo onde o snapshot será escrito.
+     * @throws IOException Se ocorrer um erro ao escrever no fluxo.
+     */
+    public static void write(LibrarySnapshot snapshot, OutputStream out) throws IOException {
+        Encoder body = new Encoder();
+
+        body.varint(snapshot.getBooks().size());
+        for (Book book : snapshot.getBooks())
+            writeBook(body, book);
+
+        body.varint(snapshot.getMovies().size());
+        for (Movie movie : snapshot.getMovies())
+            writeMovie(body, movie);
+
+        body.varint(snapshot.getSeries().size());
+        for (Series series : snapshot.getSeries())
+            writeSeries(body, series);
+
+        TreeMap<Integer, Integer> years = snapshot.getYears().toMap();
+        body.varint(years.size());
+        for (Map.Entry<Integer, Integer> year : years.entrySet()) {
+            body.varint(year.getKey());
+            body.varint(year.getValue());
+        }
+
+        Encoder header = new Encoder();
+        header.bytes(MAGIC);
+        header.varint(VERSION);
+        header.varint(body.table.size());
+        for (String text : body.table)
+            header.string(text);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(header.buffer, 0, header.size);
+        checksum.update(body.buffer, 0, body.size);
+
+        out.write(header.buffer, 0, header.size);
+        out.write(body.buffer, 0, body.size);
+        new DataOutputStream(out).writeInt((int) checksum.getValue());
+        out.flush();
+    }
+
+    /**
+     * Lê um snapshot do fluxo dado e preenche a biblioteca com as mídias lidas.
+     *
+     * @param in O fluxo de onde o snapshot será lido.
+     * @param journal A biblioteca a ser preenchida.
+     * @throws IOException Se ocorrer um erro ao ler o fluxo ou se o snapshot for inválido.
+     */
+    public static void read(InputStream in, Library journal) throws IOException {
+        byte[] bytes = in.readAllBytes();
+        if (bytes.length < MAGIC.length + Integer.BYTES)
+            throw new StreamCorruptedException("Snapshot incompleto");
+
+        int end = bytes.length - Integer.BYTES;
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, end);
+        if ((int) checksum.getValue() != new DataInputStream(
+                new ByteArrayInputStream(bytes, end, Integer.BYTES)).readInt())
+            throw new StreamCorruptedException("Checksum do snapshot inválido");
+
+        if (!Arrays.equals(Arrays.copyOf(bytes, MAGIC.length), MAGIC))
+            throw new StreamCorruptedException("Arquivo não é um snapshot da biblioteca");
+
+        Decoder decoder = new Decoder(bytes, MAGIC.length, end);
+        ArrayList<Book> books;
+        ArrayList<Movie> movies;
+        ArrayList<Series> series;
+
+        try {
+            int version = decoder.varint();
+            if (version != VERSION)
+                throw new StreamCorruptedException("Versão de snapshot não suportada: " + version);
+
+            int tableSize = decoder.varint();
+            decoder.table = new String[tableSize];
+            for (int i = 0; i < tableSize; ++i)
+                decoder.table[i] = decoder.string();
+
+            int count = decoder.varint();
+            books = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i)
+                books.add(readBook(decoder));
+
+            count = decoder.varint();
+            movies = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i)
+                movies.add(readMovie(decoder));
+
+            count = decoder.varint();
+            series = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i)
+                series.add(readSeries(decoder));
+
+            //Os anos gravados são lidos apenas para validar o formato: a biblioteca os recalcula
+            count = decoder.varint();
+            for (int i = 0; i < count; ++i) {
+                decoder.varint();
+                decoder.varint();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        journal.setBookList(books);
+        journal.setMovieList(movies);
+        journal.setSeriesList(series);
+    }
+
+    /**
+     * Codifica um livro.
+     *
+     * @param out O codificador.
+     * @param book O livro.
+     */
+    private static void writeBook(Encoder out, Book book) {
+        writeMedia(out, book, book.isOwned() ? FLAG_OWNED : 0);
+        out.string(book.getIsbn());
+        out.shared(book.getAuthor());
+        out.shared(book.getPublisher());
+        writeDate(out, book.getSeenDate());
+    }
+
+    /**
+     * Decodifica um livro.
+     *
+     * @param in O decodificador.
+     * @return O livro lido.
+     */
+    private static Book readBook(Decoder in) {
+        String title = in.string();
+        int year = in.varint();
+        Genres genre = readGenre(in);
+        int rating = in.varint();
+        int flags = in.varint();
+        String review = in.string();
+
+        Book book = new Book(title, year, genre, in.string(), in.shared(), in.shared(),
+                (flags & FLAG_OWNED) != 0);
+        readState(book, rating, flags, review);
+        book.setSeenDate(readDate(in));
+        return book;
+    }
+
+    /**
+     * Codifica um filme.
+     *
+     * @param out O codificador.
+     * @param movie O filme.
+     */
+    private static void writeMovie(Encoder out, Movie movie) {
+        writeMedia(out, movie, 0);
+        out.sharedList(movie.getCast());
+        out.varint(movie.getDuration());
+        out.shared(movie.getDirection());
+        out.string(movie.getScript());
+        out.string(movie.getOriginalTitle());
+        out.sharedList(movie.getWhereToWatch());
+        writeDate(out, movie.getSeenDate());
+    }
+
+    /**
+     * Decodifica um filme.
+     *
+     * @param in O decodificador.
+     * @return O filme lido.
+     */
+    private static Movie readMovie(Decoder in) {
+        String title = in.string();
+        int year = in.varint();
+        Genres genre = readGenre(in);
+        int rating = in.varint();
+        int flags = in.varint();
+        String review = in.string();
+
+        Movie movie = new Movie(title, year, genre, in.sharedList(), in.varint(), in.shared(),
+                in.string(), in.string(), in.sharedList());
+        readState(movie, rating, flags, review);
+        movie.setSeenDate(readDate(in));
+        return movie;
+    }
+
+    /**
+     * Codifica uma série e suas temporadas.
+     *
+     * @param out O codificador.
+     * @param series A série.
+     */
+    private static void writeSeries(Encoder out, Series series) {
+        writeMedia(out, series, 0);
+        out.varint(series.getYearOfEnding());
+        out.sharedList(series.getCast());
+        out.string(series.getOriginalTitle());
+        out.sharedList(series.getWhereToWatch());
+
+        out.varint(series.getSeasons().size());
+        for (Season season : series.getSeasons()) {
+            out.varint(season.getSeasonNumber());
+            out.varint(season.getEpisodeCount());
+            out.varint(season.getYear());
+            out.varint(season.getRating());
+            out.varint(season.isSeen() ? FLAG_SEEN : 0);
+            out.string(season.getReview());
+        }
+    }
+
+    /**
+     * Decodifica uma série e suas temporadas.
+     *
+     * @param in O decodificador.
+     * @return A série lida.
+     */
+    private static Series readSeries(Decoder in) {
+        String title = in.string();
+        int year = in.varint();
+        Genres genre = readGenre(in);
+        int rating = in.varint();
+        int flags = in.varint();
+        String review = in.string();
+
+        Series series = new Series(title, year, genre, in.varint(), in.sharedList(), in.string(),
+                in.sharedList());
+        readState(series, rating, flags, review);
+
+        int count = in.varint();
+        List<Season> seasons = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            Season season = new Season(in.varint(), in.varint(), in.varint());
+            int seasonRating = in.varint();
+            if ((in.varint() & FLAG_SEEN) != 0)
+                season.setSeen();
+            season.setRating(seasonRating);
+            season.setReview(in.string());
+            seasons.add(season);
+        }
+        series.addSeasons(seasons);
+        return series;
+    }
+
+    /**
+     * Codifica os atributos comuns de uma mídia.
+     *
+     * @param out O codificador.
+     * @param media A mídia.
+     * @param flags Bits adicionais do tipo da mídia.
+     */
+    private static void writeMedia(Encoder out, Media media, int flags) {
+        out.string(media.getTitle());
+        out.varint(media.getYear());
+        out.varint(media.getGenre() == null ? 0 : media.getGenre().ordinal() + 1);
+        out.varint(media.getRating());
+        out.varint(flags | (media.isSeen() ? FLAG_SEEN : 0));
+        out.string(media.getReview());
+    }
+
+    /**
+     * Aplica a uma mídia recém-construída os atributos mutáveis lidos.
+     *
+     * @param media A mídia.
+     * @param rating A nota.
+     * @param flags Os bits lidos.
+     * @param review A review.
+     */
+    private static void readState(Media media, int rating, int flags, String review) {
+        if ((flags & FLAG_SEEN) != 0)
+            media.setSeen();
+        media.setRating(rating);
+        media.setReview(review);
+    }
+
+    /**
+     * Decodifica um gênero pelo ordinal.
+     *
+     * @param in O decodificador.
+     * @return O gênero, ou null.
+     */
+    private static Genres readGenre(Decoder in) {
+        int ordinal = in.varint();
+        return (ordinal == 0) ? null : Genres.values()[ordinal - 1];
+    }
+
+    /**
+     * Codifica uma data de visualização. Datas no formato "MÊS de ANO",
+     * geradas pelos serviços, são gravadas como o ordinal do mês e o ano.
+     *
+     * @param out O codificador.
+     * @param date A data (pode ser nula).
+     */
+    private static void writeDate(Encoder out, String date) {
+        if (date == null) {
+            out.varint(DATE_NULL);
+            return;
+        }
+
+        int separator = date.indexOf(" de ");
+        if (separator > 0) {
+            try {
+                Months month = Months.valueOf(date.substring(0, separator));
+                int year = Integer.parseInt(date.substring(separator + 4));
+                if (date.equals(month + " de " + year)) {
+                    out.varint(DATE_MONTH);
+                    out.varint(month.ordinal());
+                    out.varint(year);
+                    return;
+                }
+            } catch (IllegalArgumentException e) {
+                //Formato diferente: a data é gravada como texto
+            }
+        }
+        out.varint(DATE_TEXT);
+        out.string(date);
+    }
+
+    /**
+     * Decodifica uma data de visualização.
+     *
+     * @param in O decodificador.
+     * @return A data, ou null.
+     */
+    private static String readDate(Decoder in) {
+        return switch (in.varint()) {
+            case DATE_NULL -> null;
+            case DATE_MONTH -> Months.values()[in.varint()] + " de " + in.varint();
+            default -> in.string();
+        };
+    }
+
+    /**
+     * A classe Encoder acumula os bytes codificados em um array que cresce sob demanda
+     * e monta a tabela de textos repetidos.
+     */
+    private static class Encoder {
+        // Bytes codificados
+        private byte[] buffer = new byte[8192];
+        // Quantidade de bytes usados do buffer
+        private int size;
+        // Textos da tabela, na ordem das posições
+        private final List<String> table = new ArrayList<>();
+        // Posição de cada texto na tabela
+        private final Map<String, Integer> positions = new HashMap<>();
+
+        /**
+         * Codifica um inteiro como varint, 7 bits por byte.
+         *
+         * @param value O inteiro (tratado como sem sinal).
+         */
+        private void varint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        /**
+         * Codifica um texto único: tamanho (mais 1, 0 para nulo) e bytes UTF-8.
+         *
+         * @param text O texto (pode ser nulo).
+         */
+        private void string(String text) {
+            if (text == null) {
+                varint(0);
+                return;
+            }
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length + 1);
+            bytes(utf8);
+        }
+
+        /**
+         * Codifica um texto repetido pela sua posição na tabela (mais 1, 0 para nulo).
+         *
+         * @param text O texto (pode ser nulo).
+         */
+        private void shared(String text) {
+            if (text == null) {
+                varint(0);
+                return;
+            }
+            Integer position = positions.get(text);
+            if (position == null) {
+                position = table.size();
+                table.add(text);
+                positions.put(text, position);
+            }
+            varint(position + 1);
+        }
+
+        /**
+         * Codifica uma lista de textos repetidos: tamanho (mais 1, 0 para nula) e posições.
+         *
+         * @param texts A lista (pode ser nula).
+         */
+        private void sharedList(List<String> texts) {
+            if (texts == null) {
+                varint(0);
+                return;
+            }
+            varint(texts.size() + 1);
+            for (String text : texts)
+                shared(text);
+        }
+
+        /**
+         * Copia bytes para o buffer.
+         *
+         * @param bytes Os bytes.
+         */
+        private void bytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        /**
+         * Garante espaço para mais bytes no buffer.
+         *
+         * @param extra A quantidade de bytes necessária.
+         */
+        private void ensure(int extra) {
+            if (size + extra > buffer.length)
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+
+    /**
+     * A classe Decoder lê valores codificados de um array de bytes.
+     * Lança UncheckedIOException se os dados terminarem antes do esperado.
+     */
+    private static class Decoder {
+        // Bytes do snapshot
+        private final byte[] buffer;
+        // Fim dos dados (antes do checksum)
+        private final int end;
+        // Posição de leitura
+        private int position;
+        // Tabela de textos repetidos
+        private String[] table;
+
+        /**
+         * Construtor da classe Decoder.
+         *
+         * @param buffer Os bytes do snapshot.
+         * @param start A posição inicial de leitura.
+         * @param end O fim dos dados.
+         */
+        private Decoder(byte[] buffer, int start, int end) {
+            this.buffer = buffer;
+            this.end = end;
+            this.position = start;
+        }
+
+        /**
+         * Decodifica um varint.
+         *
+         * @return O inteiro lido.
+         */
+        private int varint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte next = next();
+                value |= (next & 0x7F) << shift;
+                if (next >= 0)
+                    return value;
+            }
+            throw new UncheckedIOException(new StreamCorruptedException("Varint inválido"));
+        }
+
+        /**
+         * Decodifica um texto único.
+         *
+         * @return O texto, ou null.
+         */
+        private String string() {
+            int length = varint();
+            if (length == 0)
+                return null;
+            --length;
+            check(length);
+            String text = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return text;
+        }
+
+        /**
+         * Decodifica um texto repetido pela posição na tabela.
+         *
+         * @return O texto, ou null.
+         */
+        private String shared() {
+            int position = varint();
+            return (position == 0) ? null : table[position - 1];
+        }
+
+        /**
+         * Decodifica uma lista de textos repetidos.
+         *
+         * @return A lista, ou null.
+         */
+        private List<String> sharedList() {
+            int size = varint();
+            if (size == 0)
+                return null;
+
+            List<String> texts = new ArrayList<>(size - 1);
+            for (int i = 1; i < size; ++i)
+                texts.add(shared());
+            return texts;
+        }
+
+        /**
+         * Lê o próximo byte.
+         *
+         * @return O byte lido.
+         */
+        private byte next() {
+            check(1);
+            return buffer[position++];
+        }
+
+        /**
+         * Verifica se ainda há a quantidade de bytes pedida antes do fim dos dados.
+         *
+         * @param count A quantidade de bytes.
+         */
+        private void check(int count) {
+            if (count < 0 || position + count > end)
+                throw new UncheckedIOException(new EOFException("Snapshot incompleto"));
+        }
+    }
+}
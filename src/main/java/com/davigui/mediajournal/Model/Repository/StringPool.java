@@ -0,0 +1,46 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import java.util.HashMap;
+
+/**
+ * A classe StringPool é um conjunto de textos compartilhados de uma biblioteca.
+ * Textos iguais que se repetem entre mídias (elenco, plataformas, autores, editoras
+ * e diretores) passam a apontar para uma única instância, em vez de uma cópia
+ * por mídia. Diferente de String.intern(), o conjunto pertence à biblioteca
+ * e é descartado junto com ela.
+ */
+class StringPool {
+    // Instância compartilhada de cada texto
+    private final HashMap<String, String> strings;
+
+    /**
+     * Construtor da classe StringPool.
+     * Inicializa o conjunto vazio.
+     */
+    StringPool() {
+        this.strings = new HashMap<>();
+    }
+
+    /**
+     * Obtém a instância compartilhada de um texto, registrando-o se ainda não existir.
+     *
+     * @param text O texto.
+     * @return A instância compartilhada igual ao texto, ou null se o texto for nulo.
+     */
+    String share(String text) {
+        if (text == null)
+            return null;
+
+        String shared = strings.putIfAbsent(text, text);
+        return (shared == null) ? text : shared;
+    }
+
+    /**
+     * Obtém a quantidade de textos distintos no conjunto.
+     *
+     * @return O tamanho do conjunto.
+     */
+    int size() {
+        return strings.size();
+    }
+}
@@ -0,0 +1,22 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import java.util.List;
+
+/**
+ * A interface TextIndex representa a busca textual em um índice de mídias,
+ * como um TrigramIndex. É o que a biblioteca expõe dos seus índices de texto:
+ * quem busca não adiciona nem remove mídias do índice.
+ *
+ * @param <T> O tipo de mídia indexada.
+ */
+@FunctionalInterface
+public interface TextIndex<T> {
+    /**
+     * Busca as mídias em que alguma chave contém o termo, sem diferenciar
+     * maiúsculas de minúsculas nem acentos.
+     *
+     * @param term O termo a ser buscado.
+     * @return Uma lista com as mídias encontradas, na ordem de cadastro.
+     */
+    List<T> search(String term);
+}
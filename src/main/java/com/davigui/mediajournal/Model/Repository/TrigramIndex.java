@@ -0,0 +1,224 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import com.davigui.mediajournal.Model.Medias.SearchKeys;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A classe TrigramIndex é um índice invertido de trigramas para buscas
+ * por substring sem diferenciar maiúsculas de minúsculas nem acentos.
+ * <p>
+ * Cada mídia é indexada pelas chaves de busca extraídas dela (título, autor,
+ * elenco...), já normalizadas pela classe SearchKeys e guardadas em cache na
+ * própria mídia. Cada sequência de três caracteres (trigrama)
+ * aponta para as mídias que a contêm. Uma busca consulta apenas as mídias
+ * da menor lista entre os trigramas do termo buscado e confirma cada candidata
+ * com contains(), garantindo o mesmo resultado de uma varredura completa.
+ * Termos com menos de três caracteres são verificados em todas as mídias,
+ * mas ainda sem normalizar os textos a cada busca.
+ * <p>
+ * Os resultados seguem a ordem em que as mídias foram adicionadas.
+ *
+ * @param <T> O tipo de mídia indexada.
+ */
+public class TrigramIndex<T> implements TextIndex<T> {
+    // Função que extrai as chaves de busca de uma mídia
+    private final Function<? super T, List<String>> keys;
+    // Entradas de todas as mídias, na ordem em que foram adicionadas
+    private final LinkedHashMap<T, Entry<T>> entries;
+    // Listas de entradas por trigrama, ordenadas pela ordem de adição
+    private final HashMap<Long, ArrayList<Entry<T>>> postings;
+    // Número de sequência da próxima entrada
+    private long nextSequence;
+
+    /**
+     * A classe Entry guarda uma mídia indexada, suas chaves de busca
+     * e seu número de sequência (a ordem de adição).
+     *
+     * @param <T> O tipo de mídia indexada.
+     */
+    private static class Entry<T> {
+        // Número de sequência da entrada
+        private final long sequence;
+        // A mídia indexada
+        private final T media;
+        // As chaves de busca da mídia
+        private final String[] keys;
+
+        /**
+         * Construtor da classe Entry.
+         *
+         * @param sequence   O número de sequência da entrada.
+         * @param media      A mídia indexada.
+         * @param keys       As chaves de busca da mídia.
+         */
+        private Entry(long sequence, T media, String[] keys) {
+            this.sequence = sequence;
+            this.media = media;
+            this.keys = keys;
+        }
+
+        /**
+         * Verifica se alguma das chaves da entrada contém o termo.
+         *
+         * @param termKey O termo normalizado.
+         * @return true se alguma chave contiver o termo, false caso contrário.
+         */
+        private boolean matches(String termKey) {
+            for (String key : keys) {
+                if (key.contains(termKey))
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Construtor da classe TrigramIndex.
+     *
+     * @param keys Função que extrai as chaves de busca (já normalizadas) de uma mídia.
+     */
+    TrigramIndex(Function<? super T, List<String>> keys) {
+        this.keys = keys;
+        this.entries = new LinkedHashMap<>();
+        this.postings = new HashMap<>();
+        this.nextSequence = 0;
+    }
+
+    /**
+     * Busca as mídias em que alguma chave contém o termo, sem diferenciar
+     * maiúsculas de minúsculas nem acentos. O termo é normalizado e tem
+     * os espaços das pontas removidos, como nas buscas por filtro.
+     *
+     * @param term O termo a ser buscado.
+     * @return Uma lista com as mídias encontradas, na ordem de adição.
+     */
+    @Override
+    public List<T> search(String term) {
+        String termKey = SearchKeys.normalize(term).trim();
+        List<T> found = new ArrayList<>();
+
+        Collection<Entry<T>> candidates = candidatesFor(termKey);
+        for (Entry<T> entry : candidates) {
+            if (entry.matches(termKey))
+                found.add(entry.media);
+        }
+        return found;
+    }
+
+    /**
+     * Adiciona uma mídia ao índice.
+     *
+     * @param media A mídia a ser indexada.
+     */
+    void add(T media) {
+        if (entries.containsKey(media))
+            return;
+
+        Entry<T> entry = new Entry<>(nextSequence++, media, keysOf(media));
+        entries.put(media, entry);
+
+        for (long trigram : trigramsOf(entry.keys))
+            postings.computeIfAbsent(trigram, key -> new ArrayList<>()).add(entry);
+    }
+
+    /**
+     * Remove uma mídia do índice.
+     *
+     * @param media A mídia a ser removida.
+     */
+    void remove(T media) {
+        Entry<T> entry = entries.remove(media);
+        if (entry == null)
+            return;
+
+        for (long trigram : trigramsOf(entry.keys)) {
+            ArrayList<Entry<T>> posting = postings.get(trigram);
+            int position = Collections.binarySearch(posting, entry,
+                    Comparator.comparingLong(other -> other.sequence));
+            posting.remove(position);
+            if (posting.isEmpty())
+                postings.remove(trigram);
+        }
+    }
+
+    /**
+     * Reconstrói o índice a partir de uma lista de mídias.
+     *
+     * @param medias A lista de mídias (pode ser nula).
+     */
+    void rebuild(List<T> medias) {
+        entries.clear();
+        postings.clear();
+        nextSequence = 0;
+
+        if (medias != null)
+            for (T media : medias)
+                add(media);
+    }
+
+    /**
+     * Seleciona as entradas candidatas para um termo: a menor lista entre
+     * os trigramas do termo, ou todas as entradas se o termo for curto demais.
+     *
+     * @param termKey O termo normalizado.
+     * @return As entradas candidatas, na ordem de adição.
+     */
+    private Collection<Entry<T>> candidatesFor(String termKey) {
+        if (termKey.length() < 3)
+            return entries.values();
+
+        ArrayList<Entry<T>> smallest = null;
+        for (int i = 0; i + 3 <= termKey.length(); ++i) {
+            ArrayList<Entry<T>> posting = postings.get(trigram(termKey, i));
+            if (posting == null)
+                return List.of();
+            if (smallest == null || posting.size() < smallest.size())
+                smallest = posting;
+        }
+        return smallest;
+    }
+
+    /**
+     * Extrai as chaves de busca de uma mídia. Chaves nulas são ignoradas.
+     *
+     * @param media A mídia.
+     * @return As chaves de busca.
+     */
+    private String[] keysOf(T media) {
+        List<String> mediaKeys = keys.apply(media);
+        if (mediaKeys == null)
+            return new String[0];
+
+        return mediaKeys.stream().filter(Objects::nonNull).toArray(String[]::new);
+    }
+
+    /**
+     * Obtém o conjunto de trigramas distintos de uma lista de chaves.
+     *
+     * @param keys As chaves de busca.
+     * @return Os trigramas codificados.
+     */
+    private static Set<Long> trigramsOf(String[] keys) {
+        Set<Long> trigrams = new HashSet<>();
+        for (String text : keys) {
+            for (int i = 0; i + 3 <= text.length(); ++i)
+                trigrams.add(trigram(text, i));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Codifica os três caracteres a partir de uma posição em um único long.
+     *
+     * @param text     O texto.
+     * @param position A posição do primeiro caractere.
+     * @return O trigrama codificado.
+     */
+    private static long trigram(String text, int position) {
+        return ((long) text.charAt(position) << 32)
+                | ((long) text.charAt(position + 1) << 16)
+                | text.charAt(position + 2);
+    }
+}
@@ -0,0 +1,165 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import com.davigui.mediajournal.Model.Enums.SortOrder;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * A classe YearHistogram conta quantas mídias existem em cada ano.
+ * Usa um vetor de int indexado pelo ano, cobrindo do menor ao maior ano registrado,
+ * evitando as buscas e o boxing de um TreeMap de Integer. Os anos são percorridos
+ * em ordem crescente ou decrescente diretamente pelo vetor.
+ */
+public class YearHistogram {
+    // Anos extras alocados além do ano que forçou o crescimento do vetor
+    private static final int GROWTH_SLACK = 16;
+
+    // Quantidade de mídias por ano; a posição i corresponde ao ano firstYear + i
+    private int[] counts;
+    // Ano correspondente à primeira posição do vetor
+    private int firstYear;
+    // Quantidade de anos com pelo menos uma mídia
+    private int size;
+
+    /**
+     * Construtor da classe YearHistogram.
+     * Inicializa o histograma vazio, sem nenhum ano alocado.
+     */
+    public YearHistogram() {
+        this.counts = new int[0];
+        this.firstYear = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Construtor de cópia da classe YearHistogram.
+     *
+     * @param other O histograma a ser copiado.
+     */
+    YearHistogram(YearHistogram other) {
+        this.counts = other.counts.clone();
+        this.firstYear = other.firstYear;
+        this.size = other.size;
+    }
+
+    /**
+     * Adiciona uma ocorrência do ano, alocando o ano no vetor se necessário.
+     *
+     * @param year O ano.
+     */
+    void add(int year) {
+        ensureRange(year);
+
+        if (counts[year - firstYear]++ == 0)
+            ++size;
+    }
+
+    /**
+     * Remove uma ocorrência do ano, se houver.
+     *
+     * @param year O ano.
+     * @return true se uma ocorrência foi removida, false se o ano não tinha mídias.
+     */
+    boolean remove(int year) {
+        if (count(year) == 0)
+            return false;
+
+        if (--counts[year - firstYear] == 0)
+            --size;
+        return true;
+    }
+
+    /**
+     * Remove todas as ocorrências, mantendo o vetor alocado.
+     */
+    void clear() {
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    /**
+     * Obtém a quantidade de mídias de um ano.
+     *
+     * @param year O ano.
+     * @return A quantidade de mídias do ano (0 se não houver).
+     */
+    public int count(int year) {
+        int position = year - firstYear;
+        return (position < 0 || position >= counts.length) ? 0 : counts[position];
+    }
+
+    /**
+     * Obtém a quantidade de anos com pelo menos uma mídia.
+     *
+     * @return A quantidade de anos registrados.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Verifica se nenhum ano tem mídias.
+     *
+     * @return true se o histograma estiver vazio, false caso contrário.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Percorre os anos com pelo menos uma mídia na ordem pedida.
+     *
+     * @param order A ordem dos anos.
+     * @param action A ação executada para cada ano.
+     */
+    public void forEach(SortOrder order, IntConsumer action) {
+        if (order == SortOrder.ASCENDING) {
+            for (int i = 0; i < counts.length; ++i)
+                if (counts[i] != 0)
+                    action.accept(firstYear + i);
+        } else {
+            for (int i = counts.length - 1; i >= 0; --i)
+                if (counts[i] != 0)
+                    action.accept(firstYear + i);
+        }
+    }
+
+    /**
+     * Obtém os anos registrados e suas quantidades como um mapa ordenado,
+     * no formato usado pelos arquivos da biblioteca.
+     *
+     * @return Um novo mapa de ano para a quantidade de mídias daquele ano.
+     */
+    public TreeMap<Integer, Integer> toMap() {
+        TreeMap<Integer, Integer> years = new TreeMap<>();
+        forEach(SortOrder.ASCENDING, year -> years.put(year, count(year)));
+        return years;
+    }
+
+    /**
+     * Garante que o vetor cubra o ano dado, aumentando-o com uma folga
+     * na direção do crescimento.
+     *
+     * @param year O ano.
+     */
+    private void ensureRange(int year) {
+        if (counts.length == 0) {
+            counts = new int[1];
+            firstYear = year;
+            return;
+        }
+
+        int lastYear = firstYear + counts.length - 1;
+        if (year < firstYear) {
+            int newFirst = year - GROWTH_SLACK;
+            int[] grown = new int[lastYear - newFirst + 1];
+            System.arraycopy(counts, 0, grown, firstYear - newFirst, counts.length);
+            counts = grown;
+            firstYear = newFirst;
+        } else if (year > lastYear) {
+            counts = Arrays.copyOf(counts, year + GROWTH_SLACK - firstYear + 1);
+        }
+    }
+}
@@ -212,19 +212,11 @@ public class DisplayMenu {
             switch (option) {
 
                 case 1:
-                    List<T> listAsc = service.sortAscending(mediaList);
-                    for (Media media : listAsc) {
-                        System.out.println(media);
-                        System.out.println("---------------------");
-                    }
+                    Printer.printList(scanner, service.sortAscending(mediaList));
                     break;
 
                 case 2:
-                    List<T> listDesc = service.sortDescending(mediaList);
-                    for (Media media : listDesc) {
-                        System.out.println(media);
-                        System.out.println("---------------------");
-                    }
+                    Printer.printList(scanner, service.sortDescending(mediaList));
                     break;
 
                 case 3:
@@ -272,38 +264,26 @@ public class DisplayMenu {
      * Imprime um mapa de gènero - lista de mídias.
      * Itera cada par chave-valor no mapa e na lista desse valor.
      * Assim, as obras de um gênero X são impressas em sequência.
+     * A impressão é paginada e bufferizada pelo Printer.
      *
      * @param mapGenreMedia Mapa contendo gêneros como chave e listas de mídias como valor.
      * @param <T> Tipo de mídia que estende a classe Media.
      */
     private <T extends Media> void printMapGenreMedia(Map<Genres, List<T>> mapGenreMedia) {
-
-        for (Map.Entry<Genres, List<T>> thisGenreMedia : mapGenreMedia.entrySet()) {
-            System.out.println(thisGenreMedia.getKey());
-            for (Media media : thisGenreMedia.getValue()) {
-                System.out.println(media);
-                System.out.println("---------------------");
-            }
-        }
+        Printer.printGroups(scanner, mapGenreMedia);
     }
 
     /**
      * Imprime um mapa de ano - lista de mídias.
      * Itera cada par chave-valor no mapa e na lista desse valor.
      * Assim, as obras de um ano XXXX são impressas em sequência.
+     * A impressão é paginada e bufferizada pelo Printer.
      *
      * @param mapYearMedia Mapa contendo anos como chave e listas de mídias como valor.
      * @param <T> Tipo de mídia que estende a classe Media.
      */
     private <T extends Media> void printMapYearMedia(Map<Integer, List<T>> mapYearMedia) {
-        for (Map.Entry<Integer, List<T>> thisYearMedia : mapYearMedia.entrySet()) {
-
-            System.out.println(thisYearMedia.getKey());
-            for (Media media : thisYearMedia.getValue()){
-                System.out.println(media);
-                System.out.println("------------------------");
-            }
-        }
+        Printer.printGroups(scanner, mapYearMedia);
     }
 
     /**
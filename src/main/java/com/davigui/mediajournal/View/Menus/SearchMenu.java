@@ -294,45 +294,39 @@ public class SearchMenu {
     /**
      * Imprime a lista de livros encontrados pela busca.
      * Se estiver vazia, imprime uma mensagem de nenhum livro encontrado.
+     * A impressão é paginada e bufferizada pelo Printer.
      *
      * @param bookList Lista de livros a ser exibida.
      */
     private void printBookList(List<Book> bookList) {
         if (bookList.isEmpty())
             System.out.println(Colors.red + "Nenhum livro encontrado!" + Colors.rst);
-        for (Book book : bookList) {
-            System.out.println(book);
-            System.out.println("---------------------");
-        }
+        Printer.printList(scanner, bookList);
     }
 
     /**
      * Imprime a lista de filmes encontrados pela busca.
      * Se estiver vazia, imprime uma mensagem de nenhum filme encontrado.
+     * A impressão é paginada e bufferizada pelo Printer.
      *
      * @param movieList Lista de filmes a ser exibida.
      */
     private void printMovieList(List<Movie> movieList) {
         if (movieList.isEmpty())
             System.out.println(Colors.red + "Nenhum filme encontrado!" + Colors.rst);
-        for (Movie movie : movieList) {
-            System.out.println(movie);
-            System.out.println("---------------------");
-        }
+        Printer.printList(scanner, movieList);
     }
 
     /**
      * Imprime a lista de séries encontradas, incluindo suas temporadas.
      * Se estiver vazia, imprime uma mensagem de nenhuma série encontrada.
+     * A impressão é paginada e bufferizada pelo Printer.
      *
      * @param seriesList Lista de séries a ser exibida.
      */
     private void printSeriesList(List<Series> seriesList) {
         if (seriesList.isEmpty())
             System.out.println(Colors.red + "Nenhuma série encontrada!" + Colors.rst);
-        for (Series series : seriesList) {
-            System.out.println(series);
-            System.out.println("---------------------");
-        }
+        Printer.printList(scanner, seriesList);
     }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.davigui.mediajournal.View.Prompts;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * A classe Printer imprime as listagens de mídias dos menus.
+ * <p>
+ * As mídias são escritas em um PrintWriter sobre um buffer grande, sem descarregar
+ * a cada linha como o System.out, e o buffer só é descarregado ao fim de cada página
+ * e de cada listagem. Assim, listar dezenas de milhares de mídias não faz uma
+ * escrita no terminal por linha.
+ * <p>
+ * As listagens são paginadas: a cada PAGE_SIZE mídias, o usuário escolhe se
+ * continua ou volta ao menu. As mídias são percorridas à medida que são impressas,
+ * então as páginas não exibidas nunca são montadas.
+ * <p>
+ * Como os menus continuam usando o System.out, todo método desta classe descarrega
+ * o buffer antes de retornar, para que as saídas não se misturem.
+ */
+public final class Printer {
+    // Quantidade de mídias exibidas por página
+    public static final int PAGE_SIZE = 20;
+    // Tamanho do buffer de saída, em bytes
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Separador impresso depois de cada mídia
+    private static final String SEPARATOR = "---------------------";
+    // Saída com buffer sobre a saída padrão, na mesma codificação do System.out
+    private static final PrintWriter out = new PrintWriter(new OutputStreamWriter(
+            new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), BUFFER_SIZE),
+            System.out.charset()), false);
+
+    /**
+     * Imprime uma lista de mídias, página por página, cada uma seguida do separador.
+     *
+     * @param scanner O objeto Scanner para leitura da entrada do usuário.
+     * @param medias As mídias a serem impressas.
+     */
+    public static void printList(Scanner scanner, Iterable<?> medias) {
+        Page page = new Page(scanner);
+        printAll(page, null, medias.iterator());
+        out.flush();
+    }
+
+    /**
+     * Imprime um mapa de grupos de mídias (por gênero ou por ano), página por página.
+     * A chave de cada grupo é impressa antes das suas mídias.
+     *
+     * @param scanner O objeto Scanner para leitura da entrada do usuário.
+     * @param groups O mapa de chave para as mídias do grupo.
+     */
+    public static void printGroups(Scanner scanner, Map<?, ? extends Iterable<?>> groups) {
+        Page page = new Page(scanner);
+
+        for (Map.Entry<?, ? extends Iterable<?>> group : groups.entrySet()) {
+            if (!printAll(page, group.getKey(), group.getValue().iterator()))
+                break;
+        }
+        out.flush();
+    }
+
+    /**
+     * Imprime as mídias de um iterador até o fim ou até o usuário parar a listagem.
+     * O cabeçalho é impresso junto da primeira mídia, na mesma página que ela.
+     *
+     * @param page A página atual da listagem.
+     * @param header O cabeçalho do grupo de mídias, ou null se não houver.
+     * @param medias O iterador das mídias.
+     * @return true se todas as mídias foram impressas, false se o usuário parou.
+     */
+    private static boolean printAll(Page page, Object header, Iterator<?> medias) {
+        if (header != null && !medias.hasNext())
+            out.println(header);
+
+        while (medias.hasNext()) {
+            if (!page.next())
+                return false;
+            if (header != null) {
+                out.println(header);
+                header = null;
+            }
+            out.println(medias.next());
+            out.println(SEPARATOR);
+        }
+        return true;
+    }
+
+    /**
+     * A classe Page conta as mídias impressas na página atual de uma listagem.
+     */
+    private static class Page {
+        // Scanner para leitura da escolha do usuário ao fim de cada página
+        private final Scanner scanner;
+        // Quantidade de mídias impressas na página atual
+        private int printed;
+        // Quantidade de mídias impressas na listagem
+        private int total;
+
+        /**
+         * Construtor da classe Page.
+         *
+         * @param scanner O objeto Scanner para leitura da entrada do usuário.
+         */
+        Page(Scanner scanner) {
+            this.scanner = scanner;
+            this.printed = 0;
+            this.total = 0;
+        }
+
+        /**
+         * Reserva o lugar da próxima mídia. Se a página estiver cheia, descarrega
+         * o buffer e pergunta ao usuário se a listagem continua.
+         *
+         * @return true se a próxima mídia deve ser impressa, false se o usuário parou.
+         */
+        boolean next() {
+            if (printed == PAGE_SIZE) {
+                out.println(Colors.green + "-- " + total + " mídias exibidas. Enter para continuar, 0 para voltar --"
+                        + Colors.rst);
+                out.flush();
+
+                if (!scanner.hasNextLine() || scanner.nextLine().trim().equals("0"))
+                    return false;
+                printed = 0;
+            }
+            ++printed;
+            ++total;
+            return true;
+        }
+    }
+}
@@ -4,11 +4,10 @@ import com.davigui.mediajournal.Controller.BookService;
 import com.davigui.mediajournal.Controller.CommonService;
 import com.davigui.mediajournal.MainFX;
 import com.davigui.mediajournal.Model.Medias.Book;
+import com.davigui.mediajournal.Model.Medias.Stars;
 import com.davigui.mediajournal.ViewFXControllers.RateScreens.RateScreenController;
 import com.davigui.mediajournal.ViewFXControllers.RateScreens.SeenBookScreenController;
 import com.davigui.mediajournal.ViewFXControllers.RegisterScreens.RegisterBookScreenController;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -102,38 +101,29 @@ public class BooksTabContentController extends MediaContentController<Book> {
      * incluindo propriedades como título, ano, avaliação, autor, ISBN, editora
      * e data de leitura.
      * Como os métodos do modelo retornam tipos comuns (e não propriedades observáveis),
-     * é necessário encapsular os valores em {@code Property} ao configurar as colunas,
+     * os valores são encapsulados em propriedades guardadas pelo {@code rowCache},
+     * criadas uma única vez por livro exibido.
      */
     @Override
     protected void configureTable(){
-        //Precisa criar o Property pois nao irei mudar o Model
-        titleColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getTitle()));
+        //O rowCache cria o Property pois nao irei mudar o Model
+        titleColumn.setCellValueFactory(rowCache.column(Book::getTitle));
 
-        /*Alem do Property, tem que usar asObject porque getYear e getRating retornam
-        int e nao Integer (objeto)*/
-        yearColumn.setCellValueFactory(cellData ->
-                (new SimpleIntegerProperty(cellData.getValue().getYear())).asObject());
+        yearColumn.setCellValueFactory(rowCache.column(Book::getYear));
 
-        ratingColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty("★".repeat(cellData.getValue().getRating())));
+        ratingColumn.setCellValueFactory(rowCache.column(book -> Stars.of(book.getRating())));
 
         //Daqui pra frente e a mesma ideia do titulo, entao nao irei explicar
-        authorColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getAuthor()));
+        authorColumn.setCellValueFactory(rowCache.column(Book::getAuthor));
 
-        isbnColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getIsbn()));
+        isbnColumn.setCellValueFactory(rowCache.column(Book::getIsbn));
 
-        publisherColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getPublisher()));
+        publisherColumn.setCellValueFactory(rowCache.column(Book::getPublisher));
 
-        seenDateColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getSeenDate()));
+        seenDateColumn.setCellValueFactory(rowCache.column(Book::getSeenDate));
 
         //Se existir, marca com o Vzinho. Se não, marca um X
-        ownedColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().isOwned() ? "✔" : "✘"));
+        ownedColumn.setCellValueFactory(rowCache.column(book -> book.isOwned() ? "✔" : "✘"));
     }
 
     /**
@@ -158,23 +148,23 @@ public class BooksTabContentController extends MediaContentController<Book> {
     /**
      * Realiza a busca por autor.
      * <p>
-     * A busca é executada pelo controlador de modelo de livros com base no autor
-     * e a lista retornada é atribuida à lista observável de mídias.
+     * A busca é executada pelo controlador de modelo de livros com base no autor.
      * @param author O autor do livro
+     * @return A lista de livros encontrados
      */
-    private void authorSearch(String author){
-        mediaObservableList.setAll(bookService.searchBookByAuthor(author));
+    private List<Book> authorSearch(String author){
+        return bookService.searchBookByAuthor(author);
     }
 
     /**
      * Realiza a busca por ISBN.
      * <p>
-     * A busca é executada pelo controlador de modelo de livros com base no ISBN
-     * e a lista retornada é atribuida à lista observável de mídias.
+     * A busca é executada pelo controlador de modelo de livros com base no ISBN.
      * @param isbn O código ISBN do livro
+     * @return A lista de livros encontrados
      */
-    private void isbnSearch(String isbn) {
-        mediaObservableList.setAll(bookService.searchBookByIsbn(isbn));
+    private List<Book> isbnSearch(String isbn) {
+        return bookService.searchBookByIsbn(isbn);
     }
 
     /**
@@ -183,17 +173,21 @@ public class BooksTabContentController extends MediaContentController<Book> {
      * Este método é chamado quando o critério de filtro selecionado não
      * pertence aos tipos genéricos na superclasse (título, ano e gênero).
      *
+     * @param filterType O critério de busca selecionado
      * @param filter O filtro inserido no campo de texto
+     * @return A lista de livros encontrados
      */
     @Override
-    protected void handleSpecificSearch(String filter) {
-        switch (selectedFilter.getValue()){
+    protected List<Book> handleSpecificSearch(String filterType, String filter) {
+        switch (filterType){
             case "Autor":
-                authorSearch(filter);
-                break;
+                return authorSearch(filter);
 
             case "ISBN":
-                isbnSearch(filter);
+                return isbnSearch(filter);
+
+            default:
+                return List.of();
         }
     }
 
@@ -210,7 +204,7 @@ public class BooksTabContentController extends MediaContentController<Book> {
     protected void handleMediaInfo(Book book) {
         titleYearInfo.setText(book.getTitle() + " (" + book.getYear() + ")");
         genreInfo.setText(book.getGenre().toString());
-        ratingInfo.setText("★".repeat(book.getRating()));
+        ratingInfo.setText(Stars.of(book.getRating()));
         if (book.getReview() == null)
             reviewInfo.setText("RESENHA: Sem resenha atribuida");
         else
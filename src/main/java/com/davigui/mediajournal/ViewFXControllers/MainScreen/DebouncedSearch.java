@@ -0,0 +1,222 @@
+package com.davigui.mediajournal.ViewFXControllers.MainScreen;
+
+import javafx.application.Platform;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A classe DebouncedSearch executa as buscas digitadas pelo usuário fora da thread do JavaFX.
+ * <p>
+ * Cada busca só começa depois de um período sem novas buscas (quiet period), então uma
+ * palavra digitada gera uma única busca em vez de uma por caractere. Uma busca ainda não
+ * iniciada é cancelada quando outra chega; uma busca já iniciada termina, mas o seu resultado
+ * é descartado. Apenas o resultado da busca mais recente é aplicado, na thread do JavaFX.
+ * <p>
+ * Uma busca que lança uma exceção não aplica nenhum resultado e é contada como falha;
+ * a lista exibida continua a mesma.
+ * <p>
+ * A duração da última busca e as quantidades de buscas aplicadas, canceladas, descartadas
+ * e com falha ficam disponíveis como métricas.
+ *
+ * @param <T> O tipo de mídia buscada.
+ */
+public class DebouncedSearch<T> {
+    // Período sem novas buscas padrão
+    public static final Duration DEFAULT_QUIET_PERIOD = Duration.ofMillis(250);
+
+    // Thread compartilhada pelas abas, onde as buscas são executadas
+    private static final ScheduledExecutorService searcher = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "media-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Período sem novas buscas antes de uma busca começar
+    private final Duration quietPeriod;
+    // Ação que aplica o resultado, executada na thread do JavaFX
+    private final Consumer<List<T>> apply;
+    // Busca mais recente (usada apenas na thread do JavaFX, null se não houver)
+    private Query latest;
+    // Duração da última busca aplicada, do início da execução até a aplicação, em nanossegundos
+    private volatile long lastLatency;
+    // Quantidade de buscas aplicadas
+    private final AtomicLong completed;
+    // Quantidade de buscas canceladas antes de começar
+    private final AtomicLong cancelled;
+    // Quantidade de buscas executadas cujo resultado foi descartado
+    private final AtomicLong dropped;
+    // Quantidade de buscas que lançaram uma exceção
+    private final AtomicLong failed;
+
+    /**
+     * Construtor da classe DebouncedSearch.
+     *
+     * @param quietPeriod O período sem novas buscas antes de uma busca começar.
+     * @param apply A ação que aplica o resultado, executada na thread do JavaFX.
+     */
+    public DebouncedSearch(Duration quietPeriod, Consumer<List<T>> apply) {
+        this.quietPeriod = quietPeriod;
+        this.apply = apply;
+        this.latest = null;
+        this.completed = new AtomicLong();
+        this.cancelled = new AtomicLong();
+        this.dropped = new AtomicLong();
+        this.failed = new AtomicLong();
+    }
+
+    /**
+     * Agenda uma busca para depois do período sem novas buscas, substituindo a anterior.
+     * Deve ser chamado na thread do JavaFX; a busca não deve ler componentes da interface.
+     *
+     * @param search A busca, executada fora da thread do JavaFX.
+     */
+    public void submit(Supplier<List<T>> search) {
+        cancel();
+
+        Query query = new Query(search);
+        latest = query;
+        query.future = searcher.schedule(query, quietPeriod.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Cancela a busca mais recente, de forma que nenhum resultado pendente seja aplicado.
+     * Deve ser chamado na thread do JavaFX, por exemplo antes de recarregar a lista inteira.
+     */
+    public void cancel() {
+        if (latest != null && latest.started.compareAndSet(false, true)) {
+            latest.future.cancel(false);
+            cancelled.incrementAndGet();
+        }
+        latest = null;
+    }
+
+    /**
+     * Obtém a duração da última busca aplicada, do início da execução até a aplicação do resultado.
+     *
+     * @return A duração da última busca (zero se nenhuma foi aplicada).
+     */
+    public Duration getLastQueryLatency() {
+        return Duration.ofNanos(lastLatency);
+    }
+
+    /**
+     * Obtém a quantidade de buscas cujo resultado foi aplicado.
+     *
+     * @return A quantidade de buscas aplicadas.
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * Obtém a quantidade de buscas canceladas antes de começar, por causa de uma busca mais nova.
+     *
+     * @return A quantidade de buscas canceladas.
+     */
+    public long getCancelledCount() {
+        return cancelled.get();
+    }
+
+    /**
+     * Obtém a quantidade de buscas executadas cujo resultado foi descartado
+     * por causa de uma busca mais nova.
+     *
+     * @return A quantidade de buscas descartadas.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Obtém a quantidade de buscas que lançaram uma exceção, sem resultado aplicado.
+     *
+     * @return A quantidade de buscas com falha.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Aplica o resultado de uma busca, se ela ainda for a mais recente.
+     * Executado na thread do JavaFX.
+     *
+     * @param query A busca.
+     * @param result O resultado da busca.
+     * @param start O início da execução da busca, em nanossegundos.
+     */
+    private void applyResult(Query query, List<T> result, long start) {
+        if (query != latest) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        latest = null;
+        apply.accept(result);
+        lastLatency = System.nanoTime() - start;
+        completed.incrementAndGet();
+    }
+
+    /**
+     * Registra uma busca que lançou uma exceção e, se ela ainda for a mais recente,
+     * deixa de esperá-la. Executado na thread do JavaFX.
+     *
+     * @param query A busca.
+     */
+    private void failResult(Query query) {
+        if (query == latest)
+            latest = null;
+        failed.incrementAndGet();
+    }
+
+    /**
+     * A classe Query representa uma busca agendada.
+     */
+    private class Query implements Runnable {
+        // A busca a ser executada
+        private final Supplier<List<T>> search;
+        // Indica se a busca já começou ou foi cancelada; quem marcar primeiro decide
+        private final AtomicBoolean started;
+        // Execução agendada da busca
+        private ScheduledFuture<?> future;
+
+        /**
+         * Construtor da classe Query.
+         *
+         * @param search A busca a ser executada.
+         */
+        Query(Supplier<List<T>> search) {
+            this.search = search;
+            this.started = new AtomicBoolean();
+        }
+
+        /**
+         * Executa a busca, se ela não tiver sido cancelada, e entrega o resultado
+         * para a thread do JavaFX. Uma exceção da busca é entregue como falha,
+         * em vez de ficar presa no futuro agendado.
+         */
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true))
+                return;
+
+            long start = System.nanoTime();
+            List<T> result;
+            try {
+                result = search.get();
+            } catch (RuntimeException e) {
+                Platform.runLater(() -> failResult(this));
+                return;
+            }
+            Platform.runLater(() -> applyResult(this, result, start));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.davigui.mediajournal.ViewFXControllers.MainScreen;
+
+import com.davigui.mediajournal.Model.Enums.StorageFormat;
+import com.davigui.mediajournal.Model.Repository.AutoSaver;
+import com.davigui.mediajournal.Model.Repository.ConcurrentLibrary;
+import com.davigui.mediajournal.Model.Repository.DataOperations;
+import com.davigui.mediajournal.Model.Repository.Library;
+import com.davigui.mediajournal.Model.Repository.LoadProgress;
+import com.davigui.mediajournal.Model.Result.IResult;
+import javafx.concurrent.Task;
+
+/**
+ * Classe estatica que cria as tarefas do JavaFX ({@code javafx.concurrent.Task})
+ * de leitura e de salvamento da biblioteca.
+ * <p>
+ * As tarefas executam fora da thread do JavaFX; o andamento, a mensagem e o resultado
+ * são entregues na thread do JavaFX, através das propriedades e dos eventos da tarefa.
+ */
+public class LibraryTasks {
+
+    /**
+     * Cria a tarefa de leitura da biblioteca.
+     * O andamento é a quantidade de bytes lidos do tamanho total dos arquivos,
+     * e a mensagem informa também a quantidade de mídias lidas.
+     * A biblioteca é uma ConcurrentLibrary, que pode ser lida fora da thread do JavaFX.
+     *
+     * @return A tarefa, ainda não iniciada, cujo valor é a biblioteca carregada.
+     */
+    public static Task<Library> load() {
+        return new Task<>() {
+            @Override
+            protected Library call() {
+                updateMessage("Carregando biblioteca...");
+
+                LoadProgress progress = (items, bytesRead, totalBytes) -> {
+                    updateProgress(bytesRead, totalBytes);
+                    updateMessage(String.format("Carregando biblioteca... %d mídias lidas (%d de %d KB)",
+                            items, bytesRead / 1024, totalBytes / 1024));
+                };
+
+                return DataOperations.loadAsync(new ConcurrentLibrary(), StorageFormat.JSON, progress).join();
+            }
+        };
+    }
+
+    /**
+     * Cria a tarefa do último salvamento da biblioteca, ao fechar a aplicação.
+     * Quando a tarefa executa, o salvamento automático é encerrado e a fotografia da
+     * biblioteca é tirada na thread da tarefa; a tarefa então aguarda a escrita, que
+     * acontece depois de algum salvamento em andamento.
+     *
+     * @param autoSaver O salvamento automático da biblioteca.
+     * @return A tarefa, ainda não iniciada, cujo valor é o resultado do salvamento.
+     */
+    public static Task<IResult> save(AutoSaver autoSaver) {
+        return new Task<>() {
+            @Override
+            protected IResult call() {
+                updateMessage("Salvando biblioteca...");
+                updateProgress(-1, 1);
+                return autoSaver.closeAsync().join();
+            }
+        };
+    }
+
+    /**
+     * Inicia uma tarefa em uma thread própria, que não impede o fim da aplicação.
+     *
+     * @param task A tarefa a ser iniciada.
+     */
+    public static void start(Task<?> task) {
+        Thread thread = new Thread(task, "library-task");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,222 @@
+package com.davigui.mediajournal.ViewFXControllers.MainScreen;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A classe LiveFilteredList é uma lista observável, somente leitura, que exibe as mídias
+ * de uma lista de origem que satisfazem um filtro, na ordem da lista de origem.
+ * <p>
+ * Ao trocar o filtro ou a lista de origem, a lista não é substituída inteira: as mídias
+ * que continuam visíveis permanecem no lugar e apenas as que entraram ou saíram geram
+ * eventos de alteração, em uma única notificação. Assim, a tabela só atualiza as linhas
+ * afetadas em vez de recriar todas a cada busca.
+ * <p>
+ * As mídias são comparadas por identidade, não por equals(). Deve ser usada apenas na
+ * thread do JavaFX.
+ *
+ * @param <T> O tipo de mídia da lista.
+ */
+public class LiveFilteredList<T> extends ObservableListBase<T> {
+    // Quantidade máxima de trechos alterados notificados separadamente
+    private static final int MAX_RUNS = 64;
+
+    // Lista de origem, com todas as mídias
+    private List<T> source;
+    // Filtro atual (null exibe todas as mídias)
+    private Predicate<? super T> predicate;
+    // Mídias visíveis, na ordem da lista de origem
+    private List<T> visible;
+
+    /**
+     * Construtor da classe LiveFilteredList, sem filtro.
+     *
+     * @param source A lista de origem, com todas as mídias.
+     */
+    public LiveFilteredList(List<T> source) {
+        this.source = source;
+        this.predicate = null;
+        this.visible = new ArrayList<>(source);
+    }
+
+    /**
+     * Cria um filtro que aceita apenas as mídias de uma lista, como o resultado de uma busca.
+     *
+     * @param matches As mídias aceitas pelo filtro.
+     * @param <T> O tipo de mídia.
+     * @return O filtro.
+     */
+    public static <T> Predicate<T> containedIn(List<? extends T> matches) {
+        Set<T> accepted = Collections.newSetFromMap(new IdentityHashMap<>(matches.size() * 2));
+        accepted.addAll(matches);
+        return accepted::contains;
+    }
+
+    /**
+     * Cria um comparador que ordena as mídias na ordem de uma lista, como o resultado
+     * de uma busca, já ordenado pelo controlador. Mídias que não estão na lista vêm depois.
+     *
+     * @param matches As mídias, na ordem desejada.
+     * @param <T> O tipo de mídia.
+     * @return O comparador.
+     */
+    public static <T> Comparator<T> orderOf(List<? extends T> matches) {
+        Map<T, Integer> positions = new IdentityHashMap<>(matches.size() * 2);
+        for (int position = 0; position < matches.size(); ++position)
+            positions.putIfAbsent(matches.get(position), position);
+        return Comparator.comparingInt(media -> positions.getOrDefault(media, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Troca o filtro, notificando apenas as mídias que entraram ou saíram da lista.
+     *
+     * @param predicate O novo filtro, ou null para exibir todas as mídias.
+     */
+    public void setPredicate(Predicate<? super T> predicate) {
+        this.predicate = predicate;
+        refilter();
+    }
+
+    /**
+     * Obtém o filtro atual.
+     *
+     * @return O filtro, ou null se todas as mídias são exibidas.
+     */
+    public Predicate<? super T> getPredicate() {
+        return predicate;
+    }
+
+    /**
+     * Troca a lista de origem, mantendo o filtro, e notifica apenas as mídias
+     * que entraram ou saíram da lista (por exemplo, uma mídia cadastrada ou removida).
+     *
+     * @param source A nova lista de origem.
+     */
+    public void setSource(List<T> source) {
+        this.source = source;
+        refilter();
+    }
+
+    /**
+     * Troca a lista de origem e o filtro ao mesmo tempo, em uma única notificação.
+     *
+     * @param source A nova lista de origem.
+     * @param predicate O novo filtro, ou null para exibir todas as mídias.
+     */
+    public void setSource(List<T> source, Predicate<? super T> predicate) {
+        this.source = source;
+        this.predicate = predicate;
+        refilter();
+    }
+
+    @Override
+    public T get(int index) {
+        return visible.get(index);
+    }
+
+    @Override
+    public int size() {
+        return visible.size();
+    }
+
+    /**
+     * Recalcula as mídias visíveis e notifica a diferença para a lista anterior.
+     * Se a diferença tiver muitos trechos separados, ou se a ordem das mídias mudou,
+     * a lista é notificada como substituída inteira, o que é mais barato para quem
+     * a observa (uma SortedList, por exemplo, processa cada trecho percorrendo a lista).
+     */
+    private void refilter() {
+        List<T> previous = visible;
+        List<T> next = new ArrayList<>();
+        for (T media : source)
+            if (predicate == null || predicate.test(media))
+                next.add(media);
+
+        List<int[]> runs = diff(previous, next);
+
+        beginChange();
+        visible = next;
+        if (runs == null) {
+            nextReplace(0, next.size(), previous);
+        } else {
+            for (int[] run : runs) {
+                if (run[2] > run[1])
+                    nextRemove(run[0], previous.subList(run[1], run[2]));
+                if (run[3] > 0)
+                    nextAdd(run[0], run[0] + run[3]);
+            }
+        }
+        endChange();
+    }
+
+    /**
+     * Calcula a diferença entre duas listas de mídias que seguem a ordem da lista de origem.
+     * <p>
+     * As listas são percorridas em paralelo: uma sequência de mídias que só existem na
+     * anterior foi removida e uma que só existe na nova foi adicionada. Cada trecho é
+     * representado por {posição, início e fim das removidas na lista anterior, quantidade
+     * de adicionadas}, onde a posição é a da lista enquanto é transformada da esquerda
+     * para a direita, como espera o ObservableListBase.
+     *
+     * @param previous As mídias visíveis anteriormente.
+     * @param next As novas mídias visíveis.
+     * @return Os trechos alterados, ou null se a ordem mudou ou se há mais de
+     * MAX_RUNS trechos.
+     */
+    private static <T> List<int[]> diff(List<T> previous, List<T> next) {
+        Set<T> previousSet = identitySet(previous);
+        Set<T> nextSet = identitySet(next);
+        List<int[]> runs = new ArrayList<>();
+
+        int i = 0;
+        int j = 0;
+        int position = 0;
+        while (i < previous.size() || j < next.size()) {
+            int removedEnd = i;
+            while (removedEnd < previous.size() && !nextSet.contains(previous.get(removedEnd)))
+                removedEnd++;
+            int addedEnd = j;
+            while (addedEnd < next.size() && !previousSet.contains(next.get(addedEnd)))
+                addedEnd++;
+
+            if (removedEnd > i || addedEnd > j) {
+                if (runs.size() == MAX_RUNS)
+                    return null;
+                runs.add(new int[]{position, i, removedEnd, addedEnd - j});
+                position += addedEnd - j;
+                i = removedEnd;
+                j = addedEnd;
+            }
+
+            if (i < previous.size() && j < next.size() && previous.get(i) == next.get(j)) {
+                i++;
+                j++;
+                position++;
+            } else if (i < previous.size() || j < next.size()) {
+                // A ordem mudou
+                return null;
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Cria um conjunto por identidade com as mídias de uma lista.
+     *
+     * @param list A lista de mídias.
+     * @return O conjunto das mídias.
+     */
+    private static <T> Set<T> identitySet(List<T> list) {
+        Set<T> set = Collections.newSetFromMap(new IdentityHashMap<>(list.size() * 2));
+        set.addAll(list);
+        return set;
+    }
+}
@@ -3,8 +3,11 @@ package com.davigui.mediajournal.ViewFXControllers.MainScreen;
 import com.davigui.mediajournal.Controller.BookService;
 import com.davigui.mediajournal.Controller.MovieService;
 import com.davigui.mediajournal.Controller.SeriesService;
-import com.davigui.mediajournal.Model.Repository.DataOperations;
+import com.davigui.mediajournal.Model.Repository.AutoSaver;
+import com.davigui.mediajournal.Model.Repository.ConcurrentLibrary;
 import com.davigui.mediajournal.Model.Repository.Library;
+import com.davigui.mediajournal.Model.Result.IResult;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Tab;
@@ -19,8 +22,8 @@ import java.util.ResourceBundle;
  * Gerencia as abas de mídias (livros, filmes e séries) e seus respectivos
  * controladores de conteúdo.
  * <p>
- * Inicializa os serviços específicos de cada tipo de mídia e carrega
- * as listas correspondentes ao iniciar a aplicação.
+ * Carrega a biblioteca em segundo plano e, ao terminar, inicializa os
+ * serviços específicos de cada tipo de mídia e carrega as listas correspondentes.
  */
 public class MainScreenController implements Initializable {
 
@@ -81,18 +84,56 @@ public class MainScreenController implements Initializable {
      */
     private Library journal;
 
+    /**
+     * Salvamento automático da biblioteca, criado quando ela termina de carregar.
+     */
+    private AutoSaver autoSaver;
+
+    /**
+     * Tarefa do último salvamento, iniciada ao fechar a aplicação (null antes disso).
+     */
+    private Task<IResult> saving;
+
     /**
      * Inicializa o controlador principal da aplicação.
      * <p>
-     * Cria uma nova biblioteca, carrega os dados salvos e inicializa os serviços
-     * específicos para livros, filmes e séries.
-     * Os controladores das abas são injetados por FXML e então definem os
-     * serviços criados e carregam suas respectivas listas de mídias.
+     * Coloca as abas de mídias em estado de carregamento e inicia a tarefa de
+     * leitura da biblioteca ({@code LibraryTasks.load()}), sem bloquear a thread da interface.
+     * Enquanto a leitura acontece, as abas exibem o andamento da tarefa.
+     * Quando a leitura termina, o método {@code onLibraryLoaded()} é executado
+     * na thread do JavaFX. Se a leitura falhar, uma biblioteca vazia é usada.
+     * A biblioteca é uma ConcurrentLibrary, pois as buscas das abas a leem fora
+     * da thread do JavaFX.
      */
     @Override
     public void initialize(URL url, ResourceBundle rb){
-        this.journal = new Library();
-        DataOperations.load(journal);
+        Task<Library> loading = LibraryTasks.load();
+
+        booksTabContentController.showLoading(loading.messageProperty());
+        moviesTabContentController.showLoading(loading.messageProperty());
+        seriesTabContentController.showLoading(loading.messageProperty());
+
+        loading.setOnSucceeded(event -> onLibraryLoaded(loading.getValue()));
+        loading.setOnFailed(event -> onLibraryLoaded(new ConcurrentLibrary()));
+        LibraryTasks.start(loading);
+    }
+
+    /**
+     * Finaliza a inicialização após o carregamento da biblioteca.
+     * <p>
+     * Inicializa os serviços específicos para livros, filmes e séries.
+     * Os controladores das abas são injetados por FXML e então definem os
+     * serviços criados e carregam suas respectivas listas de mídias.
+     * Também inicia o salvamento automático. A biblioteca carregada é uma ConcurrentLibrary,
+     * então a fotografia é tirada diretamente na thread do salvamento automático, sob os
+     * locks da biblioteca; a thread do JavaFX só espera por ela se alterar a biblioteca
+     * enquanto a fotografia é tirada.
+     *
+     * @param loadedJournal A biblioteca carregada
+     */
+    private void onLibraryLoaded(Library loadedJournal) {
+        this.journal = loadedJournal;
+        this.autoSaver = new AutoSaver(journal, AutoSaver.DEFAULT_INTERVAL, Runnable::run);
 
         BookService bookService = new BookService(journal);
         MovieService movieService = new MovieService(journal);
@@ -111,10 +152,29 @@ public class MainScreenController implements Initializable {
     /**
      * Salva os dados da biblioteca.
      * <p>
-     * Este método delega a operação para a classe {@code DataOperations}.
+     * Este método inicia a tarefa do último salvamento ({@code LibraryTasks.save()}), que
+     * encerra o salvamento automático e aguarda algum salvamento em andamento, sem bloquear
+     * a thread da interface. As abas ficam desativadas até o fim do salvamento,
+     * quando a ação dada é executada na thread do JavaFX. Se o salvamento já tiver
+     * sido iniciado, nada é feito.
+     * Se a biblioteca ainda não terminou de carregar, nada é salvo, para não
+     * sobrescrever os arquivos com uma biblioteca vazia.
+     *
+     * @param onSaved A ação executada depois do salvamento, como fechar a janela.
      */
-    public void saveLibrary() {
-        DataOperations.save(journal);
+    public void saveLibrary(Runnable onSaved) {
+        if (saving != null)
+            return;
+        if (autoSaver == null) {
+            onSaved.run();
+            return;
+        }
+
+        mediasTabPane.setDisable(true);
+        saving = LibraryTasks.save(autoSaver);
+        saving.setOnSucceeded(event -> onSaved.run());
+        saving.setOnFailed(event -> onSaved.run());
+        LibraryTasks.start(saving);
     }
 }
 
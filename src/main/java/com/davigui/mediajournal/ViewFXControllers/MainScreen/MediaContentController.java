@@ -3,9 +3,12 @@ package com.davigui.mediajournal.ViewFXControllers.MainScreen;
 import com.davigui.mediajournal.Controller.CommonService;
 import com.davigui.mediajournal.Model.Enums.Genres;
 import com.davigui.mediajournal.Model.Medias.Media;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -15,6 +18,7 @@ import javafx.scene.layout.VBox;
 import java.io.IOException;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.ResourceBundle;
 
@@ -172,10 +176,26 @@ public abstract class MediaContentController<T extends Media> implements Initial
     protected CommonService<T> service;
 
     /**
-     * Lista observável da mídia parametrizada usada na tabela. A atualização
-     * dos items se dá pelo método setAll().
+     * Lista observável da mídia parametrizada usada na tabela. Contém todas as
+     * mídias do controlador e exibe as que satisfazem o filtro da busca atual;
+     * ao trocar o filtro, apenas as linhas que entram ou saem são notificadas.
+     * A tabela a exibe através de uma SortedList, ordenada pelas colunas.
      */
-    protected ObservableList<T> mediaObservableList;
+    protected LiveFilteredList<T> mediaObservableList;
+
+    /**
+     * A ordem do resultado da busca atual, como devolvido pelo controlador (por nota),
+     * usada pela tabela enquanto nenhuma coluna estiver ordenando. É null sem busca,
+     * e então as mídias seguem a ordem de cadastro.
+     */
+    protected final ObjectProperty<Comparator<T>> searchOrder = new SimpleObjectProperty<>();
+
+    /**
+     * Os valores exibidos nas colunas da tabela, por mídia. As subclasses registram
+     * suas colunas nele em {@code configureTable()}, para que as propriedades das
+     * células não sejam recriadas a cada vez que a tabela é desenhada.
+     */
+    protected MediaRowCache<T> rowCache;
 
     /**
      * A mídia selecionada na tabela. A seleção não é apagada ao clicar em um
@@ -193,6 +213,13 @@ public abstract class MediaContentController<T extends Media> implements Initial
      */
     protected ObservableValue<String> selectedFilter;
 
+    /**
+     * A busca do campo de texto e da caixa de gênero. As buscas são executadas fora
+     * da thread do JavaFX depois de uma pausa na digitação, e apenas o resultado
+     * da busca mais recente é atribuído à lista observável de mídias.
+     */
+    protected DebouncedSearch<T> search;
+
     // ***********Métodos*******************
 
     /**
@@ -214,7 +241,10 @@ public abstract class MediaContentController<T extends Media> implements Initial
 
         //**************TABELA************************************
 
+        rowCache = new MediaRowCache<>();
         configureTable();
+        search = new DebouncedSearch<>(DebouncedSearch.DEFAULT_QUIET_PERIOD,
+                this::showSearchResult);
         initTableListener();
 
         //***********CHOICEBOXES*********************
@@ -239,32 +269,79 @@ public abstract class MediaContentController<T extends Media> implements Initial
         hideMediaInfo();
     }
 
+    /**
+     * Coloca a aba em estado de carregamento enquanto a biblioteca é lida.
+     * A tabela exibe a mensagem de andamento da leitura e os botões de adicionar
+     * e de filtro ficam desativados, pois o controlador ainda não foi definido.
+     *
+     * @param message A mensagem de andamento da leitura
+     */
+    protected void showLoading(ObservableValue<String> message){
+        Label loadingLabel = new Label();
+        loadingLabel.textProperty().bind(message);
+        tableView.setPlaceholder(loadingLabel);
+        addButton.setDisable(true);
+        filterButton.setDisable(true);
+    }
+
     /**
      * Carrega a lista observável de mídias e a atribui à tabela.
-     * A lista original de mídias é obtida a partir do controlador
-     * e convertida em uma lista observável utilizando o método
-     * estático {@code FXCollections.observableArrayList()}.
+     * A lista original de mídias é obtida a partir do controlador e
+     * exibida por uma {@code LiveFilteredList}, sem filtro. A tabela recebe
+     * uma {@code SortedList} sobre ela, cujo comparador segue o das colunas,
+     * para que a ordenação ao clicar no cabeçalho continue funcionando. Sem coluna
+     * ordenando, o resultado de uma busca segue a ordem devolvida pelo controlador.
+     * Também encerra o estado de carregamento da aba.
      */
     protected void configureMediaList(){
-        mediaObservableList = FXCollections.observableArrayList(service.getAll());
-        tableView.setItems(mediaObservableList);
-
+        mediaObservableList = new LiveFilteredList<>(service.getAll());
+        SortedList<T> sortedMedia = new SortedList<>(mediaObservableList);
+        sortedMedia.comparatorProperty().bind(Bindings.<Comparator<? super T>>createObjectBinding(
+                () -> (tableView.getComparator() != null) ? tableView.getComparator() : searchOrder.get(),
+                tableView.comparatorProperty(), searchOrder));
+        tableView.setItems(sortedMedia);
+
+        tableView.setPlaceholder(null);
+        addButton.setDisable(false);
+        filterButton.setDisable(false);
     }
 
     /**
      * Reseta a lista observável de mídias para o padrão, limpando as seleções
      * da tabela e dos elementos de filtro no processo, desativando estes
      * últimos. A lista padrão é obtida através do controlador da mídia
-     * parametrizada.
+     * parametrizada e o filtro é removido; apenas as mídias que mudaram são
+     * notificadas à tabela. Uma busca pendente é cancelada, para não sobrescrever a lista.
+     * <p>
+     * Como as janelas de edição alteram a mídia selecionada e recarregam a lista ao
+     * fechar, os valores exibidos da mídia selecionada são recalculados, e os das
+     * mídias removidas são descartados.
      */
     protected void resetMediaList(){
-        mediaObservableList.setAll(service.getAll());
+        search.cancel();
+        List<T> medias = service.getAll();
+        if (selectedItem.getValue() != null)
+            rowCache.invalidate(selectedItem.getValue());
+        rowCache.retainAll(medias);
+        mediaObservableList.setSource(medias, null);
+        searchOrder.set(null);
         filterTypeChoiceBox.getSelectionModel().clearSelection();
         tableView.getSelectionModel().clearSelection();
         toggleFilterTextField(false);
         toggleGenreChoiceBox(false);
     }
 
+    /**
+     * Exibe o resultado de uma busca na tabela: apenas as mídias encontradas ficam
+     * visíveis e, sem coluna ordenando, na mesma ordem do resultado.
+     *
+     * @param result As mídias encontradas, na ordem devolvida pelo controlador.
+     */
+    protected void showSearchResult(List<T> result) {
+        mediaObservableList.setPredicate(LiveFilteredList.containedIn(result));
+        searchOrder.set(LiveFilteredList.orderOf(result));
+    }
+
     /**
      * Inicializa o listener de seleção da tabela.
      * Sempre que uma nova mídia for selecionada, os dados serão exibidos
@@ -364,14 +441,11 @@ public abstract class MediaContentController<T extends Media> implements Initial
      * Executa a lógica de busca com base no filtro selecionado.
      * <p>
      * Se o filtro passado for uma String nula ou vazia e o critério de busca
-     * não for Gênero, recarrega toda a lista de mídias.
-     * <p>
-     * O fluxo é delegado de acordo com a seleção do critério de busca. Se a busca
-     * for por Ano, o filtro é convertido em inteiro e, caso isto não seja possível,
-     * captura a exceção e limpa a lista de mídias.
+     * não for Gênero, cancela a busca pendente e recarrega toda a lista de mídias.
      * <p>
-     * Os casos específicos das subclasses são feitos através do método {@code
-     * handleSpecificSearch()}.
+     * Caso contrário, o critério e o gênero são lidos aqui, na thread do JavaFX, e a
+     * busca é agendada pelo {@code search}: ela só é executada depois de uma pausa na
+     * digitação, fora da thread do JavaFX, pelo método {@code runSearch()}.
      * @param filter o valor inserido no campo de busca
      */
     protected void handleSearch(String filter){
@@ -382,66 +456,87 @@ public abstract class MediaContentController<T extends Media> implements Initial
 
         //Se o filtro não for por gênero e for vazio, apenas recarrega a tabela
         if(!"Gênero".equals(filterType) && (filter == null || filter.isEmpty())){
-            mediaObservableList.setAll(service.getAll());
+            search.cancel();
+            mediaObservableList.setPredicate(null);
+            searchOrder.set(null);
             return;
         }
 
+        Genres genre = selectedGenre.getValue();
+        search.submit(() -> runSearch(filterType, filter, genre));
+    }
+
+    /**
+     * Executa uma busca e retorna o seu resultado. Executado fora da thread do JavaFX,
+     * então não deve ler nem alterar componentes da interface.
+     * <p>
+     * O fluxo é delegado de acordo com o critério de busca. Se a busca for por Ano,
+     * o filtro é convertido em inteiro e, caso isto não seja possível, captura a
+     * exceção e retorna uma lista vazia.
+     * <p>
+     * Os casos específicos das subclasses são feitos através do método {@code
+     * handleSpecificSearch()}.
+     *
+     * @param filterType O critério de busca selecionado
+     * @param filter O valor inserido no campo de busca
+     * @param genre O gênero selecionado na caixa de gênero
+     * @return A lista de mídias encontradas
+     */
+    protected List<T> runSearch(String filterType, String filter, Genres genre){
+
         switch (filterType){
             case "Título":
-                titleSearch(filter);
-                break;
+                return titleSearch(filter);
 
             case "Ano":
                 try {
-                    yearSearch(Integer.parseInt(filter));
+                    return yearSearch(Integer.parseInt(filter));
                 }catch (NumberFormatException numberFormatException){
-                    mediaObservableList.clear();
+                    return List.of();
                 }
-                break;
 
             case "Gênero":
-                genreSearch(selectedGenre.getValue());
-                break;
+                return genreSearch(genre);
 
             default:
-                handleSpecificSearch(filter);
-                break;
+                return handleSpecificSearch(filterType, filter);
         }
     }
 
     /**
      * Realiza a busca por título.
      * <p>
-     * A busca é executada pelo controlador de modelo da mídia com base no título
-     * e a lista retornada é atribuida à lista observável de mídias.
+     * A busca é executada pelo controlador de modelo da mídia com base no título.
      * @param title O título da obra
+     * @return A lista de mídias encontradas
      */
-    protected void titleSearch(String title){
-        mediaObservableList.setAll(service.searchByTitle(title));
+    protected List<T> titleSearch(String title){
+        return service.searchByTitle(title);
     }
 
     /**
      * Realiza a busca por gênero.
      * <p>
      * A busca é executada pelo controlador de modelo da mídia, com base no gênero
-     * fornecido, e a lista retornada é atribuída à lista observável de mídias.
+     * fornecido.
      *
      * @param genre O gênero da obra
+     * @return A lista de mídias encontradas
      */
-    protected void genreSearch(Genres genre) {
-        mediaObservableList.setAll(service.searchByGenre(genre));
+    protected List<T> genreSearch(Genres genre) {
+        return service.searchByGenre(genre);
     }
 
     /**
      * Realiza a busca por ano.
      * <p>
-     * A busca é executada pelo controlador de modelo da mídia com base no ano informado e
-     * a lista retornada é atribuída à lista observável de mídias.
+     * A busca é executada pelo controlador de modelo da mídia com base no ano informado.
      *
      * @param year O ano de lançamento da obra
+     * @return A lista de mídias encontradas
      */
-    protected void yearSearch(int year){
-        mediaObservableList.setAll(service.searchByYear(year));
+    protected List<T> yearSearch(int year){
+        return service.searchByYear(year);
     }
 
     /**
@@ -576,11 +671,14 @@ public abstract class MediaContentController<T extends Media> implements Initial
     /**
      * Lida com buscas por critérios que não sejam título, ano ou gênero. As subclasses
      * devem adicionar os critérios específicos num bloco switch-case e criar
-     * o método de busca correspondente.
+     * o método de busca correspondente. Executado fora da thread do JavaFX, então
+     * o critério é recebido como parâmetro em vez de lido da caixa de escolha.
      *
+     * @param filterType O critério de busca selecionado
      * @param filter O filtro original que será repassado
+     * @return A lista de mídias encontradas
      */
-    protected abstract void handleSpecificSearch(String filter);
+    protected abstract List<T> handleSpecificSearch(String filterType, String filter);
 
     /**
      * Carrega e exibe as informações detalhadas da mídia selecionada na VBox lateral.
@@ -0,0 +1,111 @@
+package com.davigui.mediajournal.ViewFXControllers.MainScreen;
+
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A classe MediaRowCache guarda os valores exibidos nas colunas da tabela de mídias,
+ * por linha, para que a tabela não crie novas propriedades a cada vez que uma célula
+ * é desenhada (por exemplo, ao rolar a tabela).
+ * <p>
+ * Cada coluna é registrada com a função que extrai o seu valor da mídia, e recebe
+ * uma fábrica de valores de célula ({@code setCellValueFactory}). Na primeira vez que
+ * uma mídia é exibida, a propriedade da coluna é criada com o valor atual; nas seguintes,
+ * a mesma propriedade é devolvida. Quando uma mídia é alterada, {@code invalidate()}
+ * recalcula os valores das suas propriedades, e as células que as exibem são
+ * atualizadas automaticamente.
+ * <p>
+ * As mídias são comparadas por identidade. Deve ser usada apenas na thread do JavaFX.
+ *
+ * @param <T> O tipo de mídia da tabela.
+ */
+public class MediaRowCache<T> {
+    // Funções que extraem o valor de cada coluna, na ordem de registro
+    private final List<Function<? super T, ?>> columns;
+    // Propriedades já criadas de cada mídia, uma posição por coluna
+    private final Map<T, List<ObjectProperty<Object>>> rows;
+
+    /**
+     * Construtor da classe MediaRowCache, sem colunas.
+     */
+    public MediaRowCache() {
+        this.columns = new ArrayList<>();
+        this.rows = new IdentityHashMap<>();
+    }
+
+    /**
+     * Registra uma coluna e cria a sua fábrica de valores de célula.
+     *
+     * @param value A função que extrai o valor da coluna de uma mídia.
+     * @param <V> O tipo do valor da coluna.
+     * @return A fábrica de valores de célula da coluna, que devolve sempre a mesma
+     * propriedade para a mesma mídia.
+     */
+    public <V> Callback<TableColumn.CellDataFeatures<T, V>, ObservableValue<V>> column(
+            Function<? super T, ? extends V> value) {
+        int slot = columns.size();
+        columns.add(value);
+        return cellData -> property(cellData.getValue(), slot);
+    }
+
+    /**
+     * Recalcula os valores das colunas de uma mídia alterada.
+     * As células que exibem a mídia são atualizadas; se ela ainda não foi exibida,
+     * nada é feito.
+     *
+     * @param media A mídia alterada.
+     */
+    public void invalidate(T media) {
+        List<ObjectProperty<Object>> row = rows.get(media);
+        if (row == null)
+            return;
+
+        for (int slot = 0; slot < row.size(); ++slot)
+            if (row.get(slot) != null)
+                row.get(slot).set(columns.get(slot).apply(media));
+    }
+
+    /**
+     * Descarta as propriedades das mídias que não estão mais na tabela,
+     * como as mídias removidas.
+     *
+     * @param medias As mídias que continuam na tabela.
+     */
+    public void retainAll(Collection<? extends T> medias) {
+        Set<T> kept = Collections.newSetFromMap(new IdentityHashMap<>(medias.size() * 2));
+        kept.addAll(medias);
+        rows.keySet().retainAll(kept);
+    }
+
+    /**
+     * Obtém a propriedade de uma coluna de uma mídia, criando-a na primeira vez.
+     *
+     * @param media A mídia da linha.
+     * @param slot A posição da coluna.
+     * @param <V> O tipo do valor da coluna.
+     * @return A propriedade com o valor da coluna.
+     */
+    @SuppressWarnings("unchecked")
+    private <V> ObservableValue<V> property(T media, int slot) {
+        List<ObjectProperty<Object>> row = rows.computeIfAbsent(media, key -> new ArrayList<>(columns.size()));
+        // Colunas registradas depois que a mídia foi exibida também ganham uma posição
+        while (row.size() < columns.size())
+            row.add(null);
+
+        if (row.get(slot) == null)
+            row.set(slot, new SimpleObjectProperty<>(columns.get(slot).apply(media)));
+        return (ObservableValue<V>) row.get(slot);
+    }
+}
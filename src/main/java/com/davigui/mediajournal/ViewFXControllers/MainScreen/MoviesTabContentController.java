@@ -4,11 +4,10 @@ import com.davigui.mediajournal.Controller.CommonService;
 import com.davigui.mediajournal.Controller.MovieService;
 import com.davigui.mediajournal.MainFX;
 import com.davigui.mediajournal.Model.Medias.Movie;
+import com.davigui.mediajournal.Model.Medias.Stars;
 import com.davigui.mediajournal.ViewFXControllers.RateScreens.RateScreenController;
 import com.davigui.mediajournal.ViewFXControllers.RateScreens.SeenMovieScreenController;
 import com.davigui.mediajournal.ViewFXControllers.RegisterScreens.RegisterMovieScreenController;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -123,54 +122,48 @@ public class MoviesTabContentController extends MediaContentController<Movie> {
      * incluindo propriedades como título, ano, avaliação, direção, duração,
      * título original e data de visualização.
      * Como os métodos do modelo retornam tipos comuns (e não propriedades observáveis),
-     * é necessário encapsular os valores em {@code Property}.
+     * os valores são encapsulados em propriedades guardadas pelo {@code rowCache},
+     * criadas uma única vez por filme exibido.
      */
     @Override
     protected void configureTable() {
-        titleColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getTitle()));
+        titleColumn.setCellValueFactory(rowCache.column(Movie::getTitle));
 
-        yearColumn.setCellValueFactory(cellData ->
-                new SimpleIntegerProperty(cellData.getValue().getYear()).asObject());
+        yearColumn.setCellValueFactory(rowCache.column(Movie::getYear));
 
-        ratingColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty("★".repeat(cellData.getValue().getRating())));
+        ratingColumn.setCellValueFactory(rowCache.column(movie -> Stars.of(movie.getRating())));
 
-        directionColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getDirection()));
+        directionColumn.setCellValueFactory(rowCache.column(Movie::getDirection));
 
-        durationColumn.setCellValueFactory(cellData ->
-                new SimpleIntegerProperty(cellData.getValue().getDuration()).asObject());
+        durationColumn.setCellValueFactory(rowCache.column(Movie::getDuration));
 
-        originalTitleColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getOriginalTitle()));
+        originalTitleColumn.setCellValueFactory(rowCache.column(Movie::getOriginalTitle));
 
-        seenDateColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getSeenDate()));
+        seenDateColumn.setCellValueFactory(rowCache.column(Movie::getSeenDate));
     }
 
     /**
      * Realiza a busca por ator.
      * <p>
-     * A busca é realizada pelo serviço de filmes com base no nome do ator,
-     * e a lista retornada é atribuída à lista observável de mídias.
+     * A busca é realizada pelo serviço de filmes com base no nome do ator.
      *
      * @param filter O nome do ator
+     * @return A lista de filmes encontrados
      */
-    private void actorSearch(String filter) {
-        mediaObservableList.setAll(movieService.searchByActor(filter));
+    private List<Movie> actorSearch(String filter) {
+        return movieService.searchByActor(filter);
     }
 
     /**
      * Realiza a busca por diretor.
      * <p>
-     * A busca é realizada pelo serviço de filmes com base no nome do diretor,
-     * e a lista retornada é atribuída à lista observável de mídias.
+     * A busca é realizada pelo serviço de filmes com base no nome do diretor.
      *
      * @param filter O nome do diretor
+     * @return A lista de filmes encontrados
      */
-    private void directorSearch(String filter) {
-        mediaObservableList.setAll(movieService.searchByDirector(filter));
+    private List<Movie> directorSearch(String filter) {
+        return movieService.searchByDirector(filter);
     }
 
     /**
@@ -197,17 +190,19 @@ public class MoviesTabContentController extends MediaContentController<Movie> {
      * Este método é chamado quando o critério de filtro selecionado não
      * pertence aos tipos genéricos tratados na superclasse (título, ano, gênero).
      *
+     * @param filterType O critério de busca selecionado
      * @param filter O filtro digitado no campo de busca
+     * @return A lista de filmes encontrados
      */
     @Override
-    protected void handleSpecificSearch(String filter) {
-        switch (selectedFilter.getValue()) {
+    protected List<Movie> handleSpecificSearch(String filterType, String filter) {
+        switch (filterType) {
             case "Ator":
-                actorSearch(filter);
-                break;
+                return actorSearch(filter);
             case "Diretor":
-                directorSearch(filter);
-                break;
+                return directorSearch(filter);
+            default:
+                return List.of();
         }
     }
 
@@ -224,7 +219,7 @@ public class MoviesTabContentController extends MediaContentController<Movie> {
     protected void handleMediaInfo(Movie movie) {
         titleYearInfo.setText(movie.getTitle() + " (" + movie.getYear() + ")");
         genreInfo.setText(movie.getGenre().toString());
-        ratingInfo.setText("★".repeat(movie.getRating()));
+        ratingInfo.setText(Stars.of(movie.getRating()));
         if (movie.getReview() == null)
             reviewInfo.setText("RESENHA: Sem resenha atribuida");
         else
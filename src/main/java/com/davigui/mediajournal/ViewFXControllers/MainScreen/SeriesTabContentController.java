@@ -6,11 +6,10 @@ import com.davigui.mediajournal.MainFX;
 import com.davigui.mediajournal.Model.Exceptions.SeasonNotFoundException;
 import com.davigui.mediajournal.Model.Medias.Season;
 import com.davigui.mediajournal.Model.Medias.Series;
+import com.davigui.mediajournal.Model.Medias.Stars;
 import com.davigui.mediajournal.ViewFXControllers.RateScreens.RateSeasonScreenController;
 import com.davigui.mediajournal.ViewFXControllers.RegisterScreens.RegisterSeasonScreenController;
 import com.davigui.mediajournal.ViewFXControllers.RegisterScreens.RegisterSeriesScreenController;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -126,34 +125,29 @@ public class SeriesTabContentController extends MediaContentController<Series> {
      * <p>
      * Define como cada coluna extrai os dados dos objetos {@code Series},
      * incluindo propriedades como título, ano de início, ano de encerramento,
-     * avaliação, título original e quantidade de temporadas.
+     * avaliação, título original e quantidade de temporadas. Os valores ficam
+     * em propriedades guardadas pelo {@code rowCache}, criadas uma única vez por série exibida.
      * <p>
      * Caso a série ainda esteja em andamento (valor 9999), o ano de encerramento
      * é exibido como "Em andamento".
      */
     @Override
     protected void configureTable() {
-        titleColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getTitle()));
+        titleColumn.setCellValueFactory(rowCache.column(Series::getTitle));
 
-        yearColumn.setCellValueFactory(cellData ->
-                new SimpleIntegerProperty(cellData.getValue().getYear()).asObject());
+        yearColumn.setCellValueFactory(rowCache.column(Series::getYear));
 
-        endingYearColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(
-                        cellData.getValue().getYearOfEnding() == 9999 ?
-                                "Em andamento" :
-                                Integer.toString(cellData.getValue().getYearOfEnding())
-                ));
+        endingYearColumn.setCellValueFactory(rowCache.column(series ->
+                series.getYearOfEnding() == 9999 ?
+                        "Em andamento" :
+                        Integer.toString(series.getYearOfEnding())
+        ));
 
-        ratingColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty("★".repeat(cellData.getValue().getRating())));
+        ratingColumn.setCellValueFactory(rowCache.column(series -> Stars.of(series.getRating())));
 
-        originalTitleColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getOriginalTitle()));
+        originalTitleColumn.setCellValueFactory(rowCache.column(Series::getOriginalTitle));
 
-        seasonNumberColumn.setCellValueFactory(cellData ->
-                new SimpleIntegerProperty(cellData.getValue().getNumberOfSeasons()).asObject());
+        seasonNumberColumn.setCellValueFactory(rowCache.column(Series::getNumberOfSeasons));
     }
 
     /**
@@ -176,13 +170,13 @@ public class SeriesTabContentController extends MediaContentController<Series> {
     /**
      * Realiza a busca por ator.
      * <p>
-     * A busca é realizada pelo serviço de séries com base no nome do ator,
-     * e a lista retornada é atribuída à lista observável de mídias.
+     * A busca é realizada pelo serviço de séries com base no nome do ator.
      *
      * @param filter O nome do ator
+     * @return A lista de séries encontradas
      */
-    private void actorSearch(String filter) {
-        mediaObservableList.setAll(seriesService.searchByActor(filter));
+    private List<Series> actorSearch(String filter) {
+        return seriesService.searchByActor(filter);
     }
 
     /**
@@ -192,15 +186,18 @@ public class SeriesTabContentController extends MediaContentController<Series> {
      * genéricos tratados na superclasse (título, ano, gênero). O bloco switch,
      * embora possua apenas um case, foi mantido para possíveis adições.
      *
+     * @param filterType O critério de busca selecionado
      * @param filter O filtro digitado no campo de busca
+     * @return A lista de séries encontradas
      */
     @Override
-    protected void handleSpecificSearch(String filter) {
-        switch (selectedFilter.getValue()) {
+    protected List<Series> handleSpecificSearch(String filterType, String filter) {
+        switch (filterType) {
             case "Ator":
-                actorSearch(filter);
-                break;
+                return actorSearch(filter);
             // Mantido como switch para facilitar extensões futuras
+            default:
+                return List.of();
         }
     }
 
@@ -221,7 +218,7 @@ public class SeriesTabContentController extends MediaContentController<Series> {
 
         titleYearInfo.setText(series.getTitle() + " (" + series.getYear() + " - " + endingYear + ")");
         genreInfo.setText(series.getGenre().toString());
-        ratingInfo.setText("★".repeat(series.getRating()));
+        ratingInfo.setText(Stars.of(series.getRating()));
 
         if (series.getReview() == null)
             reviewInfo.setText("RESENHA: Sem resenha atribuida");
@@ -410,7 +407,7 @@ public class SeriesTabContentController extends MediaContentController<Series> {
             alert.setTitle("Informação da Temporada");
             alert.setHeaderText("Informações da Temporada " + season.getSeasonNumber() + " de " + selectedSeries.getTitle());
             alert.setContentText(season +
-                    "\nAvaliação: " + (season.getRating() > 0 ? "★".repeat(season.getRating()) : "Nenhuma avaliação") +
+                    "\nAvaliação: " + (season.getRating() > 0 ? Stars.of(season.getRating()) : "Nenhuma avaliação") +
                     "\nResenha: " + (season.getReview() != null ? season.getReview() : "Nenhuma resenha"));
             alert.showAndWait();
         }
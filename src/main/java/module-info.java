@@ -6,8 +6,6 @@ module journal {
 
     exports com.davigui.mediajournal to javafx.graphics;
     opens com.davigui.mediajournal to javafx.fxml, com.google.gson;
-    opens com.davigui.mediajournal.Model.Medias to com.google.gson;
-    opens com.davigui.mediajournal.Model.Enums to com.google.gson;
 
     exports com.davigui.mediajournal.Model.Medias;
     exports com.davigui.mediajournal.Model.Enums;
@@ -0,0 +1,326 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import com.davigui.mediajournal.Model.Enums.Genres;
+import com.davigui.mediajournal.Model.Exceptions.MediaAlreadyExistsException;
+import com.davigui.mediajournal.Model.Medias.Book;
+import com.davigui.mediajournal.Model.Medias.Season;
+import com.davigui.mediajournal.Model.Medias.Series;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes de estresse da ConcurrentLibrary: várias threads cadastram, removem, alteram
+ * e consultam a mesma biblioteca ao mesmo tempo, e ao fim a biblioteca e os seus
+ * índices devem estar consistentes, sem nenhuma exceção nas threads.
+ */
+class ConcurrentLibraryStressTest {
+    // Quantidade de threads de cada teste
+    private static final int THREADS = 8;
+    // Quantidade de livros usados nos testes
+    private static final int BOOKS = 500;
+
+    // Threads dos testes
+    private ExecutorService executor;
+
+    @BeforeEach
+    void createExecutor() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void shutdownExecutor() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void eachBookIsAddedAndRemovedExactlyOnce() throws Exception {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        List<Book> books = books();
+        AtomicIntegerArray added = new AtomicIntegerArray(BOOKS);
+        AtomicIntegerArray removed = new AtomicIntegerArray(BOOKS);
+
+        runAll(thread -> {
+            for (int i = 0; i < BOOKS; ++i) {
+                try {
+                    library.addIfAbsent(books.get(i));
+                    added.incrementAndGet(i);
+                } catch (MediaAlreadyExistsException e) {
+                    //Outra thread cadastrou o livro antes
+                }
+            }
+        });
+        for (int i = 0; i < BOOKS; ++i)
+            assertEquals(1, added.get(i), "livro cadastrado mais de uma vez");
+        assertEquals(BOOKS, library.getBooks().size());
+        assertEquals(BOOKS, countYears(library));
+
+        runAll(thread -> {
+            for (int i = 0; i < BOOKS; ++i) {
+                if (library.removeIfPresent(books.get(i)))
+                    removed.incrementAndGet(i);
+            }
+        });
+        for (int i = 0; i < BOOKS; ++i)
+            assertEquals(1, removed.get(i), "livro removido mais de uma vez");
+        assertTrue(library.getBooks().isEmpty());
+        assertTrue(library.getYearsRegistered().isEmpty());
+        assertTrue(library.getBookTitleIndex().search("livro").isEmpty());
+    }
+
+    @Test
+    void yearChangesKeepIndexesConsistentWithConcurrentSearches() throws Exception {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        List<Book> books = books();
+        books.forEach(book -> library.add(book));
+        books.forEach(book -> library.addYear(book.getYear()));
+        AtomicInteger writers = new AtomicInteger(THREADS / 2);
+
+        runAll(thread -> {
+            if (thread < THREADS / 2) {
+                //Cada escritor muda o ano dos seus próprios livros várias vezes
+                for (int round = 0; round < 20; ++round)
+                    for (int i = thread; i < BOOKS; i += THREADS / 2)
+                        library.setYear(books.get(i), 1950 + (i + round) % 50);
+                writers.decrementAndGet();
+            } else {
+                while (writers.get() > 0) {
+                    for (int year = 1950; year < 2000; ++year)
+                        library.getBooksOfYear(year).forEach(Book::getTitle);
+                    library.getBooksOfGenre(Genres.values()[thread % Genres.values().length]);
+                    library.getBookTitleIndex().search("livro 1");
+                }
+            }
+        });
+
+        int indexed = 0;
+        for (int year = 1950; year < 2000; ++year) {
+            for (Book book : library.getBooksOfYear(year))
+                assertEquals(year, book.getYear());
+            indexed += library.getBooksOfYear(year).size();
+            assertEquals(library.getBooksOfYear(year).size(), library.getYearsRegistered().count(year));
+        }
+        assertEquals(BOOKS, indexed);
+    }
+
+    @Test
+    void seasonsAddedThroughUpdateAreNotLost() throws Exception {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        List<Series> series = new ArrayList<>();
+        for (int i = 0; i < THREADS; ++i) {
+            Series show = new Series("Série " + i, 1990, Genres.ROMANCE, 2020,
+                    new ArrayList<>(List.of("Ator " + i)), "Série " + i, new ArrayList<>(List.of("Plataforma")));
+            library.add(show);
+            series.add(show);
+        }
+
+        runAll(thread -> {
+            //Todas as threads adicionam temporadas a todas as séries, em números diferentes
+            for (int number = thread; number < 400; number += THREADS) {
+                for (Series show : series) {
+                    Season season = new Season(number, 10, 1990 + number % 30);
+                    library.update(show, changed -> changed.addSeason(season));
+                }
+                library.getSeriesTitleIndex().search("série");
+                library.getSeriesOfYear(1990);
+            }
+        });
+
+        for (Series show : series)
+            assertEquals(400, show.getNumberOfSeasons());
+    }
+
+    @Test
+    void savesAreWrittenWhileSeasonsAreAdded() throws Exception {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        List<Series> series = new ArrayList<>();
+        for (int i = 0; i < THREADS - 1; ++i) {
+            Series show = new Series("Série " + i, 1990, Genres.ROMANCE, 2020,
+                    new ArrayList<>(List.of("Ator " + i)), "Série " + i, new ArrayList<>(List.of("Plataforma")));
+            library.add(show);
+            series.add(show);
+        }
+        AtomicInteger writers = new AtomicInteger(THREADS - 1);
+
+        runAll(thread -> {
+            if (thread < THREADS - 1) {
+                Series show = series.get(thread);
+                for (int number = 0; number < 2000; ++number) {
+                    Season season = new Season(number, 10, 1990 + number % 30);
+                    library.update(show, changed -> changed.addSeason(season));
+                }
+                writers.decrementAndGet();
+            } else {
+                //Tira fotografias e as codifica fora dos locks enquanto as temporadas
+                //são adicionadas, como DataOperations
+                while (writers.get() > 0)
+                    encode(library.detachForSave());
+            }
+        });
+
+        for (Series show : series)
+            assertEquals(2000, show.getNumberOfSeasons());
+    }
+
+    @Test
+    void failedSaveKeepsChangesPending() {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        Series show = new Series("Série", 1990, Genres.ROMANCE, 2020, new ArrayList<>(List.of("Ator")),
+                "Série", new ArrayList<>(List.of("Plataforma")));
+        library.add(show);
+        library.markSaved();
+        library.update(show, changed -> changed.addSeason(new Season(1, 10, 1990)));
+
+        //Uma escrita que falha restaura as alterações da fotografia
+        LibrarySnapshot snapshot = library.detachForSave();
+        assertFalse(library.isSeriesDirty());
+        assertFalse(show.isModified());
+        library.restoreDirty(snapshot);
+        assertTrue(library.isSeriesDirty());
+        assertTrue(show.isModified());
+    }
+
+    @Test
+    void snapshotKeepsCopiesOfModifiedMedia() {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        Series changed = new Series("Série", 1990, Genres.ROMANCE, 2020, new ArrayList<>(List.of("Ator")),
+                "Série", new ArrayList<>(List.of("Plataforma")));
+        Series unchanged = new Series("Outra série", 1990, Genres.ROMANCE, 2020,
+                new ArrayList<>(List.of("Ator")), "Outra série", new ArrayList<>(List.of("Plataforma")));
+        library.add(changed);
+        library.add(unchanged);
+        library.markSaved();
+        library.update(changed, series -> series.addSeason(new Season(1, 10, 1990)));
+
+        LibrarySnapshot snapshot = library.detachForSave();
+        Series saved = snapshot.getSeries().get(0);
+        assertNotSame(changed, saved);
+        assertSame(unchanged, snapshot.getSeries().get(1));
+
+        //Alterações feitas depois da fotografia não aparecem na cópia
+        library.update(changed, series -> {
+            series.findSeason(1).setSeen();
+            series.addSeason(new Season(2, 10, 1991));
+        });
+        assertEquals(1, saved.getNumberOfSeasons());
+        assertFalse(saved.findSeason(1).isSeen());
+    }
+
+    @Test
+    void yearChangeThatCollidesIsRejected() {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        Series first = new Series("Série", 1990, Genres.ROMANCE, 2020, new ArrayList<>(List.of("Ator")),
+                "Série", new ArrayList<>(List.of("Plataforma")));
+        Series second = new Series("Série", 1991, Genres.ROMANCE, 2020, new ArrayList<>(List.of("Ator")),
+                "Série", new ArrayList<>(List.of("Plataforma")));
+        library.addIfAbsent(first);
+        library.addIfAbsent(second);
+
+        //Mudar o ano para o de outra série com o mesmo título geraria o mesmo ID
+        assertThrows(MediaAlreadyExistsException.class, () -> library.setYear(second, 1990));
+        assertEquals(1991, second.getYear());
+        assertSame(first, library.findSeries(first.getId()));
+        assertSame(second, library.findSeries(second.getId()));
+        assertEquals(2, countYears(library));
+    }
+
+    /**
+     * Codifica uma fotografia no formato binário, como um salvamento.
+     *
+     * @param snapshot A fotografia.
+     * @return O conteúdo codificado.
+     */
+    private static byte[] encode(LibrarySnapshot snapshot) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            SnapshotCodec.write(snapshot, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Cria os livros dos testes, com ISBNs, títulos e anos diferentes.
+     *
+     * @return Os livros.
+     */
+    private static List<Book> books() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; ++i)
+            books.add(new Book("Livro " + i, 1950 + i % 50, Genres.values()[i % Genres.values().length],
+                    "isbn-" + i, "Autor " + i % 7, "Editora", false));
+        return books;
+    }
+
+    /**
+     * Soma as ocorrências de todos os anos registrados na biblioteca.
+     *
+     * @param library A biblioteca.
+     * @return A quantidade de mídias contadas no histograma de anos.
+     */
+    private static int countYears(Library library) {
+        return library.getYearsRegistered().toMap().values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Executa a mesma tarefa em todas as threads, liberadas ao mesmo tempo,
+     * e aguarda o fim de todas, repassando a primeira exceção que ocorrer.
+     *
+     * @param task A tarefa, que recebe o número da thread.
+     * @throws Exception Se alguma thread falhar.
+     */
+    private void runAll(ThreadTask task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < THREADS; ++thread) {
+            int number = thread;
+            futures.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+                task.run(number);
+                return null;
+            }));
+        }
+        start.countDown();
+
+        for (Future<?> future : futures)
+            future.get(60, TimeUnit.SECONDS);
+    }
+
+    /**
+     * A interface ThreadTask representa a tarefa executada por cada thread de um teste.
+     */
+    @FunctionalInterface
+    private interface ThreadTask {
+        /**
+         * Executa a tarefa.
+         *
+         * @param thread O número da thread, de 0 a THREADS - 1.
+         * @throws Exception Se a tarefa falhar.
+         */
+        void run(int thread) throws Exception;
+    }
+}
@@ -0,0 +1,91 @@
+package com.davigui.mediajournal.Model.Repository;
+
+import com.davigui.mediajournal.Model.Enums.Genres;
+import com.davigui.mediajournal.Model.Medias.Book;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do MutationLog: a reaplicação dos registros em uma biblioteca e o
+ * descarte dos registros já cobertos por uma fotografia salva.
+ */
+class MutationLogTest {
+    // Diretório temporário de cada teste
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayAppliesTheFinalStateOfEachMedia() throws Exception {
+        Path path = directory.resolve("journal.log");
+        Library written = new Library();
+        try (MutationLog log = MutationLog.create(path)) {
+            written.setMutationLog(log);
+            Book kept = book(1);
+            Book removed = book(2);
+            written.addIfAbsent(kept);
+            written.addIfAbsent(removed);
+            written.addIfAbsent(book(3));
+            written.update(kept, changed -> changed.setRating(4));
+            written.removeIfPresent(removed);
+            written.update(kept, changed -> changed.setRating(5));
+        }
+
+        Library replayed = new Library();
+        replayed.addIfAbsent(book(3));
+        assertEquals(6, MutationLog.replay(path, replayed));
+
+        List<Book> books = replayed.getBooks();
+        assertEquals(2, books.size());
+        assertEquals("Livro 3", books.get(0).getTitle());
+        assertEquals("Livro 1", books.get(1).getTitle());
+        assertEquals(5, books.get(1).getRating());
+        assertEquals(books.get(1), replayed.findBook(books.get(1).getId()));
+        assertEquals(null, replayed.findBook(book(2).getId()));
+    }
+
+    @Test
+    void truncateKeepsTheRecordsAppendedAfterTheSnapshot() throws Exception {
+        Path path = directory.resolve("journal.log");
+        Library written = new Library();
+        try (MutationLog log = MutationLog.create(path)) {
+            written.setMutationLog(log);
+            written.addIfAbsent(book(1));
+            long snapshot = log.position();
+            written.addIfAbsent(book(2));
+            log.truncate(snapshot);
+            written.addIfAbsent(book(3));
+            log.truncate(snapshot);
+        }
+
+        Library replayed = new Library();
+        assertEquals(2, MutationLog.replay(path, replayed));
+        assertEquals(List.of("Livro 2", "Livro 3"),
+                replayed.getBooks().stream().map(Book::getTitle).toList());
+
+        try (MutationLog log = MutationLog.create(path)) {
+            written.setMutationLog(log);
+            written.addIfAbsent(book(4));
+            log.truncate(log.position());
+        }
+        assertTrue(Files.exists(path));
+        assertEquals(0, Files.size(path));
+    }
+
+    /**
+     * Cria um livro de teste.
+     *
+     * @param number O número do livro.
+     * @return O livro.
+     */
+    private static Book book(int number) {
+        return new Book("Livro " + number, 2000 + number, Genres.ROMANCE, "isbn-" + number,
+                "Autor", "Editora", false);
+    }
+}